@@ -0,0 +1,47 @@
+package PageReplacement;
+
+/**
+ * OnlinePolicy.access()가 반환하는 참조 한 번의 처리 결과이다.
+ * 정책마다 하나의 객체를 재사용하므로 access() 호출마다 새 객체가 만들어지지 않는다.
+ * 다음 access() 호출 시 내용이 바뀌므로 필요한 값은 바로 꺼내서 사용해야 한다.
+ */
+
+public final class AccessResult {
+	long time; // 참조 위치 (정책이 지금까지 처리한 참조 중 몇 번째인지)
+	int page; // 참조한 페이지
+	boolean hit; // Hit 여부
+	boolean evicted; // Fault 처리 중 다른 페이지가 교체되어 나갔는지 여부
+	int evictedPage; // 교체되어 나간 페이지 (evicted가 true일 때만 의미가 있음)
+	
+	// 참조 위치를 반환한다.
+	public long getTime() {
+		return time;
+	}
+	
+	// 참조한 페이지를 반환한다.
+	public int getPage() {
+		return page;
+	}
+	
+	// Hit였는지 반환한다.
+	public boolean isHit() {
+		return hit;
+	}
+	
+	// 다른 페이지가 교체되어 나갔는지 반환한다.
+	public boolean isEviction() {
+		return evicted;
+	}
+	
+	// 교체되어 나간 페이지를 반환한다. isEviction()이 false면 의미가 없다.
+	public int getEvictedPage() {
+		return evictedPage;
+	}
+	
+	@Override
+	public String toString() {
+		if (hit) return "#" + time + " " + page + " : Hit";
+		if (evicted) return "#" + time + " " + page + " : Fault (evicted " + evictedPage + ")";
+		return "#" + time + " " + page + " : Fault";
+	}
+}
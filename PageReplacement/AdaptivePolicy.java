@@ -0,0 +1,547 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * 여러 OnlinePolicy 중 지금 가장 Hit 비율이 높은 정책으로 바꿔 가며 실행한다.
+ *
+ * 페이지 번호의 해시로 고른 일부 페이지(1/2^shift)만 후보 정책마다 그림자 정책에 참조시킨다.
+ * 그림자 정책의 프레임 수도 같은 비율로 줄이므로 그림자 정책의 Hit 비율은 전체를 실행했을 때의 Hit 비율에 가깝고,
+ * 그림자 정책 비용은 (후보 수 / 2^shift)배 정도이다.
+ *
+ * 기본 표본 비율은 후보 수에 맞추어 그림자 정책 비용이 SHADOW_BUDGET(5%)을 넘지 않는 가장 높은 비율로 정한다.
+ * (후보 1개 1/32, 2개 1/64, 4개 1/128 → 모두 약 3%)
+ * 이 비율에서 그림자 정책의 프레임이 MIN_SHADOW_FRAMES(4)개보다 적으면(후보 4개면 512 프레임 미만)
+ * 표본 비율을 높이지 않고 그림자 정책 없이 첫 번째 후보로만 실행한다.
+ *
+ * - 표본 참조 epoch개마다 그림자 정책들의 Hit 수를 비교한다.
+ * - 가장 좋은 후보가 현재 정책보다 margin 이상 좋은 epoch가 patience번 연속되어야 바꾼다. (hysteresis)
+ * - 바꿀 때는 새 정책 객체를 만들고 현재 정책의 적재된 페이지를 먼저 교체될 페이지부터 prefetch()로 넘겨준다.
+ *   LPR의 전이 횟수처럼 정책마다 쌓아 둔 기록은 새로 시작한다.
+ *
+ * OnlinePolicy를 구현하므로 다른 정책처럼 PageReplacementSimulator, TraceImporter.feed(), FanOutPipeline,
+ * 체크포인트에 쓸 수 있다. 리스너, prefetch(), getResidentPages(), 측정값은 지금 페이지를 적재하는 정책에 맡긴다.
+ *
+ * 사용법: java PageReplacement.AdaptivePolicy <lackey|block|address> <파일> <프레임 수> [알고리즘,...]
+ */
+
+public class AdaptivePolicy implements OnlinePolicy {
+	private static final double SHADOW_BUDGET = 0.05; // 그림자 정책이 처리하는 참조 수의 상한 (실제 참조 수 대비)
+	private static final int MIN_SHADOW_FRAMES = 4; // 그림자 정책의 최소 프레임 수 (적으면 정책을 바꾸지 않는다)
+	
+	private final String[] names; // 후보 정책 이름
+	private final int defaultShift; // 후보 수로 정한 기본 표본 비율
+	private List<Character> referenceString; // 참조 문자열
+	private int frameSize; // 프레임의 개수
+	private int shift; // 표본 비율 1/2^shift
+	private int epoch = 256; // 비교 한 번에 쓰는 표본 참조 수
+	private double margin = 0.02; // 바꾸는 데 필요한 Hit 비율 차이
+	private int patience = 3; // 바꾸는 데 필요한 연속 epoch 수
+	
+	private OnlinePolicy current; // 실제로 페이지를 적재하는 정책
+	private int currentIndex; // current의 후보 번호
+	private boolean adapting; // 그림자 정책으로 정책을 바꾸는지 여부
+	private OnlinePolicy[] shadows; // 후보별 그림자 정책 (adapting일 때만)
+	private long[] epochHits; // 이번 epoch의 후보별 그림자 Hit 수
+	private long[] shadowHits; // 후보별 그림자 Hit 수 (누적)
+	private int epochReferences; // 이번 epoch의 표본 참조 수
+	private int leader = -1; // 연속으로 앞선 후보 (없으면 -1)
+	private int streak; // leader가 연속으로 앞선 epoch 수
+	private int[] resident; // 바꿀 때 적재된 페이지를 옮기는 버퍼
+	
+	private long position; // 처리한 참조 수
+	private long sampled; // 그림자 정책에 참조시킨 참조 수
+	private long hitCount; // 총 Hit 횟수
+	private long faultCount; // 총 Fault 횟수
+	private long executionTime; // 마지막 resume()의 실행 시간
+	private final List<Switch> switches = new ArrayList<>();
+	private final AccessResult result = new AccessResult(); // 마지막 참조의 처리 결과 (재사용)
+	private final ShiftedListener listener = new ShiftedListener(); // current에 설정하는 리스너
+	
+	/**
+	 * current의 사건을 참조 위치를 바꾸어 리스너에 전달한다.
+	 * 정책을 바꾸면 새 정책의 위치는 0부터 시작하므로 바꾼 시점의 위치(base)를 더한다.
+	 */
+	private static final class ShiftedListener implements ReferenceListener {
+		private ReferenceListener target = ReferenceListener.NONE;
+		private long base; // current가 처음 처리한 참조의 위치
+		
+		@Override
+		public void onHit(long time, int page) {
+			target.onHit(base + time, page);
+		}
+		
+		@Override
+		public void onFault(long time, int page) {
+			target.onFault(base + time, page);
+		}
+		
+		@Override
+		public void onEviction(long time, int victim, int page) {
+			target.onEviction(base + time, victim, page);
+		}
+		
+		@Override
+		public boolean wantsSnapshots() {
+			return target.wantsSnapshots();
+		}
+		
+		@Override
+		public void onSnapshot(long time, int[] frames, int size) {
+			target.onSnapshot(base + time, frames, size);
+		}
+	}
+	
+	/**
+	 * @param frameSize 프레임의 개수
+	 * @param names 후보 정책 이름 (첫 번째 정책으로 시작한다. Optimal은 쓸 수 없다)
+	 */
+	public AdaptivePolicy(int frameSize, String... names) {
+		if (names.length == 0) throw new IllegalArgumentException("후보 정책이 없습니다.");
+		for (String name : names) {
+			PolicyFactory.createOnline(name); // 이름이 잘못되었으면 여기서 예외
+		}
+		this.names = names.clone();
+		// 후보 수 / 2^shift가 SHADOW_BUDGET 이하가 되는 가장 작은 shift
+		int shift = 0;
+		while ((double) names.length / (1L << shift) > SHADOW_BUDGET) shift++;
+		this.defaultShift = shift;
+		this.shift = shift;
+		setFrameSize(frameSize);
+		reset();
+	}
+	
+	/**
+	 * 표본 비율을 1/2^shift로 정한다. 설정을 바꾸면 reset()을 다시 호출해야 한다.
+	 * 0이면 모든 참조를 그림자 정책에 참조시킨다. -1이면 후보 수로 정한 기본값으로 돌아간다.
+	 * 그림자 정책의 프레임(frameSize >> shift)이 MIN_SHADOW_FRAMES보다 적어지면 정책을 바꾸지 않는다.
+	 */
+	public void setSamplingShift(int shift) {
+		if (shift < -1 || shift > 20) throw new IllegalArgumentException("표본 비율은 0~20이어야 합니다: " + shift);
+		this.shift = shift < 0 ? defaultShift : shift;
+	}
+	
+	public void setEpoch(int epoch) {
+		if (epoch <= 0) throw new IllegalArgumentException("epoch는 양수여야 합니다: " + epoch);
+		this.epoch = epoch;
+	}
+	
+	public void setMargin(double margin) {
+		if (!(margin >= 0 && margin < 1)) throw new IllegalArgumentException("margin은 0 이상 1 미만이어야 합니다: " + margin);
+		this.margin = margin;
+	}
+	
+	public void setPatience(int patience) {
+		if (patience <= 0) throw new IllegalArgumentException("patience는 양수여야 합니다: " + patience);
+		this.patience = patience;
+	}
+	
+	@Override
+	public void setReferenceString(List<Character> referenceString) {
+		this.referenceString = referenceString;
+	}
+	
+	// 프레임 수를 바꾸면 reset()을 다시 호출해야 한다.
+	@Override
+	public void setFrameSize(int frameSize) {
+		if (frameSize <= 0) throw new IllegalArgumentException("프레임 수는 양수여야 합니다: " + frameSize);
+		this.frameSize = frameSize;
+	}
+	
+	@Override
+	public void run() {
+		reset();
+		resume();
+	}
+	
+	// 첫 번째 후보로 다시 시작한다.
+	@Override
+	public void reset() {
+		currentIndex = 0;
+		listener.base = 0;
+		current = create(0, frameSize);
+		current.setReferenceListener(listener);
+		adapting = (frameSize >> shift) >= MIN_SHADOW_FRAMES;
+		shadows = new OnlinePolicy[adapting ? names.length : 0];
+		for (int i = 0; i < shadows.length; ++i) {
+			shadows[i] = create(i, frameSize >> shift);
+		}
+		epochHits = new long[names.length];
+		shadowHits = new long[names.length];
+		epochReferences = 0;
+		leader = -1;
+		streak = 0;
+		resident = new int[frameSize];
+		position = sampled = hitCount = faultCount = 0;
+		switches.clear();
+	}
+	
+	private OnlinePolicy create(int index, int frames) {
+		OnlinePolicy policy = PolicyFactory.createOnline(names[index]);
+		policy.setFrameSize(frames);
+		policy.reset();
+		return policy;
+	}
+	
+	@Override
+	public void resume() {
+		resume(referenceString.size());
+	}
+	
+	@Override
+	public void resume(long end) {
+		long start = System.nanoTime();
+		end = Math.min(end, referenceString.size());
+		while (position < end) {
+			access(referenceString.get((int) position));
+		}
+		executionTime = (System.nanoTime() - start) / 1_000;
+	}
+	
+	// 페이지 번호를 섞은 값의 상위 shift비트가 모두 0이면 표본이다.
+	private boolean isSampled(int page) {
+		return shift == 0 || (page * 0x9E3779B9) >>> (32 - shift) == 0;
+	}
+	
+	/**
+	 * 페이지 하나를 참조한다. 결과의 위치는 정책을 바꾼 뒤에도 처음부터 센 위치이다.
+	 * @param page 참조할 페이지 번호
+	 * @return 처리 결과 (재사용되는 객체)
+	 */
+	@Override
+	public AccessResult access(int page) {
+		copyResult(current.access(page));
+		position++;
+		if (result.hit) hitCount++;
+		else faultCount++;
+		
+		if (adapting && isSampled(page)) {
+			sampled++;
+			for (int i = 0; i < shadows.length; ++i) {
+				if (shadows[i].access(page).isHit()) epochHits[i]++;
+			}
+			if (++epochReferences == epoch) endEpoch();
+		}
+		return result;
+	}
+	
+	// current의 결과를 처음부터 센 위치로 옮겨 담는다.
+	private void copyResult(AccessResult from) {
+		result.time = position;
+		result.page = from.page;
+		result.hit = from.hit;
+		result.evicted = from.evicted;
+		result.evictedPage = from.evictedPage;
+	}
+	
+	@Override
+	public int accessAll(int[] pages, int off, int len) {
+		long faultsBefore = faultCount;
+		for (int i = off; i < off + len; ++i) {
+			access(pages[i]);
+		}
+		return (int) (faultCount - faultsBefore);
+	}
+	
+	// 현재 정책에 미리 적재한다. 그림자 정책에는 적재하지 않는다.
+	@Override
+	public AccessResult prefetch(int page) {
+		copyResult(current.prefetch(page));
+		return result;
+	}
+	
+	@Override
+	public int getResidentPages(int[] pages) {
+		return current.getResidentPages(pages);
+	}
+	
+	@Override
+	public AccessResult getLastResult() {
+		return result;
+	}
+	
+	// 그림자 정책들의 이번 epoch Hit 수를 비교하여 필요하면 정책을 바꾼다.
+	private void endEpoch() {
+		int best = currentIndex;
+		for (int i = 0; i < shadows.length; ++i) {
+			if (epochHits[i] > epochHits[best]) best = i;
+		}
+		if (best != currentIndex && epochHits[best] - epochHits[currentIndex] >= margin * epoch) {
+			streak = best == leader ? streak + 1 : 1;
+			leader = best;
+			if (streak >= patience) {
+				switchTo(best, (double) epochHits[currentIndex] / epoch, (double) epochHits[best] / epoch);
+			}
+		} else {
+			leader = -1;
+			streak = 0;
+		}
+		for (int i = 0; i < shadows.length; ++i) {
+			shadowHits[i] += epochHits[i];
+			epochHits[i] = 0;
+		}
+		epochReferences = 0;
+	}
+	
+	private void switchTo(int index, double fromRatio, double toRatio) {
+		switches.add(new Switch(position, names[currentIndex], names[index], fromRatio, toRatio));
+		OnlinePolicy next = create(index, frameSize);
+		int n = current.getResidentPages(resident);
+		for (int i = 0; i < n; ++i) {
+			next.prefetch(resident[i]);
+		}
+		current.setReferenceListener(ReferenceListener.NONE);
+		listener.base = position;
+		next.setReferenceListener(listener);
+		current = next;
+		currentIndex = index;
+		leader = -1;
+		streak = 0;
+	}
+	
+	@Override
+	public String getName() {
+		return "Adaptive" + Arrays.toString(names);
+	}
+	
+	@Override
+	public int getFrameSize() {
+		return frameSize;
+	}
+	
+	// 그림자 정책으로 정책을 바꾸는지 여부 (프레임이 너무 적으면 false)
+	public boolean isAdapting() {
+		return adapting;
+	}
+	
+	// 지금 페이지를 적재하는 정책
+	public OnlinePolicy getCurrentPolicy() {
+		return current;
+	}
+	
+	@Override
+	public long getPosition() {
+		return position;
+	}
+	
+	// 그림자 정책에 참조시킨 참조 수
+	public long getSampled() {
+		return sampled;
+	}
+	
+	@Override
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	@Override
+	public long getFaultCount() {
+		return faultCount;
+	}
+	
+	// 리스너는 지금 페이지를 적재하는 정책에 설정되며, 정책을 바꾸면 새 정책으로 옮겨진다.
+	@Override
+	public void setReferenceListener(ReferenceListener listener) {
+		this.listener.target = (listener == null) ? ReferenceListener.NONE : listener;
+		current.setReferenceListener(this.listener); // wantsSnapshots()를 다시 읽게 한다.
+	}
+	
+	@Override
+	public long getExecutionTime() {
+		return executionTime;
+	}
+	
+	// 지금 페이지를 적재하는 정책의 측정값 (정책을 바꾸면 새로 시작한다)
+	@Override
+	public PolicyMetrics getMetrics() {
+		return current.getMetrics();
+	}
+	
+	/**
+	 * 처리 위치, Hit/Fault 수, 표본 비율, epoch 진행 상태, 현재 정책과 그림자 정책들의 상태, 바꾼 기록을 기록한다.
+	 * epoch, margin, patience는 설정이므로 기록하지 않는다.
+	 */
+	@Override
+	public void writeState(PolicyCheckpoint.Output out) throws IOException {
+		out.writeLong(position);
+		out.writeLong(sampled);
+		out.writeLong(hitCount);
+		out.writeLong(faultCount);
+		out.writeInt(shift);
+		out.writeInt(currentIndex);
+		out.writeLong(listener.base);
+		out.writeInt(epochReferences);
+		out.writeInt(leader);
+		out.writeInt(streak);
+		for (int i = 0; i < names.length; ++i) {
+			out.writeLong(epochHits[i]);
+			out.writeLong(shadowHits[i]);
+		}
+		current.writeState(out);
+		for (OnlinePolicy shadow : shadows) {
+			shadow.writeState(out);
+		}
+		out.writeInt(switches.size());
+		for (Switch s : switches) {
+			out.writeLong(s.time);
+			out.writeString(s.from);
+			out.writeString(s.to);
+			out.writeLong(Double.doubleToLongBits(s.fromHitRatio));
+			out.writeLong(Double.doubleToLongBits(s.toHitRatio));
+		}
+	}
+	
+	@Override
+	public void readState(PolicyCheckpoint.Input in) throws IOException {
+		long position = in.readLong();
+		long sampled = in.readLong();
+		long hitCount = in.readLong();
+		long faultCount = in.readLong();
+		int shift = in.readInt();
+		if (shift != this.shift) {
+			throw new IllegalArgumentException("표본 비율이 다릅니다. (체크포인트: 1/" + (1L << shift) + ", 정책: 1/" + (1L << this.shift) + ")");
+		}
+		int currentIndex = in.readInt();
+		if (currentIndex < 0 || currentIndex >= names.length) throw new IOException("후보 번호가 잘못되었습니다: " + currentIndex);
+		reset();
+		this.position = position;
+		this.sampled = sampled;
+		this.hitCount = hitCount;
+		this.faultCount = faultCount;
+		this.currentIndex = currentIndex;
+		listener.base = in.readLong();
+		epochReferences = in.readInt();
+		leader = in.readInt();
+		streak = in.readInt();
+		for (int i = 0; i < names.length; ++i) {
+			epochHits[i] = in.readLong();
+			shadowHits[i] = in.readLong();
+		}
+		current.setReferenceListener(ReferenceListener.NONE);
+		current = create(currentIndex, frameSize);
+		current.readState(in);
+		current.setReferenceListener(listener);
+		for (OnlinePolicy shadow : shadows) {
+			shadow.readState(in);
+		}
+		int count = in.readInt();
+		if (count < 0) throw new IOException("바꾼 기록 수가 잘못되었습니다: " + count);
+		for (int i = 0; i < count; ++i) {
+			long time = in.readLong();
+			String from = in.readString();
+			String to = in.readString();
+			double fromRatio = Double.longBitsToDouble(in.readLong());
+			double toRatio = Double.longBitsToDouble(in.readLong());
+			switches.add(new Switch(time, from, to, fromRatio, toRatio));
+		}
+	}
+	
+	// 끝난 epoch들에서 후보 정책의 그림자 Hit 비율
+	public double getShadowHitRatio(int index) {
+		long total = sampled - epochReferences;
+		return total == 0 ? 0 : (double) shadowHits[index] / total;
+	}
+	
+	// 정책을 바꾼 기록 (시간 순서)
+	public List<Switch> getSwitches() {
+		return Collections.unmodifiableList(switches);
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		if (adapting) {
+			sb.append(String.format(Locale.ROOT, "%s, frames=%d, sampling=1/%d, shadow frames=%d%n",
+					getName(), frameSize, 1 << shift, frameSize >> shift));
+		} else {
+			sb.append(String.format(Locale.ROOT, "%s, frames=%d, adaptation off (shadow frames %d < %d)%n",
+					getName(), frameSize, frameSize >> shift, MIN_SHADOW_FRAMES));
+		}
+		sb.append(String.format(Locale.ROOT, "References : %d, Hit : %d, Fault : %d%n", position, hitCount, faultCount));
+		sb.append(String.format(Locale.ROOT, "Shadow references : %d x %d candidates (%.2f%% of references)%n",
+				sampled, shadows.length, position == 0 ? 0.0 : 100.0 * sampled * shadows.length / position));
+		for (int i = 0; i < names.length; ++i) {
+			sb.append(String.format(Locale.ROOT, "  %-6s shadow hit ratio %.2f%%%n", names[i], getShadowHitRatio(i) * 100));
+		}
+		sb.append("Switches : ").append(switches.size());
+		for (Switch s : switches) {
+			sb.append(System.lineSeparator()).append("  ").append(s);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * 정책을 바꾼 기록 하나이다.
+	 */
+	public static final class Switch {
+		private final long time; // 바꾼 시점까지 처리한 참조 수
+		private final String from;
+		private final String to;
+		private final double fromHitRatio; // 마지막 epoch에서 이전 정책 그림자의 Hit 비율
+		private final double toHitRatio; // 마지막 epoch에서 새 정책 그림자의 Hit 비율
+		
+		Switch(long time, String from, String to, double fromHitRatio, double toHitRatio) {
+			this.time = time;
+			this.from = from;
+			this.to = to;
+			this.fromHitRatio = fromHitRatio;
+			this.toHitRatio = toHitRatio;
+		}
+		
+		public long getTime() {
+			return time;
+		}
+		
+		public String getFrom() {
+			return from;
+		}
+		
+		public String getTo() {
+			return to;
+		}
+		
+		public double getFromHitRatio() {
+			return fromHitRatio;
+		}
+		
+		public double getToHitRatio() {
+			return toHitRatio;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "t=%d %s -> %s (%.2f%% -> %.2f%%)",
+					time, from, to, fromHitRatio * 100, toHitRatio * 100);
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("사용법: AdaptivePolicy <lackey|block|address> <파일> <프레임 수> [FIFO,LRU,Clock,LPR]");
+			System.exit(2);
+		}
+		int[] pages = new TraceImporter(TraceImporter.Format.of(args[0])).importFile(Paths.get(args[1]));
+		int frames = Integer.parseInt(args[2]);
+		String[] names = args.length > 3 ? args[3].split(",") : new String[] { "LRU", "LPR", "Clock", "FIFO" };
+		
+		// 각 후보를 고정해서 실행한 결과와 비교한다.
+		for (String name : names) {
+			OnlinePolicy policy = PolicyFactory.createOnline(name);
+			policy.setFrameSize(frames);
+			policy.reset();
+			long start = System.nanoTime();
+			policy.accessAll(pages, 0, pages.length);
+			System.out.printf(Locale.ROOT, "%-6s Fault : %d (%d ms)%n",
+					policy.getName(), policy.getFaultCount(), (System.nanoTime() - start) / 1_000_000);
+		}
+		
+		AdaptivePolicy adaptive = new AdaptivePolicy(frames, names);
+		long start = System.nanoTime();
+		adaptive.accessAll(pages, 0, pages.length);
+		long elapsed = (System.nanoTime() - start) / 1_000_000;
+		System.out.println(adaptive);
+		System.out.println("Execution time : " + elapsed + " ms");
+	}
+}
@@ -0,0 +1,20 @@
+package PageReplacement;
+
+import java.io.IOException;
+
+/**
+ * 실행 도중의 내부 상태를 저장하고 복원할 수 있는 페이지 교체 알고리즘이다.
+ * 긴 참조 문자열을 여러 구간으로 나누어 실행하면서 중간 상태를 체크포인트로 남기거나,
+ * 앞부분으로 한 번 예열(warm-up)한 상태를 여러 정책 인스턴스에 복원해 서로 다른 뒷부분 실험을 진행할 때 사용한다.
+ * 저장/복원은 PolicyCheckpoint를 통해 이루어진다.
+ */
+
+public interface CheckpointablePolicy extends PageReplacementPolicy {
+	int getFrameSize(); // 설정된 프레임 수를 반환한다.
+	void reset(); // 상태를 초기화한다. run()은 reset() 후 resume()을 호출한 것과 같다.
+	long getPosition(); // 지금까지 처리한 참조 수(다음에 처리할 참조의 위치)를 반환한다.
+	void resume(); // 현재 위치부터 참조 문자열 끝까지 이어서 실행한다.
+	void resume(long end); // 현재 위치부터 end(미포함) 위치까지 이어서 실행한다.
+	void writeState(PolicyCheckpoint.Output out) throws IOException; // 알고리즘 고유의 내부 상태를 기록한다.
+	void readState(PolicyCheckpoint.Input in) throws IOException; // writeState()로 기록한 내부 상태를 읽어 복원한다.
+}
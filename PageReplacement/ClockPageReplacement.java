@@ -1,5 +1,6 @@
 package PageReplacement;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -7,121 +8,301 @@ import java.util.*;
  * 참조 비트를 사용하여 페이지 교체 시 최근에 사용되지 않은 페이지를 우선 제거하는 방식이다.
  */
 
-public class ClockPageReplacement implements PageReplacementPolicy {
+public class ClockPageReplacement implements OnlinePolicy {
 	
 	private int frameSize; // 사용할 프레임의 수
 	private List<Character> referenceString; // 참조 문자열
 	private List<Frame> frames; // 현재 메모리에 적재된 프레임들
+	private FrameIndex residentPages; // frames의 페이지 번호 (같은 위치, 검색용)
 	int pointer; // 시계 방향으로 가리키는 현재 포인터 위치
-	private List<Boolean> hitHistory; // 매 시점별 Hit/Fault 여부 기록
-	private int hitCount; // 총 Page Hit 횟수
-	private int faultCount; // 총 Page Fault 횟수
-	private List<List<Character>> frameSnapshots; // 각 시점의 프레임 상태 기록
+	private long position; // 지금까지 처리한 참조 수
+	private long hitCount; // 총 Page Hit 횟수
+	private long faultCount; // 총 Page Fault 횟수
 	private long executionTime = 0; // 실행 시간 저장 변수
+	private final PolicyMetrics metrics = new PolicyMetrics("Clock"); // 단계별 측정값
+	private ReferenceListener listener = ReferenceListener.NONE; // 참조 사건을 전달받을 리스너
+	private final AccessResult result = new AccessResult(); // 마지막 참조의 처리 결과 (재사용)
+	private int[] snapshotBuffer; // 스냅샷 전달용 배열 (재사용)
 	
-	// 현재 시점의 프레임 상태를 복사하여 frameSnapshots에 저장한다.
-	private void recordSnapshot() {
-		List<Character> snapshot = new ArrayList<>();
-		for (Frame frame : frames) {
-			snapshot.add(frame.page);
+	// 측정/기록 여부 (refreshFlags()에서만 갱신하여 참조마다 다시 읽지 않는다)
+	private boolean snapshots; // 스냅샷이 필요할 때만 만든다.
+	private boolean measure; // PolicyMetrics 측정 여부
+	private boolean recordFaults; // JFR Fault 이벤트 기록 여부
+	private boolean timed; // 교체 대상 선택 시간을 잴지 여부
+	
+	// 현재 시점의 프레임 상태를 리스너에 전달한다.
+	private void recordSnapshot(long time) {
+		int size = frames.size();
+		for (int i = 0; i < size; ++i) {
+			snapshotBuffer[i] = frames.get(i).page;
+		}
+		listener.onSnapshot(time, snapshotBuffer, size);
+	}
+	
+	// 측정/기록 설정을 다시 읽는다.
+	private void refreshFlags() {
+		if (snapshotBuffer == null || snapshotBuffer.length != frameSize) snapshotBuffer = new int[frameSize];
+		snapshots = listener.wantsSnapshots();
+		measure = PolicyMetrics.isEnabled();
+		recordFaults = PageFaultEvent.isRecording();
+		timed = measure || recordFaults;
+	}
+	
+	/**
+	 * 페이지 하나를 참조하고 결과를 result에 기록한다.
+	 * run(), resume(), access(), accessAll()이 모두 이 메서드를 사용한다.
+	 * @param time 참조 위치
+	 * @param page 참조한 페이지
+	 */
+	private void reference(long time, int page) {
+		boolean hit = false;
+		long t0 = 0;
+		
+		if (measure) t0 = System.nanoTime();
+		// 페이지가 이미 프레임 안에 있는지 확인
+		int index = residentPages.indexOf(page);
+		if (index >= 0) {
+			frames.get(index).reference = true; // 참조되었으므로 reference flag를 true로 설정
+			hit = true;
+		}
+		if (measure) metrics.record(PolicyMetrics.Phase.HIT_LOOKUP, System.nanoTime() - t0);
+		
+		result.time = time;
+		result.page = page;
+		result.hit = hit;
+		result.evicted = false;
+		if (hit) {
+			hitCount++;
+			listener.onHit(time, page);
+		} else {
+			faultCount++;
+			listener.onFault(time, page);
+			
+			if (frames.size() < frameSize) {
+				// 아직 프레임이 덜 찼으면 그냥 추가
+				frames.add(new Frame(page));
+				residentPages.add(page);
+				pointer = (pointer + 1) % frameSize;
+				if (recordFaults) PageFaultEvent.sample(getName(), faultCount, time, -1, page, 0);
+			} else {
+				// reference flag가 false인 페이지를 찾아 교체
+				if (timed) t0 = System.nanoTime();
+				int steps = replace(page);
+				long cost = timed ? System.nanoTime() - t0 : 0;
+				if (measure) {
+					metrics.record(PolicyMetrics.Phase.VICTIM_SELECTION, cost);
+					metrics.recordHandSteps(steps);
+				}
+				int victim = result.evictedPage; // 교체되어 나간 페이지
+				listener.onEviction(time, victim, page);
+				if (recordFaults) PageFaultEvent.sample(getName(), faultCount, time, victim, page, cost);
+			}
+		}
+		if (snapshots) {
+			if (measure) t0 = System.nanoTime();
+			recordSnapshot(time);
+			if (measure) metrics.record(PolicyMetrics.Phase.SNAPSHOT, System.nanoTime() - t0);
+		}
+		if (measure) metrics.countReference();
+	}
+	
+	/**
+	 * 포인터를 돌려 reference flag가 false인 프레임을 찾아 page로 교체한다.
+	 * 교체되어 나간 페이지는 result에 기록한다.
+	 * @return 포인터가 이동한 횟수
+	 */
+	private int replace(int page) {
+		int steps = 0;
+		while (true) {
+			Frame current = frames.get(pointer);
+			steps++;
+			if (current.reference) {
+				current.reference = false; // 한 번의 기회를 더 주고 reference flag를 false로 변경
+				pointer = (pointer + 1) % frameSize;
+			} else {
+				result.evicted = true;
+				result.evictedPage = current.page;
+				current.set(page); // reference flag가 false면 해당 페이지 교체
+				residentPages.set(pointer, page);
+				pointer = (pointer + 1) % frameSize;
+				return steps;
+			}
 		}
-		frameSnapshots.add(snapshot);
 	}
 	
 	@Override
 	public void setReferenceString(List<Character> referenceString) {
 		this.referenceString = referenceString;
 	}
-
+	
 	@Override
 	public void setFrameSize(int frameSize) {
 		this.frameSize = frameSize;
 	}
-
+	
 	@Override
 	public void run() {
-		long start = System.nanoTime(); // 시작 시간 측정
-		
-		frames = new ArrayList<>();
+		reset();
+		resume();
+	}
+	
+	@Override
+	public void reset() {
+		frames = new ArrayList<>(frameSize);
+		residentPages = new FrameIndex(frameSize);
 		pointer = 0;
-		hitHistory = new ArrayList<>();
+		position = 0;
 		hitCount = 0;
 		faultCount = 0;
-		frameSnapshots = new ArrayList<>();
+		metrics.reset();
+		refreshFlags();
+	}
+	
+	@Override
+	public void resume() {
+		resume(referenceString.size());
+	}
+	
+	@Override
+	public void resume(long end) {
+		long start = System.nanoTime(); // 시작 시간 측정
 		
-		for (char page : referenceString) {
-			boolean hit = false;
-			
-			// 페이지가 이미 프레임 안에 있는지 확인
-			for (Frame frame : frames) {
-				if (frame.page == page) {
-					frame.reference = true; // 참조되었으므로 reference flag를 true로 설정
-					hit = true;
-					break;
-				}
-			}
-			
-			if (hit) {
-				hitHistory.add(true);
-				hitCount++;
-			} else {
-				faultCount++;
-				hitHistory.add(false);
-				
-				if (frames.size() < frameSize) {
-					// 아직 프레임이 덜 찼으면 그냥 추가
-					frames.add(new Frame(page));
-					pointer = (pointer + 1) % frameSize;
-				} else {
-					// reference flag가 false인 페이지를 찾아 교체
-					while (true) {
-						Frame current = frames.get(pointer);
-						if (current.reference) {
-							current.reference = false; // 한 번의 기회를 더 주고 reference flag를 false로 변경
-							pointer = (pointer + 1) % frameSize;
-						} else {
-							frames.set(pointer, new Frame(page)); // reference flag가 false면 해당 페이지 교체
-							pointer = (pointer + 1) % frameSize;
-							break;
-						}
-					}
-				}
-			}
-			recordSnapshot();
+		end = Math.min(end, referenceString.size());
+		refreshFlags();
+		for (long time = position; time < end; ++time) {
+			reference(time, referenceString.get((int) time));
 		}
+		position = Math.max(position, end);
 		
-		long end = System.nanoTime(); // 종료 시간 측정
-		executionTime = (end - start) / 1_000; // 밀리초로 변환
+		executionTime = (System.nanoTime() - start) / 1_000; // 밀리초로 변환
 	}
-
+	
 	@Override
-	public int getHitCount() {
-		return hitCount;
+	public AccessResult access(int page) {
+		if ((position & 0xFFF) == 0) refreshFlags(); // 4096번마다 측정/기록 설정 변경을 반영한다.
+		reference(position++, page);
+		return result;
 	}
-
+	
 	@Override
-	public int getFaultCount() {
-		return faultCount;
+	public int accessAll(int[] pages, int off, int len) {
+		long faultsBefore = faultCount;
+		refreshFlags();
+		for (int i = off; i < off + len; ++i) {
+			reference(position++, pages[i]);
+		}
+		return (int) (faultCount - faultsBefore);
 	}
-
+	
+	// Fault 처리와 같이 포인터를 돌려 교체한다. 미리 적재한 페이지는 아직 참조되지 않았으므로 reference flag가 false이다.
+	// 이미 적재된 페이지의 reference flag는 바꾸지 않는다.
 	@Override
-	public List<Boolean> getHitHistory() {
-		return hitHistory;
+	public AccessResult prefetch(int page) {
+		result.time = position;
+		result.page = page;
+		result.hit = false;
+		result.evicted = false;
+		if (residentPages.contains(page)) {
+			result.hit = true;
+			return result;
+		}
+		if (frames.size() < frameSize) {
+			frames.add(new Frame(page));
+			residentPages.add(page);
+			pointer = (pointer + 1) % frameSize;
+		} else {
+			replace(page);
+		}
+		return result;
 	}
-
+	
+	// 포인터가 가리키는 프레임부터 포인터가 도는 순서대로
+	@Override
+	public int getResidentPages(int[] pages) {
+		int size = frames.size();
+		for (int i = 0; i < size; ++i) {
+			pages[i] = frames.get((pointer + i) % size).page;
+		}
+		return size;
+	}
+	
+	@Override
+	public AccessResult getLastResult() {
+		return result;
+	}
+	
+	@Override
+	public int getFrameSize() {
+		return frameSize;
+	}
+	
+	@Override
+	public long getPosition() {
+		return position;
+	}
+	
+	// 처리 위치, Hit/Fault 수, 포인터 위치, 각 프레임의 페이지와 참조 비트를 기록한다.
+	@Override
+	public void writeState(PolicyCheckpoint.Output out) throws IOException {
+		out.writeLong(position);
+		out.writeLong(hitCount);
+		out.writeLong(faultCount);
+		out.writeInt(pointer);
+		out.writeInt(frames.size());
+		for (int i = 0; i < frames.size(); ++i) {
+			Frame frame = frames.get(i);
+			out.writeInt(frame.page);
+			out.writeBoolean(frame.reference);
+		}
+	}
+	
+	@Override
+	public void readState(PolicyCheckpoint.Input in) throws IOException {
+		position = in.readLong();
+		hitCount = in.readLong();
+		faultCount = in.readLong();
+		pointer = in.readInt();
+		int size = in.readInt();
+		frames = new ArrayList<>(frameSize);
+		residentPages = new FrameIndex(frameSize);
+		for (int i = 0; i < size; ++i) {
+			Frame frame = new Frame(in.readInt());
+			frame.reference = in.readBoolean();
+			frames.add(frame);
+			residentPages.add(frame.page);
+		}
+		refreshFlags();
+	}
+	
+	@Override
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	@Override
+	public long getFaultCount() {
+		return faultCount;
+	}
+	
 	@Override
 	public String getName() {
 		return "Clock";
 	}
-
+	
 	@Override
-	public List<List<Character>> getFrameSnapshots() {
-		return frameSnapshots;
+	public void setReferenceListener(ReferenceListener listener) {
+		this.listener = (listener == null) ? ReferenceListener.NONE : listener;
+		snapshots = this.listener.wantsSnapshots();
 	}
-
+	
 	@Override
 	public long getExecutionTime() {
 		return executionTime;
 	}
+	
+	@Override
+	public PolicyMetrics getMetrics() {
+		return metrics;
+	}
 
 }
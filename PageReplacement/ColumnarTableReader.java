@@ -0,0 +1,170 @@
+package PageReplacement;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * ColumnarTableWriter가 만든 파일을 묶음 단위로 읽는다.
+ * next()로 다음 묶음을 읽은 뒤 get...(열, 행)으로 값을 얻는다. 메모리는 묶음 하나 크기이다.
+ *
+ * 사용법: java PageReplacement.ColumnarTableReader <이진 파일> [출력 CSV 파일] (출력 파일이 없으면 표준 출력)
+ */
+
+public final class ColumnarTableReader implements Closeable {
+	private static final TableWriter.Type[] TYPES = TableWriter.Type.values();
+	
+	private final ReadableByteChannel channel;
+	private final TableWriter.Column[] columns;
+	private final ByteBuffer[] chunks; // 열별 현재 묶음의 값
+	private final ByteBuffer header = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+	private int chunkRows; // 현재 묶음의 행 수
+	private long rows; // 지금까지 읽은 행 수
+	private boolean finished; // 끝 표시를 읽었는지 여부
+	
+	public ColumnarTableReader(ReadableByteChannel channel) throws IOException {
+		this.channel = channel;
+		ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + 2 * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(buffer);
+		if (buffer.getInt() != ColumnarTableWriter.MAGIC) throw new IOException("열 형식 파일이 아닙니다.");
+		if (buffer.getShort() != ColumnarTableWriter.FORMAT_VERSION) throw new IOException("지원하지 않는 열 형식 버전입니다.");
+		int count = buffer.getShort();
+		if (count <= 0) throw new IOException("열 수가 잘못되었습니다: " + count);
+		columns = new TableWriter.Column[count];
+		chunks = new ByteBuffer[count];
+		ByteBuffer small = ByteBuffer.allocate(1 + Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < count; ++i) {
+			small.clear();
+			readFully(small);
+			int type = small.get();
+			int length = small.getShort();
+			if (type < 0 || type >= TYPES.length || length < 0) throw new IOException("열 정보가 잘못되었습니다.");
+			ByteBuffer name = ByteBuffer.allocate(length);
+			readFully(name);
+			columns[i] = new TableWriter.Column(new String(name.array(), StandardCharsets.UTF_8), TYPES[type]);
+			chunks[i] = ByteBuffer.allocateDirect(ColumnarTableWriter.CHUNK_ROWS * TYPES[type].width)
+					.order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+	
+	public static ColumnarTableReader open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return new ColumnarTableReader(channel);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	private void readFully(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) throw new EOFException("열 형식 파일이 예상보다 짧습니다.");
+		}
+		buffer.flip();
+	}
+	
+	/**
+	 * 다음 묶음을 읽는다.
+	 * @return 묶음의 행 수, 더 읽을 묶음이 없으면 0
+	 */
+	public int next() throws IOException {
+		if (finished) return 0;
+		header.clear().limit(Integer.BYTES);
+		readFully(header);
+		chunkRows = header.getInt();
+		if (chunkRows == 0) {
+			header.clear().limit(Long.BYTES);
+			readFully(header);
+			if (header.getLong() != rows) throw new IOException("행 수가 맞지 않습니다.");
+			finished = true;
+			return 0;
+		}
+		if (chunkRows < 0 || chunkRows > ColumnarTableWriter.CHUNK_ROWS) throw new IOException("묶음 크기가 잘못되었습니다: " + chunkRows);
+		for (int i = 0; i < columns.length; ++i) {
+			chunks[i].clear().limit(chunkRows * columns[i].getType().width);
+			readFully(chunks[i]);
+		}
+		rows += chunkRows;
+		return chunkRows;
+	}
+	
+	public TableWriter.Column[] getColumns() {
+		return columns.clone();
+	}
+	
+	// 지금까지 읽은 행 수
+	public long getRows() {
+		return rows;
+	}
+	
+	public byte getByte(int column, int row) {
+		return chunks[column].get(row);
+	}
+	
+	public int getInt(int column, int row) {
+		return chunks[column].getInt(row * Integer.BYTES);
+	}
+	
+	public long getLong(int column, int row) {
+		return chunks[column].getLong(row * Long.BYTES);
+	}
+	
+	public double getDouble(int column, int row) {
+		return chunks[column].getDouble(row * Double.BYTES);
+	}
+	
+	/**
+	 * 남은 행을 모두 다른 TableWriter로 옮긴다. (예: CSV로 변환)
+	 * @return 옮긴 행 수
+	 */
+	public long copyTo(TableWriter out) throws IOException {
+		long copied = 0;
+		for (int n = next(); n > 0; n = next()) {
+			for (int row = 0; row < n; ++row) {
+				for (int column = 0; column < columns.length; ++column) {
+					switch (columns[column].getType()) {
+						case BYTE:
+							out.writeByte(getByte(column, row));
+							break;
+						case INT:
+							out.writeInt(getInt(column, row));
+							break;
+						case LONG:
+							out.writeLong(getLong(column, row));
+							break;
+						case DOUBLE:
+							out.writeDouble(getDouble(column, row));
+							break;
+					}
+				}
+				out.endRow();
+			}
+			copied += n;
+		}
+		return copied;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("사용법: ColumnarTableReader <이진 파일> [출력 CSV 파일]");
+			System.exit(2);
+		}
+		try (ColumnarTableReader in = open(Paths.get(args[0]));
+				TableWriter out = args.length > 1
+						? TableWriter.open(Paths.get(args[1]), in.getColumns())
+						: new CsvTableWriter(Channels.newChannel(System.out), in.getColumns())) {
+			in.copyTo(out);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 결과를 열 단위 이진 파일로 내보낸다. 모든 값은 little-endian이다.
+ *
+ * 머리말: MAGIC "PRCT"(int), 형식 버전(short), 열 수(short), 열마다 타입 번호(byte)와 이름(short 길이 + UTF-8)
+ * 묶음: 행 수 n(int, 1 이상), 이어서 열마다 n개 값이 열 순서대로 붙어 있다. (BYTE 1, INT 4, LONG/DOUBLE 8 byte)
+ * 끝: 0(int)과 전체 행 수(long)
+ *
+ * 열마다 CHUNK_ROWS행 크기의 버퍼만 사용하므로 메모리는 행 수와 관계없이 일정하다.
+ * 읽을 때는 ColumnarTableReader를 사용한다.
+ */
+
+public final class ColumnarTableWriter implements TableWriter {
+	static final int MAGIC = 0x50524354; // "PRCT"
+	static final short FORMAT_VERSION = 1;
+	static final int CHUNK_ROWS = 8192; // 묶음 하나의 최대 행 수
+	
+	private final WritableByteChannel channel;
+	private final Column[] columns;
+	private final ByteBuffer[] chunks; // 열별로 모으는 값
+	private final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+	private int column; // 다음에 쓸 열
+	private int chunkRows; // 현재 묶음의 행 수
+	private long rows; // 끝낸 행 수
+	
+	public ColumnarTableWriter(WritableByteChannel channel, Column... columns) throws IOException {
+		if (columns.length == 0 || columns.length > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("열 수가 잘못되었습니다: " + columns.length);
+		}
+		this.channel = channel;
+		this.columns = columns.clone();
+		this.chunks = new ByteBuffer[columns.length];
+		int size = Integer.BYTES + 2 * Short.BYTES;
+		byte[][] names = new byte[columns.length][];
+		for (int i = 0; i < columns.length; ++i) {
+			chunks[i] = ByteBuffer.allocateDirect(CHUNK_ROWS * columns[i].getType().width).order(ByteOrder.LITTLE_ENDIAN);
+			names[i] = columns[i].getName().getBytes(StandardCharsets.UTF_8);
+			if (names[i].length > Short.MAX_VALUE) throw new IllegalArgumentException("열 이름이 너무 깁니다.");
+			size += 1 + Short.BYTES + names[i].length;
+		}
+		ByteBuffer schema = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		schema.putInt(MAGIC);
+		schema.putShort(FORMAT_VERSION);
+		schema.putShort((short) columns.length);
+		for (int i = 0; i < columns.length; ++i) {
+			schema.put((byte) columns[i].getType().ordinal());
+			schema.putShort((short) names[i].length);
+			schema.put(names[i]);
+		}
+		schema.flip();
+		write(schema);
+	}
+	
+	// 다음 열이 type인지 확인하고 그 열의 버퍼를 반환한다.
+	private ByteBuffer next(Type type) {
+		if (column == columns.length) throw new IllegalStateException("행의 열 수(" + columns.length + ")를 넘었습니다.");
+		if (columns[column].getType() != type) {
+			throw new IllegalArgumentException(columns[column] + " 열에 " + type + " 값을 쓸 수 없습니다.");
+		}
+		return chunks[column++];
+	}
+	
+	@Override
+	public Column[] getColumns() {
+		return columns.clone();
+	}
+	
+	@Override
+	public void writeByte(int value) {
+		next(Type.BYTE).put((byte) value);
+	}
+	
+	@Override
+	public void writeInt(int value) {
+		next(Type.INT).putInt(value);
+	}
+	
+	@Override
+	public void writeLong(long value) {
+		next(Type.LONG).putLong(value);
+	}
+	
+	@Override
+	public void writeDouble(double value) {
+		next(Type.DOUBLE).putDouble(value);
+	}
+	
+	@Override
+	public void endRow() throws IOException {
+		if (column != columns.length) throw new IllegalStateException("행에 " + column + "개 열만 썼습니다.");
+		column = 0;
+		rows++;
+		if (++chunkRows == CHUNK_ROWS) flushChunk();
+	}
+	
+	// 모은 행들을 묶음 하나로 기록한다.
+	private void flushChunk() throws IOException {
+		if (chunkRows == 0) return;
+		header.clear();
+		header.putInt(chunkRows).flip();
+		write(header);
+		for (ByteBuffer chunk : chunks) {
+			chunk.flip();
+			write(chunk);
+			chunk.clear();
+		}
+		chunkRows = 0;
+	}
+	
+	private void write(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+	
+	@Override
+	public long getRows() {
+		return rows;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			// 끝나지 않은 행의 값은 묶음에 넣지 않는다.
+			for (int i = 0; i < column; ++i) {
+				chunks[i].position(chunks[i].position() - columns[i].getType().width);
+			}
+			column = 0;
+			flushChunk();
+			header.clear();
+			header.putInt(0).putLong(rows).flip();
+			write(header);
+		} finally {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 결과를 CSV로 내보낸다. 첫 줄은 열 이름이다.
+ * 정수는 직접 숫자로 바꾸어 고정 크기 버퍼에 쓰므로 값마다 문자열을 만들지 않는다. (실수는 Double.toString 사용)
+ */
+
+public final class CsvTableWriter implements TableWriter {
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	private final WritableByteChannel channel;
+	private final Column[] columns;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final byte[] digits = new byte[20]; // 정수 변환용
+	private int column; // 다음에 쓸 열
+	private long rows; // 끝낸 행 수
+	
+	public CsvTableWriter(WritableByteChannel channel, Column... columns) throws IOException {
+		if (columns.length == 0) throw new IllegalArgumentException("열이 없습니다.");
+		this.channel = channel;
+		this.columns = columns.clone();
+		for (int i = 0; i < columns.length; ++i) {
+			if (i > 0) putByte(',');
+			String name = columns[i].getName();
+			if (name.indexOf(',') >= 0 || name.indexOf('"') >= 0) name = '"' + name.replace("\"", "\"\"") + '"';
+			for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+				putByte(b);
+			}
+		}
+		putByte('\n');
+	}
+	
+	// 다음 열이 type인지 확인하고, 첫 열이 아니면 구분자를 쓴다.
+	private void next(Type type) throws IOException {
+		if (column == columns.length) throw new IllegalStateException("행의 열 수(" + columns.length + ")를 넘었습니다.");
+		if (columns[column].getType() != type) {
+			throw new IllegalArgumentException(columns[column] + " 열에 " + type + " 값을 쓸 수 없습니다.");
+		}
+		if (column++ > 0) putByte(',');
+	}
+	
+	private void putByte(int b) throws IOException {
+		if (!buffer.hasRemaining()) flush();
+		buffer.put((byte) b);
+	}
+	
+	private void putLong(long value) throws IOException {
+		if (value == Long.MIN_VALUE) {
+			putAscii(Long.toString(value));
+			return;
+		}
+		if (value < 0) {
+			putByte('-');
+			value = -value;
+		}
+		int n = 0;
+		do {
+			digits[n++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value != 0);
+		while (n > 0) {
+			putByte(digits[--n]);
+		}
+	}
+	
+	private void putAscii(String s) throws IOException {
+		for (int i = 0; i < s.length(); ++i) {
+			putByte(s.charAt(i));
+		}
+	}
+	
+	@Override
+	public Column[] getColumns() {
+		return columns.clone();
+	}
+	
+	@Override
+	public void writeByte(int value) throws IOException {
+		next(Type.BYTE);
+		putLong((byte) value);
+	}
+	
+	@Override
+	public void writeInt(int value) throws IOException {
+		next(Type.INT);
+		putLong(value);
+	}
+	
+	@Override
+	public void writeLong(long value) throws IOException {
+		next(Type.LONG);
+		putLong(value);
+	}
+	
+	@Override
+	public void writeDouble(double value) throws IOException {
+		next(Type.DOUBLE);
+		putAscii(Double.toString(value));
+	}
+	
+	@Override
+	public void endRow() throws IOException {
+		if (column != columns.length) throw new IllegalStateException("행에 " + column + "개 열만 썼습니다.");
+		putByte('\n');
+		column = 0;
+		rows++;
+	}
+	
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+	
+	@Override
+	public long getRows() {
+		return rows;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package PageReplacement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+
+/**
+ * 참조마다 Hit/Fault/교체 사건을 TableWriter로 바로 내보내는 리스너이다.
+ * 참조 하나가 한 행이며 열은 time(long), page(int), hit(byte, 1이면 Hit), victim(int, 교체가 없으면 -1)이다.
+ * 실행 중에 기록하므로 긴 trace도 일정한 메모리로 내보낼 수 있다.
+ *
+ * 리스너 콜백은 검사 예외를 던질 수 없으므로 쓰기에 실패하면 UncheckedIOException을 던진다.
+ *
+ * 사용법: java PageReplacement.EventExporter <lackey|block|address> <파일> <알고리즘> <프레임 수>
+ *         <사건 출력 파일> [지표 출력 파일] [window]
+ *         (출력 파일 이름이 .csv로 끝나면 CSV, 아니면 이진 열 형식)
+ */
+
+public class EventExporter implements ReferenceListener, Closeable {
+	private final TableWriter out;
+	
+	// Fault는 교체 정보가 onEviction으로 뒤따라올 수 있으므로 다음 사건이나 close()에서 기록한다.
+	private boolean pending;
+	private long pendingTime;
+	private int pendingPage;
+	private int pendingVictim;
+	
+	// 열 목록
+	public static TableWriter.Column[] columns() {
+		return new TableWriter.Column[] {
+				new TableWriter.Column("time", TableWriter.Type.LONG),
+				new TableWriter.Column("page", TableWriter.Type.INT),
+				new TableWriter.Column("hit", TableWriter.Type.BYTE),
+				new TableWriter.Column("victim", TableWriter.Type.INT) };
+	}
+	
+	// 파일 이름에 따라 CSV 또는 이진 열 형식으로 쓴다.
+	public EventExporter(Path path) throws IOException {
+		this(TableWriter.open(path, columns()));
+	}
+	
+	// out은 columns()와 같은 열로 만들어져 있어야 한다.
+	public EventExporter(TableWriter out) {
+		this.out = out;
+	}
+	
+	@Override
+	public void onHit(long time, int page) {
+		try {
+			flushPending();
+			writeRow(time, page, true, -1);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@Override
+	public void onFault(long time, int page) {
+		try {
+			flushPending();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		pending = true;
+		pendingTime = time;
+		pendingPage = page;
+		pendingVictim = -1;
+	}
+	
+	@Override
+	public void onEviction(long time, int victim, int page) {
+		pendingVictim = victim;
+	}
+	
+	private void flushPending() throws IOException {
+		if (!pending) return;
+		pending = false;
+		writeRow(pendingTime, pendingPage, false, pendingVictim);
+	}
+	
+	private void writeRow(long time, int page, boolean hit, int victim) throws IOException {
+		out.writeLong(time);
+		out.writeInt(page);
+		out.writeByte(hit ? 1 : 0);
+		out.writeInt(victim);
+		out.endRow();
+	}
+	
+	// 기록한 참조 수 (아직 기록하지 않은 마지막 Fault 제외)
+	public long getRows() {
+		return out.getRows();
+	}
+	
+	// 마지막 Fault를 기록하고 파일을 닫는다.
+	@Override
+	public void close() throws IOException {
+		try {
+			flushPending();
+		} finally {
+			out.close();
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 5) {
+			System.err.println("사용법: EventExporter <lackey|block|address> <파일> <FIFO|LRU|Clock|LPR> <프레임 수>"
+					+ " <사건 출력 파일> [지표 출력 파일] [window]");
+			System.exit(2);
+		}
+		int frames = Integer.parseInt(args[3]);
+		OnlinePolicy policy = PolicyFactory.createOnline(args[2]);
+		policy.setFrameSize(frames);
+		
+		long start = System.nanoTime();
+		long references;
+		try (EventExporter events = new EventExporter(Paths.get(args[4]))) {
+			if (args.length > 5) {
+				int window = args.length > 6 ? Integer.parseInt(args[6]) : 10_000;
+				PhaseAnalyzer analyzer = new PhaseAnalyzer(window, Math.max(1, window / 10), Math.max(1, window / 10), window);
+				try (TableWriter metrics = TableWriter.open(Paths.get(args[5]), analyzer.getColumns())) {
+					analyzer.setOutput(metrics);
+					policy.setReferenceListener(ReferenceListener.all(events, analyzer));
+					policy.reset();
+					references = new TraceImporter(TraceImporter.Format.of(args[0])).feed(Paths.get(args[1]), policy);
+				}
+			} else {
+				policy.setReferenceListener(events);
+				policy.reset();
+				references = new TraceImporter(TraceImporter.Format.of(args[0])).feed(Paths.get(args[1]), policy);
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println("=== " + policy.getName() + " Result ===");
+		System.out.println("References : " + references + ", Hit : " + policy.getHitCount() + ", Fault : " + policy.getFaultCount());
+		System.out.printf("Exported %s in %.2f s (%.2f M references/s)%n", args[4], seconds, references / seconds / 1e6);
+	}
+}
@@ -0,0 +1,258 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * 메모리에 올릴 수 없을 만큼 큰 trace에 대해 Optimal(Belady) 알고리즘을 실행한다.
+ * 입력은 TraceImporter.exportBinary()가 만든 이진 trace(참조마다 little-endian int 하나)이다.
+ *
+ * 1. 역방향 단계: trace를 끝에서부터 chunk 단위로 읽으며 각 참조의 다음 사용 위치를 계산하여
+ *    spill 파일(참조마다 long 하나)의 같은 위치에 기록한다. 페이지마다 마지막으로 본 위치 하나만 기억한다.
+ * 2. 순방향 단계: trace와 spill 파일을 함께 순서대로 읽으며, 적재된 페이지 중 다음 사용 위치가 가장 먼 페이지를 교체한다.
+ *    프레임마다 다음 사용 위치를 최대 힙으로 관리하므로 Fault 한 번의 비용은 O(log 프레임 수)이고
+ *    순방향 단계의 메모리는 프레임 수에 비례한다.
+ *
+ * OptimalPageReplacement와 Hit/Fault 수가 같다. (다시 사용되지 않는 페이지가 여럿이면 그중 어느 것을 교체해도 Fault 수는 같다)
+ *
+ * 사용법: java PageReplacement.ExternalOptimal <프레임 수> <이진 trace 파일>
+ *         java PageReplacement.ExternalOptimal <프레임 수> <lackey|block|address> <trace 파일>
+ */
+
+public class ExternalOptimal {
+	private static final int CHUNK = 1 << 20; // 기본 chunk 크기
+	private static final long NEVER = Long.MAX_VALUE; // 다시 사용되지 않음
+	
+	private final int frameSize; // 프레임의 개수
+	private Path spillDirectory; // spill 파일을 만들 디렉터리 (null이면 trace와 같은 디렉터리)
+	private int chunkSize = CHUNK; // 한 번에 읽고 쓰는 참조 수
+	
+	// 순방향 단계 상태 (프레임 수에 비례)
+	private int[] framePage; // 프레임별 페이지
+	private long[] frameNext; // 프레임별 다음 사용 위치
+	private int[] heap; // frameNext 기준 최대 힙 (프레임 번호)
+	private int[] heapIndex; // 프레임 번호 -> 힙에서의 위치
+	private int used; // 사용 중인 프레임 수
+	private LongIntHashMap resident; // 페이지 -> 프레임 번호
+	
+	private long references; // 처리한 참조 수
+	private long hitCount; // 총 Hit 횟수
+	private long faultCount; // 총 Fault 횟수
+	private long executionTime; // 실행 시간(µs)
+	
+	public ExternalOptimal(int frameSize) {
+		if (frameSize <= 0) throw new IllegalArgumentException("프레임 수는 양수여야 합니다: " + frameSize);
+		this.frameSize = frameSize;
+	}
+	
+	public void setSpillDirectory(Path spillDirectory) {
+		this.spillDirectory = spillDirectory;
+	}
+	
+	// 한 번에 읽고 쓰는 참조 수. 버퍼 크기는 chunk마다 12byte이다.
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE / Long.BYTES) {
+			throw new IllegalArgumentException("chunk 크기가 범위를 벗어났습니다: " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+	}
+	
+	/**
+	 * 이진 trace 전체에 대해 Optimal 알고리즘을 실행한다.
+	 * spill 파일은 실행이 끝나면 지운다.
+	 * @param trace 이진 trace 파일
+	 */
+	public void run(Path trace) throws IOException {
+		long start = System.nanoTime();
+		Path directory = spillDirectory != null ? spillDirectory : trace.toAbsolutePath().getParent();
+		Path spill = Files.createTempFile(directory, "opt-", ".next");
+		try (FileChannel in = FileChannel.open(trace, StandardOpenOption.READ);
+				FileChannel next = FileChannel.open(spill, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			if (in.size() % Integer.BYTES != 0) throw new IOException("이진 trace 크기가 4의 배수가 아닙니다: " + trace);
+			long count = in.size() / Integer.BYTES;
+			writeNextUses(in, next, count);
+			simulate(in, next, count);
+		} finally {
+			Files.deleteIfExists(spill);
+		}
+		executionTime = (System.nanoTime() - start) / 1_000;
+	}
+	
+	// 역방향 단계: 끝에서부터 chunk 단위로 읽어 각 참조의 다음 사용 위치를 spill 파일에 위치 지정 쓰기로 기록한다.
+	private void writeNextUses(FileChannel in, FileChannel next, long count) throws IOException {
+		ByteBuffer pages = ByteBuffer.allocateDirect(chunkSize * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer uses = ByteBuffer.allocateDirect(chunkSize * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		LongIntHashMap ids = new LongIntHashMap(); // 페이지 -> lastSeen 번호
+		long[] lastSeen = new long[1024]; // 페이지별로 가장 최근(trace 뒤쪽)에 본 위치
+		
+		for (long hi = count; hi > 0; ) {
+			long lo = Math.max(0, hi - chunkSize);
+			int n = (int) (hi - lo);
+			readFully(in, pages, lo * Integer.BYTES, n * Integer.BYTES);
+			uses.clear();
+			uses.limit(n * Long.BYTES);
+			for (int i = n - 1; i >= 0; --i) {
+				int page = pages.getInt(i * Integer.BYTES);
+				int id = ids.get(page, -1);
+				long nextUse;
+				if (id < 0) {
+					id = ids.size();
+					ids.put(page, id);
+					if (id == lastSeen.length) lastSeen = Arrays.copyOf(lastSeen, id * 2);
+					nextUse = NEVER;
+				} else {
+					nextUse = lastSeen[id];
+				}
+				lastSeen[id] = lo + i;
+				uses.putLong(i * Long.BYTES, nextUse);
+			}
+			uses.position(0);
+			long position = lo * Long.BYTES;
+			while (uses.hasRemaining()) position += next.write(uses, position);
+			hi = lo;
+		}
+	}
+	
+	// 순방향 단계: trace와 다음 사용 위치를 함께 읽으며 교체한다.
+	private void simulate(FileChannel in, FileChannel next, long count) throws IOException {
+		framePage = new int[frameSize];
+		frameNext = new long[frameSize];
+		heap = new int[frameSize];
+		heapIndex = new int[frameSize];
+		used = 0;
+		resident = new LongIntHashMap(frameSize);
+		references = hitCount = faultCount = 0;
+		
+		ByteBuffer pages = ByteBuffer.allocateDirect(chunkSize * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer uses = ByteBuffer.allocateDirect(chunkSize * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		for (long lo = 0; lo < count; lo += chunkSize) {
+			int n = (int) Math.min(chunkSize, count - lo);
+			readFully(in, pages, lo * Integer.BYTES, n * Integer.BYTES);
+			readFully(next, uses, lo * Long.BYTES, n * Long.BYTES);
+			for (int i = 0; i < n; ++i) {
+				reference(pages.getInt(i * Integer.BYTES), uses.getLong(i * Long.BYTES));
+			}
+		}
+	}
+	
+	private void reference(int page, long nextUse) {
+		references++;
+		int frame = resident.get(page, -1);
+		if (frame >= 0) {
+			// Hit: 다음 사용 위치가 뒤로 밀렸으므로 힙에서 위로 올린다.
+			hitCount++;
+			frameNext[frame] = nextUse;
+			siftUp(heapIndex[frame]);
+			return;
+		}
+		faultCount++;
+		if (used < frameSize) {
+			frame = used;
+			framePage[frame] = page;
+			frameNext[frame] = nextUse;
+			heap[used] = frame;
+			heapIndex[frame] = used;
+			used++;
+			siftUp(used - 1);
+		} else {
+			// 다음 사용 위치가 가장 먼 페이지(힙의 맨 위)를 교체
+			frame = heap[0];
+			resident.remove(framePage[frame], -1);
+			framePage[frame] = page;
+			frameNext[frame] = nextUse;
+			siftDown(0);
+		}
+		resident.put(page, frame);
+	}
+	
+	private void siftUp(int i) {
+		int frame = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (frameNext[heap[parent]] >= frameNext[frame]) break;
+			heap[i] = heap[parent];
+			heapIndex[heap[i]] = i;
+			i = parent;
+		}
+		heap[i] = frame;
+		heapIndex[frame] = i;
+	}
+	
+	private void siftDown(int i) {
+		int frame = heap[i];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= used) break;
+			if (child + 1 < used && frameNext[heap[child + 1]] > frameNext[heap[child]]) child++;
+			if (frameNext[heap[child]] <= frameNext[frame]) break;
+			heap[i] = heap[child];
+			heapIndex[heap[i]] = i;
+			i = child;
+		}
+		heap[i] = frame;
+		heapIndex[frame] = i;
+	}
+	
+	// position부터 length 바이트를 buffer에 읽는다.
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position, int length) throws IOException {
+		buffer.clear();
+		buffer.limit(length);
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + buffer.position());
+			if (read < 0) throw new IOException("파일이 예상보다 짧습니다.");
+		}
+	}
+	
+	public int getFrameSize() {
+		return frameSize;
+	}
+	
+	public long getReferences() {
+		return references;
+	}
+	
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	public long getFaultCount() {
+		return faultCount;
+	}
+	
+	public long getExecutionTime() {
+		return executionTime;
+	}
+	
+	public String getName() {
+		return "Optimal";
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2 && args.length != 3) {
+			System.err.println("사용법: ExternalOptimal <프레임 수> <이진 trace 파일>");
+			System.err.println("       ExternalOptimal <프레임 수> <lackey|block|address> <trace 파일>");
+			System.exit(2);
+		}
+		ExternalOptimal optimal = new ExternalOptimal(Integer.parseInt(args[0]));
+		if (args.length == 2) {
+			optimal.run(Paths.get(args[1]));
+		} else {
+			Path text = Paths.get(args[2]);
+			Path binary = Files.createTempFile(text.toAbsolutePath().getParent(), "trace-", ".pages");
+			try {
+				new TraceImporter(TraceImporter.Format.of(args[1])).exportBinary(text, binary);
+				optimal.run(binary);
+			} finally {
+				Files.deleteIfExists(binary);
+			}
+		}
+		System.out.println("=== " + optimal.getName() + " (external) Result ===");
+		System.out.println("References : " + optimal.getReferences());
+		System.out.println("Hit : " + optimal.getHitCount() + ", Fault : " + optimal.getFaultCount());
+		System.out.println("Execution time : " + optimal.getExecutionTime() / 1000 + " ms");
+	}
+}
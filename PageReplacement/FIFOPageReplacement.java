@@ -1,5 +1,6 @@
 package PageReplacement;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -7,30 +8,103 @@ import java.util.*;
  * 가장 먼저 들어온 페이지를 제거하는 방식으로 페이지 교체를 수행한다.
  */
 
-public class FIFOPageReplacement implements PageReplacementPolicy {
+public class FIFOPageReplacement implements OnlinePolicy {
 	private List<Character> referenceString; // 참조 문자열
 	private int frameSize; // 프레임 개수
-	private Queue<Frame> frames; // 현재 메모리에 적재된 프레임들
-	private List<Boolean> hitHistory; // 메모리 참조 시 Hit/Fault 여부를 저장
-	private int hitCount; // 총 Page hit 횟수
-	private int faultCount; // 총 Page Fault 횟수
-	private List<List<Character>> frameSnapshots; // 매 시점마다 프레임 상태를 저장한 리스트
+	private List<Frame> frames; // 현재 메모리에 적재된 프레임들 (원형 큐로 사용)
+	private FrameIndex residentPages; // frames의 페이지 번호 (같은 위치, 검색용)
+	private int head; // 가장 먼저 들어온 프레임의 위치 (프레임이 가득 찬 뒤에만 의미가 있음)
+	private long position; // 지금까지 처리한 참조 수
+	private long hitCount; // 총 Page hit 횟수
+	private long faultCount; // 총 Page Fault 횟수
 	private long executionTime = 0; // 실행 시간 저장 변수
+	private final PolicyMetrics metrics = new PolicyMetrics("FIFO"); // 단계별 측정값
+	private ReferenceListener listener = ReferenceListener.NONE; // 참조 사건을 전달받을 리스너
+	private final AccessResult result = new AccessResult(); // 마지막 참조의 처리 결과 (재사용)
+	private int[] snapshotBuffer; // 스냅샷 전달용 배열 (재사용)
 	
-	// 현재 시점의 프레임 상태를 복사하여 frameSnapshots에 저장한다.
-	private void recordSnapshot() {
-		List<Character> snapshot = new ArrayList<>();
-		for (Frame frame : frames) {
-			snapshot.add(frame.page);
+	// 측정/기록 여부 (refreshFlags()에서만 갱신하여 참조마다 다시 읽지 않는다)
+	private boolean snapshots; // 스냅샷이 필요할 때만 만든다.
+	private boolean measure; // PolicyMetrics 측정 여부
+	private boolean recordFaults; // JFR Fault 이벤트 기록 여부
+	private boolean timed; // 교체 대상 선택 시간을 잴지 여부
+	
+	// 현재 시점의 프레임 상태를 들어온 순서대로 리스너에 전달한다.
+	private void recordSnapshot(long time) {
+		int size = frames.size();
+		for (int i = 0; i < size; ++i) {
+			snapshotBuffer[i] = frames.get((head + i) % size).page;
 		}
-		frameSnapshots.add(snapshot);
+		listener.onSnapshot(time, snapshotBuffer, size);
+	}
+	
+	// 측정/기록 설정을 다시 읽는다.
+	private void refreshFlags() {
+		if (snapshotBuffer == null || snapshotBuffer.length != frameSize) snapshotBuffer = new int[frameSize];
+		snapshots = listener.wantsSnapshots();
+		measure = PolicyMetrics.isEnabled();
+		recordFaults = PageFaultEvent.isRecording();
+		timed = measure || recordFaults;
+	}
+	
+	/**
+	 * 페이지 하나를 참조하고 결과를 result에 기록한다.
+	 * run(), resume(), access(), accessAll()이 모두 이 메서드를 사용한다.
+	 * @param time 참조 위치
+	 * @param page 참조한 페이지
+	 */
+	private void reference(long time, int page) {
+		boolean hit = false;
+		long t0 = 0;
+		
+		if (measure) t0 = System.nanoTime();
+		// 현재 프레임에 페이지가 존재하는지 확인
+		hit = residentPages.contains(page);
+		if (measure) metrics.record(PolicyMetrics.Phase.HIT_LOOKUP, System.nanoTime() - t0);
+		
+		result.time = time;
+		result.page = page;
+		result.hit = hit;
+		result.evicted = false;
+		if (hit) {
+			hitCount++;
+			listener.onHit(time, page);
+		} else {
+			faultCount++;
+			listener.onFault(time, page);
+			if (timed) t0 = System.nanoTime();
+			int victim = -1; // 교체되어 나간 페이지
+			if (frames.size() == frameSize) {
+				// 프레임 가득 찼으면 가장 먼저 들어온 프레임을 새 페이지로 교체
+				Frame oldest = frames.get(head);
+				victim = oldest.page;
+				oldest.set(page);
+				residentPages.set(head, page);
+				head = (head + 1) % frameSize;
+				result.evicted = true;
+				result.evictedPage = victim;
+			} else {
+				frames.add(new Frame(page)); // 새로운 페이지 삽입
+				residentPages.add(page);
+			}
+			long cost = timed && result.evicted ? System.nanoTime() - t0 : 0; // 빈 프레임을 채웠으면 0
+			if (measure && result.evicted) metrics.record(PolicyMetrics.Phase.VICTIM_SELECTION, cost);
+			if (result.evicted) listener.onEviction(time, victim, page);
+			if (recordFaults) PageFaultEvent.sample(getName(), faultCount, time, victim, page, cost);
+		}
+		if (snapshots) {
+			if (measure) t0 = System.nanoTime();
+			recordSnapshot(time); // 현재 시점의 프레임 상태 저장
+			if (measure) metrics.record(PolicyMetrics.Phase.SNAPSHOT, System.nanoTime() - t0);
+		}
+		if (measure) metrics.countReference();
 	}
 	
 	@Override
 	public void setReferenceString(List<Character> referenceString) {
 		this.referenceString = referenceString;
 	}
-
+	
 	@Override
 	public void setFrameSize(int frameSize) {
 		this.frameSize = frameSize;
@@ -38,67 +112,166 @@ public class FIFOPageReplacement implements PageReplacementPolicy {
 	
 	@Override
 	public void run() {
-		long start = System.nanoTime(); // 시작 시간 측정
-		
-		frames = new LinkedList<>(); // Queue 사용
-		hitHistory = new ArrayList<>();
+		reset();
+		resume();
+	}
+	
+	@Override
+	public void reset() {
+		frames = new ArrayList<>(frameSize); // 원형 큐로 사용
+		residentPages = new FrameIndex(frameSize);
+		head = 0;
+		position = 0;
 		hitCount = 0;
 		faultCount = 0;
-		frameSnapshots = new ArrayList<>();
+		metrics.reset();
+		refreshFlags();
+	}
+	
+	@Override
+	public void resume() {
+		resume(referenceString.size());
+	}
+	
+	@Override
+	public void resume(long end) {
+		long start = System.nanoTime(); // 시작 시간 측정
 		
-		for (char page : referenceString) {
-			boolean hit = false;
-			
-			// 현재 프레임에 페이지가 존재하는지 확인
-			for (Frame frame : frames) {
-				if (frame.page == page) {
-					hit = true;
-					break;
-				}
-			}
-			
-			if (hit) {
-				hitCount++;
-				hitHistory.add(true);
-			} else {
-				faultCount++;
-				hitHistory.add(false);
-				if (frames.size() == frameSize) frames.poll(); // 프레임 가득 찼으면 가장 먼저 들어온 프레임 제거
-				frames.offer(new Frame(page)); // 새로운 페이지 삽입
-			}
-			recordSnapshot(); // 현재 시점의 프레임 상태 저장
+		end = Math.min(end, referenceString.size());
+		refreshFlags();
+		for (long time = position; time < end; ++time) {
+			reference(time, referenceString.get((int) time));
 		}
-		long end = System.nanoTime(); // 종료 시간 측정
-		executionTime = (end - start) / 1_000; // 밀리초로 변환
+		position = Math.max(position, end);
+		
+		executionTime = (System.nanoTime() - start) / 1_000; // 밀리초로 변환
 	}
 	
 	@Override
-	public int getHitCount() {
-		return hitCount;
+	public AccessResult access(int page) {
+		if ((position & 0xFFF) == 0) refreshFlags(); // 4096번마다 측정/기록 설정 변경을 반영한다.
+		reference(position++, page);
+		return result;
 	}
 	
 	@Override
-	public int getFaultCount() {
-		return faultCount;
+	public int accessAll(int[] pages, int off, int len) {
+		long faultsBefore = faultCount;
+		refreshFlags();
+		for (int i = off; i < off + len; ++i) {
+			reference(position++, pages[i]);
+		}
+		return (int) (faultCount - faultsBefore);
 	}
-
+	
+	// 가장 먼저 들어온 프레임을 교체하여 페이지를 적재한다.
 	@Override
-	public List<Boolean> getHitHistory() {
-		return hitHistory;
+	public AccessResult prefetch(int page) {
+		result.time = position;
+		result.page = page;
+		result.hit = false;
+		result.evicted = false;
+		if (residentPages.contains(page)) {
+			result.hit = true;
+			return result;
+		}
+		if (frames.size() == frameSize) {
+			Frame oldest = frames.get(head);
+			result.evicted = true;
+			result.evictedPage = oldest.page;
+			oldest.set(page);
+			residentPages.set(head, page);
+			head = (head + 1) % frameSize;
+		} else {
+			frames.add(new Frame(page));
+			residentPages.add(page);
+		}
+		return result;
 	}
-
+	
+	// 들어온 순서대로 (가장 먼저 들어온 페이지부터)
+	@Override
+	public int getResidentPages(int[] pages) {
+		int size = frames.size();
+		for (int i = 0; i < size; ++i) {
+			pages[i] = frames.get((head + i) % size).page;
+		}
+		return size;
+	}
+	
+	@Override
+	public AccessResult getLastResult() {
+		return result;
+	}
+	
+	@Override
+	public int getFrameSize() {
+		return frameSize;
+	}
+	
+	@Override
+	public long getPosition() {
+		return position;
+	}
+	
+	// 처리 위치, Hit/Fault 수, 프레임 슬롯과 큐의 시작 위치를 기록한다.
+	@Override
+	public void writeState(PolicyCheckpoint.Output out) throws IOException {
+		out.writeLong(position);
+		out.writeLong(hitCount);
+		out.writeLong(faultCount);
+		out.writeInt(head);
+		out.writeInt(frames.size());
+		for (int i = 0; i < frames.size(); ++i) {
+			out.writeInt(frames.get(i).page);
+		}
+	}
+	
+	@Override
+	public void readState(PolicyCheckpoint.Input in) throws IOException {
+		position = in.readLong();
+		hitCount = in.readLong();
+		faultCount = in.readLong();
+		head = in.readInt();
+		int size = in.readInt();
+		frames = new ArrayList<>(frameSize);
+		residentPages = new FrameIndex(frameSize);
+		for (int i = 0; i < size; ++i) {
+			int page = in.readInt();
+			frames.add(new Frame(page));
+			residentPages.add(page);
+		}
+		refreshFlags();
+	}
+	
+	@Override
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	@Override
+	public long getFaultCount() {
+		return faultCount;
+	}
+	
 	@Override
 	public String getName() {
 		return "FIFO";
 	}
-
+	
 	@Override
-	public List<List<Character>> getFrameSnapshots() {
-		return frameSnapshots;
+	public void setReferenceListener(ReferenceListener listener) {
+		this.listener = (listener == null) ? ReferenceListener.NONE : listener;
+		snapshots = this.listener.wantsSnapshots();
 	}
-
+	
 	@Override
 	public long getExecutionTime() {
 		return executionTime;
 	}
+	
+	@Override
+	public PolicyMetrics getMetrics() {
+		return metrics;
+	}
 }
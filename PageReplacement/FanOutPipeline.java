@@ -0,0 +1,355 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * trace를 한 번만 읽고 변환하여 여러 OnlinePolicy(알고리즘 또는 프레임 수가 다른)에 동시에 전달한다.
+ *
+ * 변환된 페이지 번호는 미리 만들어 둔 고정 크기 int 배열 묶음(slot)에 복사되어 원형 버퍼로 발행된다.
+ * 읽는 스레드 하나가 쓰고, 정책마다 작업 스레드 하나가 자기 위치부터 읽는다. (single producer / multi consumer)
+ * - 가장 느린 작업 스레드가 원형 버퍼 한 바퀴만큼 뒤처지면 읽는 스레드가 기다리므로 메모리는 slot 수 × 묶음 크기로 제한된다.
+ * - 기다리는 쪽은 잠깐 돌다가 park()하고, 상대가 위치를 옮기면 unpark()로 깨운다.
+ * 따라서 파일은 한 번만 읽으며 전체 시간은 가장 느린 정책의 시간에 가깝다.
+ *
+ * 사용법: java PageReplacement.FanOutPipeline <lackey|block|address> <파일 또는 -> <알고리즘,...> <프레임 수,...>
+ */
+
+public class FanOutPipeline {
+	private static final int SPIN = 128; // park() 전에 돌며 기다리는 횟수
+	
+	private final int[][] slots; // 원형 버퍼의 페이지 묶음
+	private final int[] lengths; // slot별 유효한 페이지 수
+	private final int batchSize; // slot 하나의 크기
+	private final List<Worker> workers = new ArrayList<>();
+	
+	private volatile long cursor; // 발행한 묶음 수
+	private volatile boolean done; // 더 발행할 묶음이 없음
+	private volatile Thread producer; // 읽는 스레드
+	private volatile boolean producerParked; // 읽는 스레드가 park() 중인지 여부
+	private int filling; // 채우는 중인 slot의 페이지 수
+	
+	private long references; // 발행한 참조 수
+	private long stallTime; // 읽는 스레드가 느린 작업 스레드를 기다린 시간(ns)
+	private long elapsedTime; // 전체 실행 시간(ns)
+	
+	/**
+	 * @param slotCount 원형 버퍼의 slot 수
+	 * @param batchSize slot 하나에 담는 페이지 수
+	 */
+	public FanOutPipeline(int slotCount, int batchSize) {
+		if (slotCount <= 0) throw new IllegalArgumentException("slot 수는 양수여야 합니다: " + slotCount);
+		if (batchSize <= 0) throw new IllegalArgumentException("묶음 크기는 양수여야 합니다: " + batchSize);
+		this.slots = new int[slotCount][batchSize];
+		this.lengths = new int[slotCount];
+		this.batchSize = batchSize;
+	}
+	
+	// 64 slot × 4096 페이지 (1 MiB)
+	public FanOutPipeline() {
+		this(64, 4096);
+	}
+	
+	/**
+	 * 참조를 전달할 정책을 추가한다. 정책마다 작업 스레드 하나가 만들어진다.
+	 * 정책은 프레임 수가 설정되고 reset()된 상태여야 한다.
+	 */
+	public void addPolicy(OnlinePolicy policy) {
+		if (producer != null) throw new IllegalStateException("실행 중에는 정책을 추가할 수 없습니다.");
+		workers.add(new Worker(policy));
+	}
+	
+	/**
+	 * 파일을 병렬로 읽어 모든 정책에 전달한다.
+	 * @return 전달한 참조 수
+	 */
+	public long run(TraceImporter importer, Path path) throws IOException {
+		return run(sink -> importer.forEachBatch(path, sink));
+	}
+	
+	/**
+	 * 채널을 한 스레드로 읽어 모든 정책에 전달한다. (표준 입력, pipe용)
+	 * @return 전달한 참조 수
+	 */
+	public long run(TraceImporter importer, ReadableByteChannel in) throws IOException {
+		return run(sink -> importer.forEachBatch(in, sink));
+	}
+	
+	// 작업 스레드를 시작하고 source가 넘기는 묶음을 발행한 뒤 모든 작업 스레드가 끝나기를 기다린다.
+	private long run(Source source) throws IOException {
+		if (workers.isEmpty()) throw new IllegalStateException("정책이 없습니다.");
+		long start = System.nanoTime();
+		producer = Thread.currentThread();
+		cursor = 0;
+		done = false;
+		filling = 0;
+		references = stallTime = 0;
+		for (Worker worker : workers) {
+			worker.start();
+		}
+		try {
+			source.read((pages, size) -> {
+				try {
+					publish(pages, size);
+				} catch (InterruptedIOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			if (filling > 0) commit();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			done = true;
+			for (Worker worker : workers) {
+				LockSupport.unpark(worker.thread);
+			}
+			join();
+			producer = null;
+			elapsedTime = System.nanoTime() - start;
+		}
+		for (Worker worker : workers) {
+			if (worker.failure instanceof RuntimeException) throw (RuntimeException) worker.failure;
+			if (worker.failure instanceof Error) throw (Error) worker.failure;
+		}
+		return references;
+	}
+	
+	// 페이지들을 채우는 중인 slot에 복사하고, slot이 차면 발행한다.
+	private void publish(int[] pages, int size) throws InterruptedIOException {
+		int off = 0;
+		while (off < size) {
+			if (filling == 0) awaitFreeSlot();
+			int[] slot = slots[(int) (cursor % slots.length)];
+			int n = Math.min(size - off, batchSize - filling);
+			System.arraycopy(pages, off, slot, filling, n);
+			filling += n;
+			off += n;
+			if (filling == batchSize) commit();
+		}
+	}
+	
+	// 채운 slot을 발행하고 기다리는 작업 스레드를 깨운다.
+	private void commit() {
+		lengths[(int) (cursor % slots.length)] = filling;
+		references += filling;
+		filling = 0;
+		cursor = cursor + 1;
+		for (Worker worker : workers) {
+			if (worker.parked) LockSupport.unpark(worker.thread);
+		}
+	}
+	
+	// 가장 느린 작업 스레드가 다음에 쓸 slot을 다 읽을 때까지 기다린다. (back-pressure)
+	private void awaitFreeSlot() throws InterruptedIOException {
+		if (cursor - slowest() < slots.length) return;
+		long start = System.nanoTime();
+		for (int spin = 0; cursor - slowest() >= slots.length; ++spin) {
+			if (spin < SPIN) {
+				Thread.onSpinWait();
+				continue;
+			}
+			producerParked = true;
+			if (cursor - slowest() >= slots.length) LockSupport.park(this);
+			producerParked = false;
+			if (Thread.interrupted()) throw new InterruptedIOException("trace 전달이 중단되었습니다.");
+		}
+		stallTime += System.nanoTime() - start;
+	}
+	
+	// 가장 적게 읽은 작업 스레드의 위치 (실패한 작업 스레드는 제외)
+	private long slowest() {
+		long min = Long.MAX_VALUE;
+		for (Worker worker : workers) {
+			min = Math.min(min, worker.sequence);
+		}
+		return min;
+	}
+	
+	private void join() throws InterruptedIOException {
+		boolean interrupted = false;
+		for (Worker worker : workers) {
+			while (true) {
+				try {
+					worker.thread.join();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+					worker.thread.interrupt(); // 작업 스레드를 멈추고 끝나기를 기다린다.
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("trace 전달이 중단되었습니다.");
+		}
+	}
+	
+	public int getSlotCount() {
+		return slots.length;
+	}
+	
+	public int getBatchSize() {
+		return batchSize;
+	}
+	
+	public long getReferences() {
+		return references;
+	}
+	
+	// 읽는 스레드가 느린 작업 스레드를 기다린 시간(µs)
+	public long getStallTime() {
+		return stallTime / 1_000;
+	}
+	
+	// 전체 실행 시간(µs)
+	public long getElapsedTime() {
+		return elapsedTime / 1_000;
+	}
+	
+	public List<Worker> getWorkers() {
+		return Collections.unmodifiableList(workers);
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ROOT, "References : %d, slots=%d x %d, elapsed %d ms, reader stalled %d ms",
+				references, slots.length, batchSize, elapsedTime / 1_000_000, stallTime / 1_000_000));
+		for (Worker worker : workers) {
+			sb.append(System.lineSeparator()).append("  ").append(worker);
+		}
+		return sb.toString();
+	}
+	
+	// 묶음을 읽어 sink에 넘기는 입력
+	private interface Source {
+		long read(ObjIntConsumer<int[]> sink) throws IOException;
+	}
+	
+	/**
+	 * 정책 하나에 묶음을 전달하는 작업 스레드이다.
+	 */
+	public final class Worker {
+		private final OnlinePolicy policy;
+		private Thread thread;
+		private volatile long sequence; // 읽은 묶음 수 (실패하면 Long.MAX_VALUE)
+		private volatile boolean parked; // park() 중인지 여부
+		private volatile Throwable failure; // 작업 중 발생한 예외
+		private long references; // 처리한 참조 수
+		private long busyTime; // accessAll()에 쓴 시간(ns)
+		private long waitTime; // 묶음을 기다린 시간(ns)
+		
+		private Worker(OnlinePolicy policy) {
+			this.policy = policy;
+		}
+		
+		private void start() {
+			sequence = 0;
+			failure = null;
+			references = busyTime = waitTime = 0;
+			thread = new Thread(this::work, "FanOut-" + policy.getName() + "-f" + policy.getFrameSize());
+			thread.setDaemon(true);
+			thread.start();
+		}
+		
+		private void work() {
+			try {
+				long next = 0;
+				while (await(next)) {
+					int index = (int) (next % slots.length);
+					long start = System.nanoTime();
+					policy.accessAll(slots[index], 0, lengths[index]);
+					busyTime += System.nanoTime() - start;
+					references += lengths[index];
+					sequence = ++next;
+					if (producerParked) LockSupport.unpark(producer);
+				}
+			} catch (Throwable e) {
+				failure = e;
+				sequence = Long.MAX_VALUE; // 읽는 스레드가 더 기다리지 않게 한다.
+				if (producerParked) LockSupport.unpark(producer);
+			}
+		}
+		
+		// next번째 묶음이 발행될 때까지 기다린다. 더 발행될 묶음이 없으면 false
+		private boolean await(long next) {
+			if (next < cursor) return true;
+			long start = System.nanoTime();
+			try {
+				for (int spin = 0; ; ++spin) {
+					if (next < cursor) return true;
+					if (done) return next < cursor; // done을 본 뒤의 cursor는 마지막 값이다.
+					if (Thread.currentThread().isInterrupted()) return false;
+					if (spin < SPIN) {
+						Thread.onSpinWait();
+						continue;
+					}
+					parked = true;
+					if (next >= cursor && !done) LockSupport.park(this);
+					parked = false;
+				}
+			} finally {
+				waitTime += System.nanoTime() - start;
+			}
+		}
+		
+		public OnlinePolicy getPolicy() {
+			return policy;
+		}
+		
+		// 처리한 참조 수
+		public long getReferences() {
+			return references;
+		}
+		
+		// accessAll()에 쓴 시간(µs)
+		public long getBusyTime() {
+			return busyTime / 1_000;
+		}
+		
+		// 묶음을 기다린 시간(µs)
+		public long getWaitTime() {
+			return waitTime / 1_000;
+		}
+		
+		public Throwable getFailure() {
+			return failure;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%-6s frames=%-6d Hit : %d, Fault : %d, busy %d ms, waiting %d ms%s",
+					policy.getName(), policy.getFrameSize(), policy.getHitCount(), policy.getFaultCount(),
+					busyTime / 1_000_000, waitTime / 1_000_000, failure != null ? ", failed: " + failure : "");
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 4) {
+			System.err.println("사용법: FanOutPipeline <lackey|block|address> <파일 또는 -> <FIFO,LRU,Clock,LPR> <프레임 수,...>");
+			System.exit(2);
+		}
+		TraceImporter importer = new TraceImporter(TraceImporter.Format.of(args[0]));
+		FanOutPipeline pipeline = new FanOutPipeline();
+		for (String name : args[2].split(",")) {
+			for (String frames : args[3].split(",")) {
+				OnlinePolicy policy = PolicyFactory.createOnline(name);
+				policy.setFrameSize(Integer.parseInt(frames));
+				policy.reset();
+				pipeline.addPolicy(policy);
+			}
+		}
+		if (args[1].equals("-")) {
+			pipeline.run(importer, Channels.newChannel(System.in));
+		} else {
+			pipeline.run(importer, Paths.get(args[1]));
+		}
+		System.out.println(pipeline);
+	}
+}
@@ -0,0 +1,71 @@
+package PageReplacement;
+
+/**
+ * 프레임에 적재된 페이지 번호를 프레임 순서대로 int 배열에 모아 둔 검색용 사본이다.
+ * 정책은 Frame 목록을 바꿀 때 같은 위치를 add()/set()으로 함께 바꾸고, "이 페이지가 적재되어 있는가"는 indexOf()로 찾는다.
+ *
+ * jdk.incubator.vector 모듈이 있으면(--add-modules jdk.incubator.vector) 페이지 수가 벡터 한 개 이상일 때
+ * 찾는 페이지를 모든 lane에 채운 벡터와 한 번에 비교한다. 모듈이 없거나 -Dpagereplacement.scalar=true이면 하나씩 비교한다.
+ * 자주 쓰는 프레임 수(4~512)에서는 해시 색인보다 배열을 훑는 편이 빠르다.
+ */
+
+final class FrameIndex {
+	// 벡터 비교를 사용할 최소 페이지 수 (사용할 수 없으면 Integer.MAX_VALUE)
+	private static final int VECTOR_MIN = vectorAvailable() ? VectorFrameSearch.lanes() : Integer.MAX_VALUE;
+	
+	private final int[] pages; // 프레임 순서대로의 페이지 번호
+	private int size; // 사용 중인 프레임 수
+	
+	FrameIndex(int capacity) {
+		pages = new int[capacity];
+	}
+	
+	// 벡터 모듈이 boot layer에 있는지 확인한다. 없으면 VectorFrameSearch를 로드하지 않는다.
+	private static boolean vectorAvailable() {
+		if (Boolean.getBoolean("pagereplacement.scalar")) return false;
+		return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+	}
+	
+	// 벡터 비교를 사용하는지 여부
+	static boolean isVectorized() {
+		return VECTOR_MIN != Integer.MAX_VALUE;
+	}
+	
+	/**
+	 * page가 있는 프레임 위치를 반환한다.
+	 * @return 프레임 위치, 없으면 -1
+	 */
+	int indexOf(int page) {
+		if (size >= VECTOR_MIN) return VectorFrameSearch.indexOf(pages, size, page);
+		for (int i = 0; i < size; ++i) {
+			if (pages[i] == page) return i;
+		}
+		return -1;
+	}
+	
+	boolean contains(int page) {
+		return indexOf(page) >= 0;
+	}
+	
+	// 다음 빈 프레임에 페이지를 적재한다.
+	void add(int page) {
+		pages[size++] = page;
+	}
+	
+	// index번째 프레임의 페이지를 바꾼다.
+	void set(int index, int page) {
+		pages[index] = page;
+	}
+	
+	int get(int index) {
+		return pages[index];
+	}
+	
+	int size() {
+		return size;
+	}
+	
+	void clear() {
+		size = 0;
+	}
+}
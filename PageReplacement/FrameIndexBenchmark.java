@@ -0,0 +1,53 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * FrameIndex.indexOf()의 검색 시간을 프레임 수별로 잰다.
+ * 프레임마다 서로 다른 페이지를 채우고, 80%는 적재된 페이지, 20%는 없는 페이지인 질의 65536개를 반복해서 찾는다.
+ * 반복 중 가장 빠른 회차의 질의당 시간을 출력한다. (JIT 준비 시간과 잡음을 빼기 위함)
+ *
+ * 사용법: java --add-modules jdk.incubator.vector PageReplacement.FrameIndexBenchmark [반복 수]
+ *         (일반 반복문과 비교하려면 -Dpagereplacement.scalar=true를 붙여 한 번 더 실행)
+ */
+
+final class FrameIndexBenchmark {
+	private static final int[] FRAME_SIZES = { 4, 8, 16, 32, 64, 128, 256, 512 };
+	private static final int QUERIES = 1 << 16;
+	
+	private FrameIndexBenchmark() {
+	}
+	
+	// frames개 프레임에서 가장 빠른 회차의 질의당 시간(ns)
+	static double measure(int frames, int repeats) {
+		FrameIndex index = new FrameIndex(frames);
+		for (int i = 0; i < frames; ++i) {
+			index.add(i * 7 + 1);
+		}
+		Random random = new Random(frames);
+		int[] queries = new int[QUERIES];
+		for (int i = 0; i < QUERIES; ++i) {
+			queries[i] = random.nextInt(5) == 0 ? -random.nextInt(1000) - 1 : random.nextInt(frames) * 7 + 1;
+		}
+		
+		long best = Long.MAX_VALUE;
+		long sink = 0;
+		for (int r = 0; r < repeats; ++r) {
+			long start = System.nanoTime();
+			for (int query : queries) {
+				sink += index.indexOf(query);
+			}
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		if (sink == Long.MIN_VALUE) System.out.println(); // 검색이 제거되지 않도록 결과를 사용한다.
+		return (double) best / QUERIES;
+	}
+	
+	public static void main(String[] args) {
+		int repeats = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+		System.out.println("=== FrameIndex (" + (FrameIndex.isVectorized() ? "vector" : "scalar") + ") ===");
+		for (int frames : FRAME_SIZES) {
+			System.out.printf("Frames : %4d, %.2f ns/lookup%n", frames, measure(frames, repeats));
+		}
+	}
+}
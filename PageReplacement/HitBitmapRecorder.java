@@ -0,0 +1,58 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * 참조별 Hit 여부만 비트 단위로 기록하는 리스너이다.
+ * 참조 하나당 1비트만 사용하므로 긴 참조 문자열의 Hit/Fault 패턴을 남길 때 사용한다.
+ * BitSet을 사용하므로 처음 Integer.MAX_VALUE개의 참조까지만 기록한다.
+ */
+
+public class HitBitmapRecorder implements ReferenceListener {
+	private final BitSet hits = new BitSet(); // time번째 비트가 1이면 Hit
+	private int length; // 기록된 참조 수
+	
+	@Override
+	public void onHit(long time, int page) {
+		hits.set((int) time);
+		length = (int) (time + 1);
+	}
+	
+	@Override
+	public void onFault(long time, int page) {
+		hits.clear((int) time);
+		length = (int) (time + 1);
+	}
+	
+	@Override
+	public void onEviction(long time, int victim, int page) {
+	}
+	
+	// time번째 참조가 Hit였는지 반환한다.
+	public boolean isHit(int time) {
+		return hits.get(time);
+	}
+	
+	// 기록된 참조 수를 반환한다.
+	public int length() {
+		return length;
+	}
+	
+	// 기록된 비트맵을 BitSet.toLongArray() 형식으로 반환한다. (ResultCache 저장용)
+	long[] toLongArray() {
+		return hits.toLongArray();
+	}
+	
+	// 저장해 둔 비트맵으로 기록을 바꾼다. (ResultCache에서 복원)
+	void load(long[] words, int length) {
+		hits.clear();
+		hits.or(BitSet.valueOf(words));
+		this.length = length;
+	}
+	
+	// 기록을 모두 지운다. 같은 리스너로 다시 실행할 때 사용한다.
+	public void clear() {
+		hits.clear();
+		length = 0;
+	}
+}
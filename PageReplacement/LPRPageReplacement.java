@@ -1,5 +1,6 @@
 package PageReplacement;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -8,66 +9,77 @@ import java.util.*;
  * 해당 확률이 가장 낮은 페이지를 교체 대상으로 선택한다.
  */
 
-public class LPRPageReplacement implements PageReplacementPolicy {
+public class LPRPageReplacement implements OnlinePolicy {
 	private List<Character> referenceString; // 페이지 참조 문자열
 	private int frameSize; // 프레임의 수
 	private List<Frame> frames; // 현재 메모리에 적재된 프레임들
+	private FrameIndex residentPages; // frames의 페이지 번호 (같은 위치, 검색용)
+	private long position; // 지금까지 처리한 참조 수
+	private int prev; // 직전에 참조한 페이지 (position > 0일 때만 의미가 있음)
 	
 	// 각 페이지가 등장한 이후에 어떤 페이지가 몇 번 등장했는지 기록
-	private Map<Character, Map<Character, Integer>> nextPageCount;
+	private final TransitionTable transitions = new TransitionTable();
 	
-	private List<Boolean> hitHistory; // 각 참조 시점의 Hit 여부
-	private int hitCount; // 총 Hit 횟수
-	private int faultCount; // 총 Fault 횟수
-	private List<List<Character>> frameSnapshots; // 프레임 상태 스냅샷
+	private long hitCount; // 총 Hit 횟수
+	private long faultCount; // 총 Fault 횟수
 	private long executionTime = 0; // 실행 시간 저장 변수
+	private final PolicyMetrics metrics = new PolicyMetrics("LPR"); // 단계별 측정값
+	private ReferenceListener listener = ReferenceListener.NONE; // 참조 사건을 전달받을 리스너
+	private final AccessResult result = new AccessResult(); // 마지막 참조의 처리 결과 (재사용)
+	private int[] snapshotBuffer; // 스냅샷 전달용 배열 (재사용)
 	
-	// 현재 시점의 프레임 상태를 기록한다.
-	private void recordSnapshot() {
-		List<Character> snapshot = new ArrayList<>();
-		for (Frame frame : frames) {
-			snapshot.add(frame.page);
+	// 측정/기록 여부 (refreshFlags()에서만 갱신하여 참조마다 다시 읽지 않는다)
+	private boolean snapshots; // 스냅샷이 필요할 때만 만든다.
+	private boolean measure; // PolicyMetrics 측정 여부
+	private boolean recordFaults; // JFR Fault 이벤트 기록 여부
+	private boolean timed; // 교체 대상 선택 시간을 잴지 여부
+	
+	// 현재 시점의 프레임 상태를 리스너에 전달한다.
+	private void recordSnapshot(long time) {
+		int size = frames.size();
+		for (int i = 0; i < size; ++i) {
+			snapshotBuffer[i] = frames.get(i).page;
 		}
-		frameSnapshots.add(snapshot);
+		listener.onSnapshot(time, snapshotBuffer, size);
+	}
+	
+	// 측정/기록 설정을 다시 읽는다.
+	private void refreshFlags() {
+		if (snapshotBuffer == null || snapshotBuffer.length != frameSize) snapshotBuffer = new int[frameSize];
+		snapshots = listener.wantsSnapshots();
+		measure = PolicyMetrics.isEnabled();
+		recordFaults = PageFaultEvent.isRecording();
+		timed = measure || recordFaults;
 	}
 	
 	/**
 	 * 현재 참조 중인 페이지(curr)를 기준으로,
 	 * 다음 등장할 확률이 가장 낮은 페이지를 교체 대상으로 선택한다.
-	 * 
-	 * 이 메서드는 과거 참조 이력(nextPageCount)을 기반으로 
+	 *
+	 * 이 메서드는 과거 참조 이력(transitions)을 기반으로
 	 * "지금 들어온 페이지(curr) 다음에는 어떤 페이지들이 얼마나 자주 등장했는가?"를 분석하여
 	 * 현재 프레임에 존재하는 페이지들 중 앞으로 등장 확률이 가장 낮은 페이지를 찾아 교체한다.
-	 * 
+	 *
 	 * @param curr 현재 참조 중인 페이지
 	 * @return 교체 대상이 될 프레임의 index
 	 */
-	private int findVictim(Character curr) {
-		// curr 페이지가 과거에 어떤 페이지들이 다음에 나왔는지에 대한 카운트 맵을 가져온다.
-		// 예: nextPageCount.get('A') = {'B' : 5, 'C' : 3, 'D' : 1 }
-		Map<Character, Integer> pageCount = nextPageCount.get(curr);
-		
-		// 과거 정보가 없거나 curr 이후의 등장 기록이 없다면
-		// 확률을 비교할 기준이 없으므로 기본적으로 0번 프레임을 victim으로 선택한다.
-		if (pageCount == null || pageCount.isEmpty()) return 0; 
-		
-		int total = 0; // 총 등장 횟수
-		for (Integer count : pageCount.values()) {
-			total += count;
-		}
+	private int findVictim(int curr) {
+		// curr 이후에 등장한 페이지 수의 합
+		// 예: curr = 'A' 이후 {'B' : 5, 'C' : 3, 'D' : 1 } 이었다면 total = 9
+		int total = transitions.total(curr);
 		
 		// total이 0이라는 건 curr 이후 어떤 페이지도 등장하지 않았다는 뜻
-		// 데이터 부족으로 0번 프레임을 victim으로 선택한다.
-		if (total == 0) return 0; 
+		// 확률을 비교할 기준이 없으므로 기본적으로 0번 프레임을 victim으로 선택한다.
+		if (total == 0) return 0;
 		
 		double minProb = Double.MAX_VALUE; // 현재까지 찾은 최소 확률
 		int victimIndex = 0; // 교체 대상이 될 프레임 index
 		
 		// 현재 프레임에 들어 있는 각 페이지에 대해 등장 확률 계산
 		for (int i = 0; i < frames.size(); ++i) {
-			char victimPage = frames.get(i).page; // 현재 프레임에 있는 페이지
-			int count = pageCount.getOrDefault(victimPage, 0); // curr 이후에 이 페이지가 등장한 횟수(없으면 0)
-			double prob = (double)count / total; // (현재 프레임 다음에 나오는 페이지의 횟수) / (총 횟수) 
+			int victimPage = frames.get(i).page; // 현재 프레임에 있는 페이지
+			int count = transitions.count(curr, victimPage); // curr 이후에 이 페이지가 등장한 횟수(없으면 0)
+			double prob = (double)count / total; // (현재 프레임 다음에 나오는 페이지의 횟수) / (총 횟수)
 			
 			// 확률이 가장 낮은 프레임 index 설정
 			if (prob < minProb) {
@@ -80,100 +92,252 @@ public class LPRPageReplacement implements PageReplacementPolicy {
 		return victimIndex;
 	}
 	
+	/**
+	 * 페이지 하나를 참조하고 결과를 result에 기록한다.
+	 * run(), resume(), access(), accessAll()이 모두 이 메서드를 사용한다.
+	 * @param time 참조 위치
+	 * @param curr 참조한 페이지
+	 */
+	private void reference(long time, int curr) {
+		boolean hit = false;
+		long t0 = 0;
+		
+		// 이전 페이지(prev)  ->  현재 페이지(curr) 패턴 기록
+		if (time > 0) {
+			transitions.record(prev, curr);
+		}
+		
+		if (measure) t0 = System.nanoTime();
+		// 현재 페이지가 이미 프레임에 있는지 검사
+		hit = residentPages.contains(curr);
+		if (measure) metrics.record(PolicyMetrics.Phase.HIT_LOOKUP, System.nanoTime() - t0);
+		
+		result.time = time;
+		result.page = curr;
+		result.hit = hit;
+		result.evicted = false;
+		if (hit) {
+			hitCount++;
+			listener.onHit(time, curr);
+		} else {
+			faultCount++;
+			listener.onFault(time, curr);
+			if (frames.size() == frameSize) {
+				// 교체 대상 선택 및 교체
+				if (timed) t0 = System.nanoTime();
+				int victimIndex = findVictim(curr);
+				long cost = timed ? System.nanoTime() - t0 : 0;
+				if (measure) {
+					metrics.record(PolicyMetrics.Phase.VICTIM_SELECTION, cost);
+					if (transitions.total(curr) != 0) metrics.addCandidatesScored(frames.size()); // 확률을 비교한 후보 수
+				}
+				Frame victim = frames.get(victimIndex);
+				result.evicted = true;
+				result.evictedPage = victim.page;
+				listener.onEviction(time, victim.page, curr);
+				if (recordFaults) PageFaultEvent.sample(getName(), faultCount, time, victim.page, curr, cost);
+				victim.set(curr);
+				residentPages.set(victimIndex, curr);
+			} else {
+				frames.add(new Frame(curr));
+				residentPages.add(curr);
+				if (recordFaults) PageFaultEvent.sample(getName(), faultCount, time, -1, curr, 0);
+			}
+		}
+		
+		if (snapshots) {
+			if (measure) t0 = System.nanoTime();
+			recordSnapshot(time);
+			if (measure) metrics.record(PolicyMetrics.Phase.SNAPSHOT, System.nanoTime() - t0);
+		}
+		if (measure) metrics.countReference();
+		prev = curr; // 다음 패턴 분석을 위한 현재 페이지를 저장
+	}
+	
 	@Override
 	public void setReferenceString(List<Character> referenceString) {
 		this.referenceString = referenceString;
-		
+	
 	}
-
+	
 	@Override
 	public void setFrameSize(int frameSize) {
 		this.frameSize = frameSize;
 	}
-
+	
 	@Override
 	public void run() {
-		long start = System.nanoTime(); // 시작 시간 측정
-		
-		frames = new ArrayList<>();
-		nextPageCount = new HashMap<>();
-		hitHistory = new ArrayList<>();
+		reset();
+		resume();
+	}
+	
+	@Override
+	public void reset() {
+		frames = new ArrayList<>(frameSize);
+		residentPages = new FrameIndex(frameSize);
+		transitions.clear();
+		position = 0;
+		prev = 0;
 		hitCount = 0;
 		faultCount = 0;
-		frameSnapshots = new ArrayList<>();
-		
-		char prev = '\0'; // 직전 페이지
+		metrics.reset();
+		refreshFlags();
+	}
+	
+	@Override
+	public void resume() {
+		resume(referenceString.size());
+	}
+	
+	@Override
+	public void resume(long end) {
+		long start = System.nanoTime(); // 시작 시간 측정
 		
-		for (int i = 0; i < referenceString.size(); ++i) {
-			char curr = referenceString.get(i);
-			boolean hit = false;
-			
-			// 이전 페이지(prev)  ->  현재 페이지(curr) 패턴 기록
-			if (i > 0) {
-				nextPageCount.putIfAbsent(prev, new HashMap<>());
-				Map<Character, Integer> pageCount = nextPageCount.get(prev);
-				pageCount.put(curr, pageCount.getOrDefault(curr, 0) + 1);
-			}
-			
-			// 현재 페이지가 이미 프레임에 있는지 검사
-			for (Frame frame : frames) {
-				if (frame.page == curr) {
-					hit = true;
-					break;
-				}
-			}
-			
-			if (hit) {
-				hitCount++;
-				hitHistory.add(true);
-			} else {
-				faultCount++;
-				hitHistory.add(false);
-				if (frames.size() == frameSize) {
-					// 교체 대상 선택 및 교체
-					int victimIndex = findVictim(curr);
-					frames.set(victimIndex, new Frame(curr));
-				} else {
-					frames.add(new Frame(curr));
-				}
-			}
-			
-			recordSnapshot();
-			prev = curr; // 다음 패턴 분석을 위한 현재 페이지를 저장
+		end = Math.min(end, referenceString.size());
+		refreshFlags();
+		for (long i = position; i < end; ++i) {
+			reference(i, referenceString.get((int) i));
 		}
+		position = Math.max(position, end);
 		
-		long end = System.nanoTime();
-		executionTime = (end - start) / 1_000;
+		executionTime = (System.nanoTime() - start) / 1_000;
 	}
-
+	
 	@Override
-	public int getHitCount() {
-		return hitCount;
+	public AccessResult access(int page) {
+		if ((position & 0xFFF) == 0) refreshFlags(); // 4096번마다 측정/기록 설정 변경을 반영한다.
+		reference(position++, page);
+		return result;
 	}
-
+	
 	@Override
-	public int getFaultCount() {
-		return faultCount;
+	public int accessAll(int[] pages, int off, int len) {
+		long faultsBefore = faultCount;
+		refreshFlags();
+		for (int i = off; i < off + len; ++i) {
+			reference(position++, pages[i]);
+		}
+		return (int) (faultCount - faultsBefore);
 	}
-
+	
+	// Fault 처리와 같이 적재할 페이지 다음에 나올 확률이 가장 낮은 페이지를 교체한다. 전이 횟수는 기록하지 않는다.
 	@Override
-	public List<Boolean> getHitHistory() {
-		return hitHistory;
+	public AccessResult prefetch(int page) {
+		result.time = position;
+		result.page = page;
+		result.hit = false;
+		result.evicted = false;
+		if (residentPages.contains(page)) {
+			result.hit = true;
+			return result;
+		}
+		if (frames.size() == frameSize) {
+			int victimIndex = findVictim(page);
+			Frame victim = frames.get(victimIndex);
+			result.evicted = true;
+			result.evictedPage = victim.page;
+			victim.set(page);
+			residentPages.set(victimIndex, page);
+		} else {
+			frames.add(new Frame(page));
+			residentPages.add(page);
+		}
+		return result;
 	}
-
+	
+	// 프레임 순서대로 (LPR은 교체 순서가 전이 횟수로 정해지므로 순서에 의미는 없다)
+	@Override
+	public int getResidentPages(int[] pages) {
+		for (int i = 0; i < frames.size(); ++i) {
+			pages[i] = frames.get(i).page;
+		}
+		return frames.size();
+	}
+	
+	@Override
+	public AccessResult getLastResult() {
+		return result;
+	}
+	
+	@Override
+	public int getFrameSize() {
+		return frameSize;
+	}
+	
+	@Override
+	public long getPosition() {
+		return position;
+	}
+	
+	/**
+	 * 처리 위치, Hit/Fault 수, 직전 페이지, 프레임, 그리고 전이 횟수 표를 기록한다.
+	 * 전이 횟수 표는 (이전 페이지, 다음 페이지, 횟수) 항목들로 기록하며 합계는 복원 시 다시 계산한다.
+	 */
+	@Override
+	public void writeState(PolicyCheckpoint.Output out) throws IOException {
+		out.writeLong(position);
+		out.writeLong(hitCount);
+		out.writeLong(faultCount);
+		out.writeInt(prev);
+		out.writeInt(frames.size());
+		for (int i = 0; i < frames.size(); ++i) {
+			out.writeInt(frames.get(i).page);
+		}
+		transitions.write(out);
+	}
+	
+	@Override
+	public void readState(PolicyCheckpoint.Input in) throws IOException {
+		position = in.readLong();
+		hitCount = in.readLong();
+		faultCount = in.readLong();
+		prev = in.readInt();
+		int size = in.readInt();
+		frames = new ArrayList<>(frameSize);
+		residentPages = new FrameIndex(frameSize);
+		for (int i = 0; i < size; ++i) {
+			int page = in.readInt();
+			frames.add(new Frame(page));
+			residentPages.add(page);
+		}
+		transitions.read(in);
+		refreshFlags();
+	}
+	
+	@Override
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	@Override
+	public long getFaultCount() {
+		return faultCount;
+	}
+	
 	@Override
 	public String getName() {
 		return "LPR";
 	}
-
+	
 	@Override
-	public List<List<Character>> getFrameSnapshots() {
-		return frameSnapshots;
+	public void setReferenceListener(ReferenceListener listener) {
+		this.listener = (listener == null) ? ReferenceListener.NONE : listener;
+		snapshots = this.listener.wantsSnapshots();
 	}
-
+	
 	@Override
 	public long getExecutionTime() {
 		return executionTime;
 	}
+	
+	// 전이 횟수 표 (MarkovPrefetcher가 함께 사용한다)
+	TransitionTable getTransitions() {
+		return transitions;
+	}
+	
+	@Override
+	public PolicyMetrics getMetrics() {
+		return metrics;
+	}
 
 }
@@ -1,5 +1,6 @@
 package PageReplacement;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -7,106 +8,269 @@ import java.util.*;
  * 가장 오래 전에 사용된 페이지를 교체대상으로 선택한다.
  */
 
-public class LRUPageReplacement implements PageReplacementPolicy {
+public class LRUPageReplacement implements OnlinePolicy {
 	private List<Character> referenceString; // 페이지 참조 문자열
 	private int frameSize; // 프레임의 개수
-	private List<Frame> frames; // 현재 메모리에 적재된 프레임들
-	private List<Boolean> hitHistory; // 각 참조 시점별 Hit/Fault 여부 기록
-	private int hitCount; // 총 Hit 횟수
-	private int faultCount; // 총 Fault 횟수
-	private List<List<Character>> frameSnapshots; // 각 시점별 프레임 상태 기록
+	private List<Frame> frames; // 현재 메모리에 적재된 프레임들 (앞쪽일수록 오래 전에 사용됨)
+	private long position; // 지금까지 처리한 참조 수
+	private long hitCount; // 총 Hit 횟수
+	private long faultCount; // 총 Fault 횟수
 	private long executionTime = 0; // 실행 시간 저장 변수
+	private final PolicyMetrics metrics = new PolicyMetrics("LRU"); // 단계별 측정값
+	private ReferenceListener listener = ReferenceListener.NONE; // 참조 사건을 전달받을 리스너
+	private final AccessResult result = new AccessResult(); // 마지막 참조의 처리 결과 (재사용)
+	private int[] snapshotBuffer; // 스냅샷 전달용 배열 (재사용)
 	
-	// 현재 시점의 프레임 상태를 복사하여 frameSnapshots에 저장한다.
-	private void recordSnapshot() {
-		List<Character> snapshot = new ArrayList<>();
-		for (Frame frame : frames) {
-			snapshot.add(frame.page);
+	// 측정/기록 여부 (refreshFlags()에서만 갱신하여 참조마다 다시 읽지 않는다)
+	private boolean snapshots; // 스냅샷이 필요할 때만 만든다.
+	private boolean measure; // PolicyMetrics 측정 여부
+	private boolean recordFaults; // JFR Fault 이벤트 기록 여부
+	private boolean timed; // 교체 대상 선택 시간을 잴지 여부
+	
+	// 현재 시점의 프레임 상태를 리스너에 전달한다.
+	private void recordSnapshot(long time) {
+		int size = frames.size();
+		for (int i = 0; i < size; ++i) {
+			snapshotBuffer[i] = frames.get(i).page;
+		}
+		listener.onSnapshot(time, snapshotBuffer, size);
+	}
+	
+	// 측정/기록 설정을 다시 읽는다.
+	private void refreshFlags() {
+		if (snapshotBuffer == null || snapshotBuffer.length != frameSize) snapshotBuffer = new int[frameSize];
+		snapshots = listener.wantsSnapshots();
+		measure = PolicyMetrics.isEnabled();
+		recordFaults = PageFaultEvent.isRecording();
+		timed = measure || recordFaults;
+	}
+	
+	/**
+	 * 페이지 하나를 참조하고 결과를 result에 기록한다.
+	 * run(), resume(), access(), accessAll()이 모두 이 메서드를 사용한다.
+	 * @param time 참조 위치
+	 * @param page 참조한 페이지
+	 */
+	private void reference(long time, int page) {
+		Frame found = null; // 페이지가 적재된 프레임
+		long t0 = 0;
+		
+		if (measure) t0 = System.nanoTime();
+		// 프레임 안에 해당 페이지가 있는지 검사
+		for (int i = 0; i < frames.size(); ++i) {
+			if (frames.get(i).page == page) {
+				found = frames.remove(i); // 기존 위치에서 제거
+				break;
+			}
+		}
+		if (measure) metrics.record(PolicyMetrics.Phase.HIT_LOOKUP, System.nanoTime() - t0);
+		
+		result.time = time;
+		result.page = page;
+		result.hit = found != null;
+		result.evicted = false;
+		if (found != null) {
+			hitCount++;
+			listener.onHit(time, page);
+			frames.add(found); // 가장 최근 사용된 페이지로 갱신
+		} else {
+			faultCount++;
+			listener.onFault(time, page);
+			
+			// 프레임이 가득 찼으면 가장 오래된 페이지 제거
+			if (timed) t0 = System.nanoTime();
+			int victim = -1; // 교체되어 나간 페이지
+			Frame frame;
+			if (frames.size() == frameSize) {
+				frame = frames.remove(0);
+				victim = frame.page;
+				frame.set(page); // 제거한 프레임을 재사용
+				result.evicted = true;
+				result.evictedPage = victim;
+			} else {
+				frame = new Frame(page);
+			}
+			long cost = timed && result.evicted ? System.nanoTime() - t0 : 0; // 빈 프레임을 채웠으면 0
+			if (measure && result.evicted) metrics.record(PolicyMetrics.Phase.VICTIM_SELECTION, cost);
+			frames.add(frame); // 새 페이지 추가 (가장 최근 사용한 페이지로 갱신)
+			if (result.evicted) listener.onEviction(time, victim, page);
+			if (recordFaults) PageFaultEvent.sample(getName(), faultCount, time, victim, page, cost);
+		}
+		if (snapshots) {
+			if (measure) t0 = System.nanoTime();
+			recordSnapshot(time);
+			if (measure) metrics.record(PolicyMetrics.Phase.SNAPSHOT, System.nanoTime() - t0);
 		}
-		frameSnapshots.add(snapshot);
+		if (measure) metrics.countReference();
 	}
 	
 	@Override
 	public void setReferenceString(List<Character> referenceString) {
 		this.referenceString = referenceString;
 	}
-
+	
 	@Override
 	public void setFrameSize(int frameSize) {
 		this.frameSize = frameSize;
 	}
-
+	
 	@Override
 	public void run() {
-		long start = System.nanoTime(); // 시작 시간 측정
-		
-		frames = new LinkedList<>(); // Queue를 이용해 구현
-		hitHistory = new ArrayList<>();
+		reset();
+		resume();
+	}
+	
+	@Override
+	public void reset() {
+		frames = new ArrayList<>(frameSize); // 사용 순서대로 정렬된 리스트
+		position = 0;
 		hitCount = 0;
 		faultCount = 0;
-		frameSnapshots = new ArrayList<>();
+		metrics.reset();
+		refreshFlags();
+	}
+	
+	@Override
+	public void resume() {
+		resume(referenceString.size());
+	}
+	
+	@Override
+	public void resume(long end) {
+		long start = System.nanoTime(); // 시작 시간 측정
 		
-		for (char page : referenceString) {
-			boolean hit = false;
-			
-			// 프레임 안에 해당 페이지가 있는지 검사
-			Iterator<Frame> it = frames.iterator();
-			while (it.hasNext()) {
-				Frame frame = it.next();
-				if (frame.page == page) {
-					hit = true;
-					it.remove(); // 기존 위치에서 제거
-					break;
-				}
-			}
-			
-			if (hit) {
-				hitCount++;
-				hitHistory.add(true);
-				frames.addLast(new Frame(page)); // 가장 최근 사용된 페이지로 갱신
-			} else {
-				faultCount++;
-				hitHistory.add(false);
-				
-				// 프레임이 가득 찼으면 가장 오래된 페이지 제거
-				if(frames.size() == frameSize) frames.removeFirst(); 
-				frames.addLast(new Frame(page)); // 새 페이지 추가 (가장 최근 사용한 페이지로 갱신)
-			}
-			recordSnapshot();
+		end = Math.min(end, referenceString.size());
+		refreshFlags();
+		for (long time = position; time < end; ++time) {
+			reference(time, referenceString.get((int) time));
 		}
+		position = Math.max(position, end);
 		
-		long end = System.nanoTime(); // 종료 시간 측정
-		executionTime = (end - start) / 1_000; // 밀리초로 변환
+		executionTime = (System.nanoTime() - start) / 1_000; // 밀리초로 변환
 	}
-
+	
 	@Override
-	public int getHitCount() {
-		return hitCount;
+	public AccessResult access(int page) {
+		if ((position & 0xFFF) == 0) refreshFlags(); // 4096번마다 측정/기록 설정 변경을 반영한다.
+		reference(position++, page);
+		return result;
 	}
-
+	
 	@Override
-	public int getFaultCount() {
-		return faultCount;
+	public int accessAll(int[] pages, int off, int len) {
+		long faultsBefore = faultCount;
+		refreshFlags();
+		for (int i = off; i < off + len; ++i) {
+			reference(position++, pages[i]);
+		}
+		return (int) (faultCount - faultsBefore);
 	}
-
+	
+	// 가장 오래 전에 사용된 프레임을 교체하여 페이지를 가장 최근 사용 위치에 적재한다.
+	// 이미 적재된 페이지의 사용 순서는 바꾸지 않는다.
 	@Override
-	public List<Boolean> getHitHistory() {
-		return hitHistory;
+	public AccessResult prefetch(int page) {
+		result.time = position;
+		result.page = page;
+		result.hit = false;
+		result.evicted = false;
+		for (int i = 0; i < frames.size(); ++i) {
+			if (frames.get(i).page == page) {
+				result.hit = true;
+				return result;
+			}
+		}
+		Frame frame;
+		if (frames.size() == frameSize) {
+			frame = frames.remove(0);
+			result.evicted = true;
+			result.evictedPage = frame.page;
+			frame.set(page);
+		} else {
+			frame = new Frame(page);
+		}
+		frames.add(frame);
+		return result;
 	}
-
+	
+	// 사용 순서대로 (가장 오래 전에 사용된 페이지부터)
+	@Override
+	public int getResidentPages(int[] pages) {
+		for (int i = 0; i < frames.size(); ++i) {
+			pages[i] = frames.get(i).page;
+		}
+		return frames.size();
+	}
+	
+	@Override
+	public AccessResult getLastResult() {
+		return result;
+	}
+	
+	@Override
+	public int getFrameSize() {
+		return frameSize;
+	}
+	
+	@Override
+	public long getPosition() {
+		return position;
+	}
+	
+	// 처리 위치, Hit/Fault 수, 오래 전에 사용된 순서대로 정렬된 프레임을 기록한다.
+	@Override
+	public void writeState(PolicyCheckpoint.Output out) throws IOException {
+		out.writeLong(position);
+		out.writeLong(hitCount);
+		out.writeLong(faultCount);
+		out.writeInt(frames.size());
+		for (int i = 0; i < frames.size(); ++i) {
+			out.writeInt(frames.get(i).page);
+		}
+	}
+	
+	@Override
+	public void readState(PolicyCheckpoint.Input in) throws IOException {
+		position = in.readLong();
+		hitCount = in.readLong();
+		faultCount = in.readLong();
+		int size = in.readInt();
+		frames = new ArrayList<>(frameSize);
+		for (int i = 0; i < size; ++i) {
+			frames.add(new Frame(in.readInt()));
+		}
+		refreshFlags();
+	}
+	
+	@Override
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	@Override
+	public long getFaultCount() {
+		return faultCount;
+	}
+	
 	@Override
 	public String getName() {
 		return "LRU";
 	}
-
+	
 	@Override
-	public List<List<Character>> getFrameSnapshots() {
-		return frameSnapshots;
+	public void setReferenceListener(ReferenceListener listener) {
+		this.listener = (listener == null) ? ReferenceListener.NONE : listener;
+		snapshots = this.listener.wantsSnapshots();
 	}
-
+	
 	@Override
 	public long getExecutionTime() {
 		return executionTime;
 	}
+	
+	@Override
+	public PolicyMetrics getMetrics() {
+		return metrics;
+	}
 
 }
@@ -0,0 +1,97 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * 2의 거듭제곱 단위(log2)로 구간을 나눈 히스토그램이다.
+ * 값 v는 [2^(k-1), 2^k) 구간(k = v의 비트 길이)에 들어가며, 0은 0번 구간에 들어간다.
+ * 구간 배열 하나와 몇 개의 long 필드만 사용하므로 기록 시 객체를 생성하지 않는다.
+ * 나노초 단위 지연 시간뿐 아니라 Clock 포인터 이동 횟수 같은 개수 분포에도 사용한다.
+ * 하나의 정책 인스턴스(단일 스레드)에서만 기록한다고 가정하므로 동기화하지 않는다.
+ */
+
+public class LatencyHistogram {
+	private static final int BUCKETS = 65; // 0 ~ 64비트 길이
+	
+	private final long[] buckets = new long[BUCKETS]; // 구간별 기록 횟수
+	private long count; // 총 기록 횟수
+	private long sum; // 기록된 값의 합
+	private long min = Long.MAX_VALUE; // 최솟값
+	private long max; // 최댓값
+	
+	// 값을 하나 기록한다. 음수는 0으로 취급한다.
+	public void record(long value) {
+		if (value < 0) value = 0;
+		buckets[64 - Long.numberOfLeadingZeros(value)]++;
+		count++;
+		sum += value;
+		if (value < min) min = value;
+		if (value > max) max = value;
+	}
+	
+	// 다른 히스토그램의 기록을 합친다.
+	public void merge(LatencyHistogram other) {
+		for (int i = 0; i < BUCKETS; ++i) {
+			buckets[i] += other.buckets[i];
+		}
+		count += other.count;
+		sum += other.sum;
+		if (other.min < min) min = other.min;
+		if (other.max > max) max = other.max;
+	}
+	
+	// 모든 기록을 지운다.
+	public void reset() {
+		Arrays.fill(buckets, 0);
+		count = 0;
+		sum = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+	}
+	
+	/**
+	 * q 분위수(0.0 ~ 1.0)의 근삿값을 반환한다.
+	 * 해당 분위수가 속한 구간의 상한값을 반환하므로 실제 값보다 최대 2배까지 클 수 있다.
+	 * @param q 분위수
+	 * @return 분위수 근삿값, 기록이 없으면 0
+	 */
+	public long percentile(double q) {
+		if (count == 0) return 0;
+		long rank = (long) Math.ceil(q * count);
+		if (rank < 1) rank = 1;
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; ++i) {
+			seen += buckets[i];
+			if (seen >= rank) {
+				long upper = (i == 0) ? 0 : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+				return Math.min(upper, max);
+			}
+		}
+		return max;
+	}
+	
+	public long getCount() {
+		return count;
+	}
+	
+	public long getSum() {
+		return sum;
+	}
+	
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+	
+	public long getMax() {
+		return max;
+	}
+	
+	public double getMean() {
+		return count == 0 ? 0.0 : (double) sum / count;
+	}
+	
+	// k번째 구간의 기록 횟수를 반환한다. (k = 값의 비트 길이)
+	public long getBucketCount(int k) {
+		return buckets[k];
+	}
+}
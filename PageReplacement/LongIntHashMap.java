@@ -0,0 +1,160 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * long 키와 int 값을 기본형 배열에 그대로 저장하는 해시 맵이다. (개방 주소법, 선형 탐사)
+ * HashMap<Character, Integer>처럼 참조마다 박싱 객체를 만들지 않기 때문에
+ * 참조 하나당 여러 번 조회/갱신하는 알고리즘 내부 표에 사용한다.
+ * int 키는 long으로 넓혀서 사용한다.
+ */
+
+class LongIntHashMap {
+	private static final float LOAD_FACTOR = 0.6f;
+	
+	private long[] keys; // 키 배열
+	private int[] values; // 값 배열
+	private boolean[] used; // 슬롯 사용 여부
+	private int size; // 저장된 키 개수
+	private int mask; // 배열 길이 - 1 (길이는 항상 2의 거듭제곱)
+	private int threshold; // 이 개수를 넘으면 배열을 두 배로 늘린다.
+	
+	LongIntHashMap() {
+		this(16);
+	}
+	
+	LongIntHashMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) * 2 - 1);
+		allocate(capacity);
+	}
+	
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+		threshold = (int) (capacity * LOAD_FACTOR);
+	}
+	
+	// 키를 섞어 슬롯 위치를 계산한다.
+	private int slot(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+	
+	// 키가 있는 슬롯을 찾는다. 없으면 -(비어 있는 슬롯 + 1)을 반환한다.
+	private int find(long key) {
+		int i = slot(key);
+		while (used[i]) {
+			if (keys[i] == key) return i;
+			i = (i + 1) & mask;
+		}
+		return -(i + 1);
+	}
+	
+	int get(long key, int defaultValue) {
+		int i = find(key);
+		return i >= 0 ? values[i] : defaultValue;
+	}
+	
+	boolean containsKey(long key) {
+		return find(key) >= 0;
+	}
+	
+	// 값을 저장하고 이전 값을 반환한다. (없었으면 defaultValue)
+	int put(long key, int value, int defaultValue) {
+		int i = find(key);
+		if (i >= 0) {
+			int old = values[i];
+			values[i] = value;
+			return old;
+		}
+		insert(-(i + 1), key, value);
+		return defaultValue;
+	}
+	
+	void put(long key, int value) {
+		put(key, value, 0);
+	}
+	
+	// 값에 delta를 더하고 더한 결과를 반환한다. 키가 없으면 0에 더한다.
+	int addTo(long key, int delta) {
+		int i = find(key);
+		if (i >= 0) {
+			values[i] += delta;
+			return values[i];
+		}
+		insert(-(i + 1), key, delta);
+		return delta;
+	}
+	
+	private void insert(int i, long key, int value) {
+		keys[i] = key;
+		values[i] = value;
+		used[i] = true;
+		if (++size > threshold) rehash();
+	}
+	
+	// 키를 지우고 지운 값을 반환한다. (없었으면 defaultValue)
+	int remove(long key, int defaultValue) {
+		int i = find(key);
+		if (i < 0) return defaultValue;
+		int old = values[i];
+		// 뒤쪽 슬롯을 당겨서 탐사 사슬이 끊기지 않게 한다.
+		int gap = i;
+		int j = (i + 1) & mask;
+		while (used[j]) {
+			int home = slot(keys[j]);
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = keys[j];
+				values[gap] = values[j];
+				gap = j;
+			}
+			j = (j + 1) & mask;
+		}
+		used[gap] = false;
+		size--;
+		return old;
+	}
+	
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(oldKeys.length * 2);
+		for (int i = 0; i < oldKeys.length; ++i) {
+			if (oldUsed[i]) {
+				int j = -(find(oldKeys[i]) + 1);
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+				used[j] = true;
+			}
+		}
+	}
+	
+	int size() {
+		return size;
+	}
+	
+	void clear() {
+		Arrays.fill(used, false);
+		size = 0;
+	}
+	
+	// 슬롯 배열 길이. keyAt()/valueAt()과 함께 전체 항목을 순회할 때 사용한다.
+	int capacity() {
+		return keys.length;
+	}
+	
+	boolean isUsed(int slot) {
+		return used[slot];
+	}
+	
+	long keyAt(int slot) {
+		return keys[slot];
+	}
+	
+	int valueAt(int slot) {
+		return values[slot];
+	}
+}
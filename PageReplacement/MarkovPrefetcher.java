@@ -0,0 +1,73 @@
+package PageReplacement;
+
+/**
+ * 페이지 사이의 전이 횟수로 다음에 올 페이지를 예측하여 미리 적재한다.
+ * 방금 참조한 페이지 다음에 가장 많이 참조된 페이지, 그 페이지 다음에 가장 많이 참조된 페이지, ...를
+ * degree개까지 차례로 따라간다.
+ *
+ * LPRPageReplacement를 받으면 LPR이 교체 대상 선택을 위해 이미 모으는 전이 횟수 표를 그대로 사용하고
+ * (이 경우 LPR이 같은 참조를 처리해야 한다), 그렇지 않으면 직접 표를 만든다.
+ */
+
+public class MarkovPrefetcher implements Prefetcher {
+	private final int degree; // 따라갈 전이 수
+	private final TransitionTable transitions; // 전이 횟수 표
+	private final boolean owned; // 표를 직접 갱신하는지 여부
+	private int prev; // 직전에 참조한 페이지 (owned일 때만 사용)
+	private boolean started;
+	
+	// 전이 횟수 표를 직접 만든다.
+	public MarkovPrefetcher(int degree) {
+		this(degree, new TransitionTable(), true);
+	}
+	
+	// LPR이 모으는 전이 횟수 표를 사용한다.
+	public MarkovPrefetcher(int degree, LPRPageReplacement lpr) {
+		this(degree, lpr.getTransitions(), false);
+	}
+	
+	private MarkovPrefetcher(int degree, TransitionTable transitions, boolean owned) {
+		if (degree <= 0) throw new IllegalArgumentException("degree는 양수여야 합니다: " + degree);
+		this.degree = degree;
+		this.transitions = transitions;
+		this.owned = owned;
+	}
+	
+	@Override
+	public void observe(int page) {
+		if (!owned) return; // LPR이 이미 기록했다.
+		if (started) transitions.record(prev, page);
+		prev = page;
+		started = true;
+	}
+	
+	@Override
+	public int predict(int page, int[] out) {
+		int n = 0;
+		int p = page;
+		while (n < degree && n < out.length && transitions.total(p) > 0) {
+			p = transitions.mostLikelyNext(p);
+			if (p == page || contains(out, n, p)) break; // 이미 지나온 페이지로 돌아오는 순환
+			out[n++] = p;
+		}
+		return n;
+	}
+	
+	private static boolean contains(int[] pages, int n, int page) {
+		for (int i = 0; i < n; ++i) {
+			if (pages[i] == page) return true;
+		}
+		return false;
+	}
+	
+	@Override
+	public String getName() {
+		return "Markov";
+	}
+	
+	@Override
+	public void reset() {
+		if (owned) transitions.clear();
+		started = false;
+	}
+}
@@ -0,0 +1,199 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * 여러 MemoryTier를 위에서부터 차례로 연결한 메모리 계층을 시뮬레이션한다.
+ *
+ * 참조한 페이지는 그 페이지를 가진 가장 위 계층에서 읽어 최상위 계층에 적재하며,
+ * 최상위 계층이 아니었다면 그 계층의 접근 지연 시간과 페이지 전송 시간이 든다.
+ * 어떤 계층에서 교체된 페이지는 바로 아래 계층으로 내려간다(demotion).
+ * 아래 계층에 이미 같은 페이지가 남아 있으면 다시 기록하지 않는다. (페이지는 수정되지 않는다고 가정)
+ * backing store는 모든 페이지를 가지고 있으므로 최하위 계층에서 교체된 페이지는 비용 없이 버려진다.
+ *
+ * 유효 접근 시간(EAT)은 참조마다 걸린 시간의 평균이며 demotion에 든 시간은 따로 집계한다.
+ *
+ * 사용법: java PageReplacement.MemoryHierarchy <lackey|block|address> <파일>
+ *         <이름:알고리즘:페이지 수:지연(ns):대역폭(GB/s)>... <이름:지연(ns):대역폭(GB/s)>
+ * 예: MemoryHierarchy address trace.txt DRAM:LRU:4096:100:20 zswap:Clock:16384:2000:4 NVMe:80000:3
+ */
+
+public class MemoryHierarchy {
+	private final MemoryTier[] tiers; // 위에서부터의 계층 (마지막은 backing store)
+	private int pageSize = 4096; // 페이지 크기(byte)
+	private long references; // 처리한 참조 수
+	private double demandNs; // 참조 처리에 걸린 시간의 합(ns)
+	private double demotionNs; // demotion에 걸린 시간의 합(ns)
+	
+	/**
+	 * @param tiers 위에서부터의 계층. 마지막 계층만 backing store여야 한다.
+	 */
+	public MemoryHierarchy(MemoryTier... tiers) {
+		if (tiers.length < 2 || !tiers[tiers.length - 1].isBackingStore()) {
+			throw new IllegalArgumentException("계층은 둘 이상이어야 하며 마지막 계층은 backing store여야 합니다.");
+		}
+		for (int i = 0; i < tiers.length - 1; ++i) {
+			if (tiers[i].isBackingStore()) {
+				throw new IllegalArgumentException("backing store(" + tiers[i].getName() + ")는 마지막 계층이어야 합니다.");
+			}
+		}
+		this.tiers = tiers.clone();
+	}
+	
+	public void setPageSize(int pageSize) {
+		if (pageSize <= 0) throw new IllegalArgumentException("페이지 크기는 양수여야 합니다: " + pageSize);
+		this.pageSize = pageSize;
+	}
+	
+	// 모든 계층의 정책과 통계를 초기화한다.
+	public void reset() {
+		for (MemoryTier tier : tiers) {
+			tier.reset();
+		}
+		references = 0;
+		demandNs = 0;
+		demotionNs = 0;
+	}
+	
+	/**
+	 * 페이지 하나를 참조한다.
+	 * @param page 참조할 페이지 번호
+	 * @return 페이지를 제공한 계층의 번호 (0이 최상위)
+	 */
+	public int access(int page) {
+		int level = 0;
+		while (!tiers[level].contains(page)) level++;
+		
+		MemoryTier source = tiers[level];
+		double cost;
+		if (level == 0) {
+			cost = source.getLatencyNs(); // 최상위 계층 Hit는 페이지를 옮기지 않는다.
+		} else {
+			cost = source.transferNs(pageSize);
+			source.bytesRead += pageSize;
+			if (!source.isBackingStore()) source.getPolicy().access(page); // 아래 계층의 사용 기록 갱신 (Hit)
+		}
+		source.hits++;
+		source.demandNs += cost;
+		demandNs += cost;
+		references++;
+		
+		insert(0, page);
+		return level;
+	}
+	
+	/**
+	 * 여러 페이지를 차례로 참조한다.
+	 * @return 이 구간에서 최상위 계층이 아닌 곳에서 제공된 참조 수
+	 */
+	public int accessAll(int[] pages, int off, int len) {
+		int misses = 0;
+		for (int i = off; i < off + len; ++i) {
+			if (access(pages[i]) != 0) misses++;
+		}
+		return misses;
+	}
+	
+	// level 계층에 페이지를 적재하고, 교체된 페이지를 아래 계층으로 내려보낸다.
+	private void insert(int level, int page) {
+		while (true) {
+			MemoryTier tier = tiers[level];
+			if (tier.isBackingStore()) return;
+			AccessResult result = tier.getPolicy().access(page);
+			if (result.isHit()) return;
+			tier.resident.put(page, 1);
+			if (!result.isEviction()) return;
+			
+			int victim = result.getEvictedPage();
+			tier.resident.remove(victim, 0);
+			MemoryTier below = tiers[level + 1];
+			if (below.contains(victim)) return; // 아래 계층(또는 backing store)에 이미 같은 페이지가 있다.
+			below.demotionsIn++;
+			below.bytesWritten += pageSize;
+			demotionNs += below.transferNs(pageSize);
+			page = victim;
+			level++;
+		}
+	}
+	
+	public MemoryTier getTier(int level) {
+		return tiers[level];
+	}
+	
+	public int getTierCount() {
+		return tiers.length;
+	}
+	
+	public long getReferences() {
+		return references;
+	}
+	
+	// 유효 접근 시간(ns): 참조 한 번에 평균적으로 걸린 시간
+	public double getEffectiveAccessTime() {
+		return references == 0 ? 0 : demandNs / references;
+	}
+	
+	// demotion 시간까지 포함한 참조 한 번당 평균 시간(ns)
+	public double getEffectiveAccessTimeWithDemotion() {
+		return references == 0 ? 0 : (demandNs + demotionNs) / references;
+	}
+	
+	public double getDemandNs() {
+		return demandNs;
+	}
+	
+	public double getDemotionNs() {
+		return demotionNs;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ROOT, "References : %d, EAT : %.1f ns (with demotion %.1f ns)%n",
+				references, getEffectiveAccessTime(), getEffectiveAccessTimeWithDemotion()));
+		sb.append("tier,policy,capacity,hits,hit_share,bytes_read,bytes_written,demotions_in,demand_ns_share\n");
+		for (MemoryTier tier : tiers) {
+			sb.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%.4f,%d,%d,%d,%.4f%n",
+					tier.getName(), tier.isBackingStore() ? "-" : tier.getPolicy().getName(), tier.getCapacity(),
+					tier.getHits(), references == 0 ? 0.0 : (double) tier.getHits() / references,
+					tier.getBytesRead(), tier.getBytesWritten(), tier.getDemotionsIn(),
+					demandNs == 0 ? 0.0 : tier.getDemandNs() / demandNs));
+		}
+		return sb.toString();
+	}
+	
+	// "이름:알고리즘:페이지 수:지연(ns):대역폭(GB/s)" 또는 "이름:지연(ns):대역폭(GB/s)"(backing store)를 읽는다.
+	static MemoryTier parseTier(String spec) {
+		String[] parts = spec.split(":");
+		if (parts.length == 3) {
+			return MemoryTier.backingStore(parts[0], Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+		}
+		if (parts.length == 5) {
+			return new MemoryTier(parts[0], PolicyFactory.createOnline(parts[1]), Integer.parseInt(parts[2]),
+					Double.parseDouble(parts[3]), Double.parseDouble(parts[4]));
+		}
+		throw new IllegalArgumentException("계층 형식이 잘못되었습니다: " + spec);
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 4) {
+			System.err.println("사용법: MemoryHierarchy <lackey|block|address> <파일>"
+					+ " <이름:알고리즘:페이지 수:지연(ns):대역폭(GB/s)>... <이름:지연(ns):대역폭(GB/s)>");
+			System.exit(2);
+		}
+		MemoryTier[] tiers = new MemoryTier[args.length - 2];
+		for (int i = 2; i < args.length; ++i) {
+			tiers[i - 2] = parseTier(args[i]);
+		}
+		TraceImporter importer = new TraceImporter(TraceImporter.Format.of(args[0]));
+		int[] pages = importer.importFile(Paths.get(args[1]));
+		
+		MemoryHierarchy hierarchy = new MemoryHierarchy(tiers);
+		hierarchy.setPageSize(importer.getPageSize());
+		hierarchy.reset();
+		hierarchy.accessAll(pages, 0, pages.length);
+		System.out.print(hierarchy);
+	}
+}
@@ -0,0 +1,113 @@
+package PageReplacement;
+
+/**
+ * 메모리 계층 하나(DRAM, 압축 메모리, NVMe swap, 디스크 등)를 나타낸다.
+ * 용량과 교체 정책, 그리고 접근 지연 시간/대역폭으로 이루어진 비용 모델을 가진다.
+ * 정책이 없는 계층은 모든 페이지를 가지고 있는 최하위 저장소(backing store)이다.
+ *
+ * 처리 통계(제공한 페이지 수, 읽고 쓴 바이트 수)는 MemoryHierarchy가 기록한다.
+ */
+
+public class MemoryTier {
+	private final String name; // 계층 이름
+	private final OnlinePolicy policy; // 교체 정책 (backing store는 null)
+	private final double latencyNs; // 접근 한 번의 지연 시간(ns)
+	private final double bandwidth; // 대역폭(GB/s = byte/ns)
+	final LongIntHashMap resident = new LongIntHashMap(); // 이 계층에 적재된 페이지 (정책의 프레임과 같게 유지)
+	
+	long hits; // 이 계층에서 제공한 참조 수
+	long bytesRead; // 위 계층으로 올려 보낸 바이트 수
+	long bytesWritten; // 위 계층에서 내려와 기록된 바이트 수
+	long demotionsIn; // 위 계층에서 내려온 페이지 수
+	double demandNs; // 이 계층이 제공한 참조에 걸린 시간(ns)
+	
+	/**
+	 * 용량이 정해진 계층을 만든다.
+	 * @param name 계층 이름
+	 * @param policy 교체 정책 (프레임 수는 capacity로 설정된다)
+	 * @param capacity 페이지 수
+	 * @param latencyNs 접근 지연 시간(ns)
+	 * @param bandwidth 대역폭(GB/s)
+	 */
+	public MemoryTier(String name, OnlinePolicy policy, int capacity, double latencyNs, double bandwidth) {
+		if (bandwidth <= 0) throw new IllegalArgumentException("대역폭은 양수여야 합니다: " + bandwidth);
+		this.name = name;
+		this.policy = policy;
+		this.latencyNs = latencyNs;
+		this.bandwidth = bandwidth;
+		if (policy != null) policy.setFrameSize(capacity);
+	}
+	
+	/**
+	 * 모든 페이지를 가지고 있는 최하위 저장소를 만든다.
+	 * @param name 계층 이름
+	 * @param latencyNs 접근 지연 시간(ns)
+	 * @param bandwidth 대역폭(GB/s)
+	 */
+	public static MemoryTier backingStore(String name, double latencyNs, double bandwidth) {
+		return new MemoryTier(name, null, 0, latencyNs, bandwidth);
+	}
+	
+	// 최하위 저장소인지 여부
+	public boolean isBackingStore() {
+		return policy == null;
+	}
+	
+	// 페이지 하나를 이 계층에서 옮기는 데 걸리는 시간(ns)
+	public double transferNs(int pageSize) {
+		return latencyNs + pageSize / bandwidth;
+	}
+	
+	// 페이지가 이 계층에 적재되어 있는지 여부 (backing store는 항상 true)
+	public boolean contains(int page) {
+		return policy == null || resident.containsKey(page);
+	}
+	
+	// 정책과 통계를 초기화한다.
+	void reset() {
+		if (policy != null) policy.reset();
+		resident.clear();
+		hits = bytesRead = bytesWritten = demotionsIn = 0;
+		demandNs = 0;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public OnlinePolicy getPolicy() {
+		return policy;
+	}
+	
+	public int getCapacity() {
+		return policy == null ? 0 : policy.getFrameSize();
+	}
+	
+	public double getLatencyNs() {
+		return latencyNs;
+	}
+	
+	public double getBandwidth() {
+		return bandwidth;
+	}
+	
+	public long getHits() {
+		return hits;
+	}
+	
+	public long getBytesRead() {
+		return bytesRead;
+	}
+	
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+	
+	public long getDemotionsIn() {
+		return demotionsIn;
+	}
+	
+	public double getDemandNs() {
+		return demandNs;
+	}
+}
@@ -0,0 +1,301 @@
+package PageReplacement;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * seed로 정해지는 랜덤 참조 문자열을 여러 번 만들어 여러 정책을 실행하고 Fault율을 통계로 모은다.
+ *
+ * - 시행 t의 참조 문자열은 (seed, t)만으로 정해지므로 실행 순서나 스레드 수와 관계없이 같은 결과가 나온다.
+ * - 시행들을 CHUNK_TRIALS개씩 chunk로 나누어 parallelism개 스레드의 pool에서 실행한다.
+ *   각 chunk는 자기 통계를 따로 모으고, 모든 chunk가 끝나면 chunk 순서대로 합친다.
+ *   chunk 경계가 parallelism과 관계없으므로 부동소수점 합치는 순서도 같아 결과가 bit 단위로 같다.
+ * - 개별 결과는 보관하지 않는다. 정책마다 RunningStats(평균, 분산)와 QuantileSketch(분위수)를,
+ *   정책 쌍마다 같은 참조 문자열에서의 Fault율 차이의 RunningStats를 모은다.
+ * - 평균 Fault율로 순위를 매기고, 이웃한 순위의 두 정책이 대응 표본 t 검정(Bonferroni 보정)에서
+ *   유의하게 다른지 보고한다.
+ *
+ * 사용법: java PageReplacement.MonteCarloRunner <알고리즘,...> <프레임 수> <시행 수> <길이> <페이지 수> [seed] [parallelism]
+ * 예: MonteCarloRunner FIFO,LRU,Clock,LPR,Optimal 4 10000 200 10
+ */
+
+public class MonteCarloRunner {
+	private static final int SKETCH_BINS = 1000; // Fault율 분위수 스케치의 구간 수 (오차 0.001 이하)
+	private static final int CHUNK_TRIALS = 256; // chunk 하나의 시행 수
+	
+	private final List<String> policies; // 비교할 알고리즘 이름
+	private int frameSize = 4; // 프레임 수
+	private int trials = 1000; // 시행 수
+	private int length = 100; // 참조 문자열 길이
+	private int pages = 10; // 서로 다른 페이지 수
+	private long seed = 1; // 전체 seed
+	private int parallelism = Runtime.getRuntime().availableProcessors(); // 동시에 실행하는 chunk 수
+	private double confidence = 0.95; // 신뢰구간의 신뢰수준
+	private double alpha = 0.05; // 순위 검정의 유의수준 (보정 전)
+	
+	/**
+	 * @param policies 비교할 알고리즘 이름 (PolicyFactory.NAMES)
+	 */
+	public MonteCarloRunner(List<String> policies) {
+		if (policies.isEmpty()) throw new IllegalArgumentException("알고리즘을 하나 이상 지정해야 합니다.");
+		for (String name : policies) {
+			PolicyFactory.create(name); // 알 수 없는 이름이면 여기서 예외
+		}
+		this.policies = List.copyOf(policies);
+	}
+	
+	public void setFrameSize(int frameSize) {
+		if (frameSize <= 0) throw new IllegalArgumentException("프레임 수는 양수여야 합니다: " + frameSize);
+		this.frameSize = frameSize;
+	}
+	
+	public void setTrials(int trials) {
+		if (trials <= 0) throw new IllegalArgumentException("시행 수는 양수여야 합니다: " + trials);
+		this.trials = trials;
+	}
+	
+	public void setLength(int length) {
+		if (length <= 0) throw new IllegalArgumentException("길이는 양수여야 합니다: " + length);
+		this.length = length;
+	}
+	
+	public void setPages(int pages) {
+		if (pages <= 0) throw new IllegalArgumentException("페이지 수는 양수여야 합니다: " + pages);
+		this.pages = pages;
+	}
+	
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+	
+	public void setParallelism(int parallelism) {
+		if (parallelism <= 0) throw new IllegalArgumentException("병렬도는 양수여야 합니다: " + parallelism);
+		this.parallelism = parallelism;
+	}
+	
+	public void setConfidence(double confidence) {
+		if (!(confidence > 0 && confidence < 1)) throw new IllegalArgumentException("신뢰수준은 0과 1 사이여야 합니다: " + confidence);
+		this.confidence = confidence;
+	}
+	
+	public void setAlpha(double alpha) {
+		if (!(alpha > 0 && alpha < 1)) throw new IllegalArgumentException("유의수준은 0과 1 사이여야 합니다: " + alpha);
+		this.alpha = alpha;
+	}
+	
+	// 시행 번호로 참조 문자열의 seed를 만든다. (SplittableRandom과 같은 섞기 함수)
+	private long trialSeed(int trial) {
+		long z = seed + (trial + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
+	/**
+	 * 모든 시행을 실행하고 통계를 반환한다.
+	 */
+	public Result run() throws InterruptedException {
+		int chunks = (int) (((long) trials + CHUNK_TRIALS - 1) / CHUNK_TRIALS);
+		List<Future<Result>> futures = new ArrayList<>(chunks);
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "MonteCarloRunner");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			for (int c = 0; c < chunks; ++c) {
+				int from = c * CHUNK_TRIALS;
+				int to = (int) Math.min(trials, (long) from + CHUNK_TRIALS);
+				futures.add(executor.submit(() -> runTrials(from, to)));
+			}
+			
+			Result total = new Result();
+			for (Future<Result> future : futures) {
+				try {
+					total.merge(future.get());
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+					if (cause instanceof Error) throw (Error) cause;
+					throw new IllegalStateException(cause);
+				}
+			}
+			return total;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	// from번째부터 to번째 전까지의 시행을 실행한다. (chunk 하나)
+	private Result runTrials(int from, int to) {
+		Result result = new Result();
+		PageReplacementSimulator[] simulators = new PageReplacementSimulator[policies.size()];
+		for (int i = 0; i < simulators.length; ++i) {
+			simulators[i] = new PageReplacementSimulator(PolicyFactory.create(policies.get(i)));
+		}
+		double[] rates = new double[simulators.length];
+		for (int trial = from; trial < to; ++trial) {
+			List<Character> referenceString = ReferenceStringGenerator.generate(trialSeed(trial), length, pages);
+			for (int i = 0; i < simulators.length; ++i) {
+				simulators[i].setReferenceString(referenceString);
+				simulators[i].setFrameSize(frameSize);
+				simulators[i].runSimulator();
+				rates[i] = (double) simulators[i].getFaultCount() / length;
+			}
+			result.add(rates);
+		}
+		return result;
+	}
+	
+	public List<String> getPolicies() {
+		return policies;
+	}
+	
+	/**
+	 * 모든 시행의 Fault율 통계이다.
+	 * 정책 번호는 생성자에 넘긴 알고리즘 이름의 순서이다.
+	 */
+	public final class Result {
+		private final RunningStats[] stats; // 정책별 Fault율
+		private final QuantileSketch[] sketches; // 정책별 Fault율 분위수
+		private final RunningStats[][] differences; // [i][j] (i < j): 같은 참조 문자열에서 정책 i의 Fault율 - 정책 j의 Fault율
+		
+		private Result() {
+			int n = policies.size();
+			stats = new RunningStats[n];
+			sketches = new QuantileSketch[n];
+			differences = new RunningStats[n][n];
+			for (int i = 0; i < n; ++i) {
+				stats[i] = new RunningStats();
+				sketches[i] = new QuantileSketch(0, 1, SKETCH_BINS);
+				for (int j = i + 1; j < n; ++j) {
+					differences[i][j] = new RunningStats();
+				}
+			}
+		}
+		
+		// 시행 하나의 정책별 Fault율을 더한다.
+		private void add(double[] rates) {
+			for (int i = 0; i < rates.length; ++i) {
+				stats[i].add(rates[i]);
+				sketches[i].add(rates[i]);
+				for (int j = i + 1; j < rates.length; ++j) {
+					differences[i][j].add(rates[i] - rates[j]);
+				}
+			}
+		}
+		
+		private void merge(Result other) {
+			for (int i = 0; i < stats.length; ++i) {
+				stats[i].merge(other.stats[i]);
+				sketches[i].merge(other.sketches[i]);
+				for (int j = i + 1; j < stats.length; ++j) {
+					differences[i][j].merge(other.differences[i][j]);
+				}
+			}
+		}
+		
+		public RunningStats getStats(int policy) {
+			return stats[policy];
+		}
+		
+		public QuantileSketch getSketch(int policy) {
+			return sketches[policy];
+		}
+		
+		// 같은 참조 문자열에서의 (정책 a의 Fault율 - 정책 b의 Fault율)의 평균
+		public double meanDifference(int a, int b) {
+			if (a == b) return 0;
+			return a < b ? differences[a][b].getMean() : -differences[b][a].getMean();
+		}
+		
+		// 두 정책의 평균 Fault율이 같다는 가설에 대한 대응 표본 t 검정의 p값
+		public double pValue(int a, int b) {
+			if (a == b) return 1;
+			return differences[Math.min(a, b)][Math.max(a, b)].pValue();
+		}
+		
+		// 평균 Fault율이 낮은 정책부터의 정책 번호 (같으면 먼저 지정한 정책이 앞)
+		public int[] ranking() {
+			Integer[] order = new Integer[stats.length];
+			for (int i = 0; i < order.length; ++i) {
+				order[i] = i;
+			}
+			Arrays.sort(order, Comparator.comparingDouble(i -> stats[i].getMean()));
+			int[] ranking = new int[order.length];
+			for (int i = 0; i < order.length; ++i) {
+				ranking[i] = order[i];
+			}
+			return ranking;
+		}
+		
+		/**
+		 * 순위에서 rank번째와 rank+1번째 정책의 차이가 유의한지 반환한다.
+		 * 이웃한 쌍 (정책 수 - 1)개를 검정하므로 유의수준을 그 수로 나눈다. (Bonferroni 보정)
+		 */
+		public boolean isSignificant(int rank) {
+			int[] ranking = ranking();
+			return pValue(ranking[rank], ranking[rank + 1]) < alpha / Math.max(1, ranking.length - 1);
+		}
+		
+		// 모든 이웃한 쌍이 유의하게 다르면, 즉 순위 전체가 유의하면 true
+		public boolean isRankingSignificant() {
+			for (int rank = 0; rank + 1 < stats.length; ++rank) {
+				if (!isSignificant(rank)) return false;
+			}
+			return true;
+		}
+		
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format(Locale.ROOT, "Trials : %d, Length : %d, Pages : %d, Frames : %d, Seed : %d%n",
+					stats[0].getCount(), length, pages, frameSize, seed));
+			sb.append(String.format(Locale.ROOT, "policy,mean,sd,ci%.0f_low,ci%.0f_high,min,p50,p90,p99,max%n",
+					confidence * 100, confidence * 100));
+			for (int i = 0; i < stats.length; ++i) {
+				RunningStats s = stats[i];
+				double half = s.confidenceHalfWidth(confidence);
+				sb.append(String.format(Locale.ROOT, "%s,%.5f,%.5f,%.5f,%.5f,%.5f,%.4f,%.4f,%.4f,%.5f%n",
+						policies.get(i), s.getMean(), s.getStandardDeviation(), s.getMean() - half, s.getMean() + half,
+						s.getMin(), sketches[i].quantile(0.5), sketches[i].quantile(0.9), sketches[i].quantile(0.99), s.getMax()));
+			}
+			
+			int[] ranking = ranking();
+			sb.append("Ranking :");
+			for (int i = 0; i < ranking.length; ++i) {
+				sb.append(i == 0 ? " " : (isSignificant(i - 1) ? " < " : " ~ ")).append(policies.get(ranking[i]));
+			}
+			sb.append(String.format(Locale.ROOT, "  (paired t-test, alpha=%.3g, Bonferroni over %d pairs)%n",
+					alpha, Math.max(1, ranking.length - 1)));
+			for (int i = 0; i + 1 < ranking.length; ++i) {
+				int a = ranking[i];
+				int b = ranking[i + 1];
+				sb.append(String.format(Locale.ROOT, "  %s - %s : mean diff %.5f, p=%.3g%s%n",
+						policies.get(a), policies.get(b), meanDifference(a, b), pValue(a, b),
+						isSignificant(i) ? " (significant)" : ""));
+			}
+			sb.append("Ranking significant : ").append(isRankingSignificant());
+			return sb.toString();
+		}
+	}
+	
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length < 5) {
+			System.err.println("사용법: MonteCarloRunner <알고리즘,...> <프레임 수> <시행 수> <길이> <페이지 수> [seed] [parallelism]");
+			System.exit(2);
+		}
+		MonteCarloRunner runner = new MonteCarloRunner(Arrays.asList(args[0].split(",")));
+		runner.setFrameSize(Integer.parseInt(args[1]));
+		runner.setTrials(Integer.parseInt(args[2]));
+		runner.setLength(Integer.parseInt(args[3]));
+		runner.setPages(Integer.parseInt(args[4]));
+		if (args.length > 5) runner.setSeed(Long.parseLong(args[5]));
+		if (args.length > 6) runner.setParallelism(Integer.parseInt(args[6]));
+		
+		long start = System.nanoTime();
+		Result result = runner.run();
+		System.out.println(result);
+		System.out.println("Execution time : " + (System.nanoTime() - start) / 1_000_000 + " ms");
+	}
+}
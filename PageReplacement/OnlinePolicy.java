@@ -0,0 +1,49 @@
+package PageReplacement;
+
+/**
+ * 참조 문자열을 미리 받지 않고, 참조가 들어올 때마다 하나씩 처리할 수 있는 페이지 교체 알고리즘이다.
+ * 앞으로의 참조를 알아야 하는 Optimal을 제외한 FIFO, LRU, Clock, LPR이 구현한다.
+ *
+ * access()/accessAll()은 run()/resume()과 같은 내부 상태를 공유하므로
+ * 참조 문자열로 앞부분을 실행한 뒤 실시간 입력으로 이어서 처리할 수도 있다.
+ * 처음부터 실시간 입력만 처리하려면 setFrameSize() 후 reset()을 먼저 호출한다.
+ */
+
+public interface OnlinePolicy extends CheckpointablePolicy {
+	/**
+	 * 페이지 하나를 참조한다.
+	 * @param page 참조할 페이지 번호
+	 * @return 처리 결과 (정책마다 재사용되는 객체)
+	 */
+	AccessResult access(int page);
+	
+	/**
+	 * 여러 페이지를 차례로 참조한다. access()를 반복 호출하는 것과 결과가 같지만
+	 * 측정/이벤트 설정 확인 등 호출마다 드는 비용을 한 번만 지불한다.
+	 * 참조별 결과가 필요하면 ReferenceListener를 사용한다.
+	 * @param pages 참조할 페이지 번호 배열
+	 * @param off 시작 위치
+	 * @param len 참조할 개수
+	 * @return 이 구간에서 발생한 Fault 수 (마지막 참조의 결과는 getLastResult()로 확인)
+	 */
+	int accessAll(int[] pages, int off, int len);
+	
+	AccessResult getLastResult(); // 가장 최근 참조의 처리 결과를 반환한다.
+	
+	/**
+	 * 참조 없이 페이지를 미리 적재한다. (prefetch)
+	 * 교체 대상은 Fault 처리와 같은 규칙으로 고르지만 Hit/Fault 수, 처리 위치, 리스너에는 반영하지 않는다.
+	 * 이미 적재된 페이지면 아무것도 바꾸지 않고 isHit()가 true인 결과를 반환한다.
+	 * @param page 적재할 페이지 번호
+	 * @return 처리 결과 (access()와 같은 객체를 재사용)
+	 */
+	AccessResult prefetch(int page);
+	
+	/**
+	 * 적재된 페이지들을 먼저 교체될 페이지부터(대체로 오래된 순서로) pages에 채운다.
+	 * 이 순서대로 다른 정책에 prefetch()하면 적재된 페이지를 그대로 넘겨받을 수 있다.
+	 * @param pages 페이지를 채울 배열 (길이가 프레임 수 이상이어야 한다)
+	 * @return 적재된 페이지 수
+	 */
+	int getResidentPages(int[] pages);
+}
@@ -1,5 +1,6 @@
 package PageReplacement;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -8,23 +9,26 @@ import java.util.*;
  * 이론적으로 가장 적은 수의 페이지 폴트가 발생한다.
  */
 
-public class OptimalPageReplacement implements PageReplacementPolicy {
+public class OptimalPageReplacement implements CheckpointablePolicy {
 	private List<Character> referenceString; // 페이지 참조 문자열
 	private int frameSize; // 프레임의 개수
 	private List<Frame> frames; // 현재 메모리에 적재된 프레임들
-	private List<Boolean> hitHistory; // 각 참조 시점별 Hit/Fault 여부 기록
-	private int hitCount; // 총 Hit 횟수
-	private int faultCount; // 총 Fault 횟수
-	private List<List<Character>> frameSnapshots; // 각 시점별 프레임 상태 기록
+	private FrameIndex residentPages; // frames의 페이지 번호 (같은 위치, 검색용)
+	private long position; // 지금까지 처리한 참조 수
+	private long hitCount; // 총 Hit 횟수
+	private long faultCount; // 총 Fault 횟수
 	private long executionTime = 0; // 실행 시간 저장 변수
+	private final PolicyMetrics metrics = new PolicyMetrics("Optimal"); // 단계별 측정값
+	private ReferenceListener listener = ReferenceListener.NONE; // 참조 사건을 전달받을 리스너
+	private int[] snapshotBuffer; // 스냅샷 전달용 배열 (재사용)
 	
-	// 현재 시점의 프레임 상태를 복사하여 frameSnapshots에 저장한다.
-	private void recordSnapshot() {
-		List<Character> snapshot = new ArrayList<>();
-		for (Frame frame : frames) {
-			snapshot.add(frame.page);
+	// 현재 시점의 프레임 상태를 리스너에 전달한다.
+	private void recordSnapshot(long time) {
+		int size = frames.size();
+		for (int i = 0; i < size; ++i) {
+			snapshotBuffer[i] = frames.get(i).page;
 		}
-		frameSnapshots.add(snapshot);
+		listener.onSnapshot(time, snapshotBuffer, size);
 	}
 	
 	@Override
@@ -39,34 +43,55 @@ public class OptimalPageReplacement implements PageReplacementPolicy {
 
 	@Override
 	public void run() {
-		long start = System.nanoTime(); // 시작 시간 측정
-		
-		frames = new ArrayList<>();
-		hitHistory = new ArrayList<>();
+		reset();
+		resume();
+	}
+	
+	@Override
+	public void reset() {
+		frames = new ArrayList<>(frameSize);
+		residentPages = new FrameIndex(frameSize);
+		position = 0;
 		hitCount = 0;
 		faultCount = 0;
-		frameSnapshots = new ArrayList<>();
+		metrics.reset();
+	}
+	
+	@Override
+	public void resume() {
+		resume(referenceString.size());
+	}
+	
+	@Override
+	public void resume(long end) {
+		long start = System.nanoTime(); // 시작 시간 측정
+		
+		int last = (int) Math.min(end, referenceString.size()); // 이번에 처리할 마지막 위치(미포함)
+		snapshotBuffer = new int[frameSize];
+		boolean snapshots = listener.wantsSnapshots(); // 스냅샷이 필요할 때만 만든다.
+		boolean measure = PolicyMetrics.isEnabled(); // 실행 중에는 측정 여부를 다시 읽지 않는다.
+		boolean recordFaults = PageFaultEvent.isRecording(); // JFR Fault 이벤트 기록 여부
+		boolean timed = measure || recordFaults; // 교체 대상 선택 시간을 잴지 여부
+		long t0 = 0;
 		
-		for (int i = 0; i < referenceString.size(); ++i) {
-			char page = referenceString.get(i);
+		for (int i = (int) position; i < last; ++i) {
+			int page = referenceString.get(i);
 			boolean hit = false;
 			
+			if (measure) t0 = System.nanoTime();
 			// 현재 프레임에 페이지가 이미 있는지 확인
-			for (Frame frame : frames) {
-				if (frame.page == page) {
-					hit = true;
-					break;
-				}
-			}
+			hit = residentPages.contains(page);
+			if (measure) metrics.record(PolicyMetrics.Phase.HIT_LOOKUP, System.nanoTime() - t0);
 			
 			if (hit) {
 				hitCount++;
-				hitHistory.add(true);
+				listener.onHit(i, page);
 			} else {
 				faultCount++;
-				hitHistory.add(false);
+				listener.onFault(i, page);
 				
 				if (frames.size() == frameSize) {
+					if (timed) t0 = System.nanoTime();
 					int farthestIndex = -1; // 가장 나중에 사용될 시점
 					int farthestFrameIndex = 0; // 교체할 프레임의 index
 					
@@ -87,33 +112,80 @@ public class OptimalPageReplacement implements PageReplacementPolicy {
 						}
 					}
 					
+					long cost = timed ? System.nanoTime() - t0 : 0;
+					if (measure) metrics.record(PolicyMetrics.Phase.VICTIM_SELECTION, cost);
+					Frame victim = frames.get(farthestFrameIndex);
+					listener.onEviction(i, victim.page, page);
+					if (recordFaults) PageFaultEvent.sample(getName(), faultCount, i, victim.page, page, cost);
+					
 					// 해당 프레임 위치에 새로운 페이지로 교체
-					frames.set(farthestFrameIndex, new Frame(page));
+					victim.set(page);
+					residentPages.set(farthestFrameIndex, page);
 				} else {
 					// 아직 프레임이 덜 찼으면 그냥 추가
-					frames.add(new Frame(page)); 
+					frames.add(new Frame(page));
+					residentPages.add(page);
+					if (recordFaults) PageFaultEvent.sample(getName(), faultCount, i, -1, page, 0);
 				}
 			}
-			recordSnapshot();
+			if (snapshots) {
+				if (measure) t0 = System.nanoTime();
+				recordSnapshot(i);
+				if (measure) metrics.record(PolicyMetrics.Phase.SNAPSHOT, System.nanoTime() - t0);
+			}
+			if (measure) metrics.countReference();
 		}
 		
-		long end = System.nanoTime(); // 종료 시간 측정
-		executionTime = (end - start) / 1_000;
+		position = Math.max(position, last);
+		
+		executionTime = (System.nanoTime() - start) / 1_000;
 	}
-
+	
 	@Override
-	public int getHitCount() {
-		return hitCount;
+	public int getFrameSize() {
+		return frameSize;
+	}
+	
+	@Override
+	public long getPosition() {
+		return position;
+	}
+	
+	// 처리 위치, Hit/Fault 수, 프레임을 기록한다. 앞으로의 참조는 참조 문자열에서 다시 읽으므로 저장하지 않는다.
+	@Override
+	public void writeState(PolicyCheckpoint.Output out) throws IOException {
+		out.writeLong(position);
+		out.writeLong(hitCount);
+		out.writeLong(faultCount);
+		out.writeInt(frames.size());
+		for (int i = 0; i < frames.size(); ++i) {
+			out.writeInt(frames.get(i).page);
+		}
+	}
+	
+	@Override
+	public void readState(PolicyCheckpoint.Input in) throws IOException {
+		position = in.readLong();
+		hitCount = in.readLong();
+		faultCount = in.readLong();
+		int size = in.readInt();
+		frames = new ArrayList<>(frameSize);
+		residentPages = new FrameIndex(frameSize);
+		for (int i = 0; i < size; ++i) {
+			int page = in.readInt();
+			frames.add(new Frame(page));
+			residentPages.add(page);
+		}
 	}
 
 	@Override
-	public int getFaultCount() {
-		return faultCount;
+	public long getHitCount() {
+		return hitCount;
 	}
 
 	@Override
-	public List<Boolean> getHitHistory() {
-		return hitHistory;
+	public long getFaultCount() {
+		return faultCount;
 	}
 
 	@Override
@@ -122,12 +194,17 @@ public class OptimalPageReplacement implements PageReplacementPolicy {
 	}
 
 	@Override
-	public List<List<Character>> getFrameSnapshots() {
-		return frameSnapshots;
+	public void setReferenceListener(ReferenceListener listener) {
+		this.listener = (listener == null) ? ReferenceListener.NONE : listener;
 	}
 
 	@Override
 	public long getExecutionTime() {
 		return executionTime;
 	}
+
+	@Override
+	public PolicyMetrics getMetrics() {
+		return metrics;
+	}
 }
@@ -0,0 +1,60 @@
+package PageReplacement;
+
+import jdk.jfr.*;
+
+/**
+ * 샘플링된 Page Fault(교체 포함)를 나타내는 JFR 이벤트이다.
+ * 모든 Fault를 기록하면 이벤트 비용이 알고리즘 비용보다 커지므로
+ * SAMPLE_INTERVAL번째 Fault마다 하나씩만 기록한다. (-Dpagereplacement.jfr.faultSampling=N)
+ * 정책은 isRecording()을 Fault마다 확인하지 않고 PolicyMetrics.isEnabled()와 같은 시점에 다시 읽어 두므로
+ * (reset(), resume(), accessAll(), readState(), access() 4096번마다, Optimal은 run() 시작 시)
+ * 기록이 꺼져 있으면 Fault마다 분기 하나 외의 비용은 없다. 기록을 켜면 그 다음 시점부터 반영된다.
+ */
+
+@Name("PageReplacement.PageFault")
+@Label("Page Fault")
+@Category("Page Replacement")
+@Description("Sampled page fault with the evicted victim and the cost of selecting it")
+@StackTrace(false)
+public class PageFaultEvent extends Event {
+	// 몇 번째 Fault마다 이벤트를 기록할지
+	static final int SAMPLE_INTERVAL = Math.max(1, Integer.getInteger("pagereplacement.jfr.faultSampling", 64));
+	
+	private static final EventType TYPE = EventType.getEventType(PageFaultEvent.class);
+	
+	@Label("Policy")
+	String policy; // 알고리즘 이름
+	
+	@Label("Reference Index")
+	long time; // 참조 위치
+	
+	@Label("Victim Page")
+	int victimPage; // 교체되어 나간 페이지, 빈 프레임에 적재된 경우 -1
+	
+	@Label("Inserted Page")
+	int insertedPage; // 새로 적재된 페이지
+	
+	@Label("Victim Selection Cost")
+	@Timespan(Timespan.NANOSECONDS)
+	long selectionCost; // 교체 대상 선택에 걸린 시간
+	
+	// 현재 이 이벤트가 기록되고 있는지 반환한다.
+	static boolean isRecording() {
+		return TYPE.isEnabled();
+	}
+	
+	/**
+	 * faultCount가 샘플링 주기에 해당하면 이벤트를 기록한다.
+	 * @param faultCount 지금까지의 Fault 횟수(이번 Fault 포함)
+	 */
+	static void sample(String policy, long faultCount, long time, int victimPage, int insertedPage, long selectionCost) {
+		if (faultCount % SAMPLE_INTERVAL != 0) return;
+		PageFaultEvent event = new PageFaultEvent();
+		event.policy = policy;
+		event.time = time;
+		event.victimPage = victimPage;
+		event.insertedPage = insertedPage;
+		event.selectionCost = selectionCost;
+		event.commit();
+	}
+}
@@ -11,10 +11,15 @@ public interface PageReplacementPolicy {
 	void setReferenceString(List<Character> referenceString); // 참조 문자열을 설정한다.
 	void setFrameSize(int frameSize); // 프레임의 개수를 설정한다.
 	void run(); // 페이지 교체 알고리즘을 실행한다.
-	int getHitCount(); // Page Hit의 총 개수를 반환한다.
-	int getFaultCount(); // Page Fault의 총 개수를 반환한다.
-	List<Boolean> getHitHistory(); // 각 시점마다 페이지 참조가 Hit였는지 Fault였는지 기록을 반환한다.
+	long getHitCount(); // Page Hit의 총 개수를 반환한다.
+	long getFaultCount(); // Page Fault의 총 개수를 반환한다.
 	String getName(); // 알고리즘의 이름을 반환한다.
-	List<List<Character>> getFrameSnapshots(); // 알고리즘 실행 과정에서 매 시점마다 프레임 상태를 리스트로 반환한다.
+	void setReferenceListener(ReferenceListener listener); // 매 참조의 Hit/Fault/교체를 전달받을 리스너를 설정한다. (기본값 NONE)
 	long getExecutionTime(); // 알고리즘 실행에 걸린 시간
+	PolicyMetrics getMetrics(); // 단계별 소요 시간과 카운터 (PolicyMetrics.setEnabled(true)일 때만 수집)
+	
+	// 알고리즘의 버전. 같은 입력에 대한 결과가 달라지도록 동작을 바꾸면 올려서 ResultCache에 저장된 결과를 무효화한다.
+	default int getVersion() {
+		return 1;
+	}
 }
@@ -1,5 +1,7 @@
 package PageReplacement;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
@@ -11,8 +13,14 @@ public class PageReplacementSimulator {
 	private PageReplacementPolicy policy; // 사용할 페이지 교체 정책
 	private List<Character> referenceString; // 참조 문자열
 	private int frameSize; // 프레임의 수
-	private List<List<Frame>> frameSnapshots = new ArrayList<>(); // 시점별 프레임 상태
 	private long executionTime; // 알고리즘 실행에 걸린 시간
+	private ReferenceListener listener = ReferenceListener.NONE; // 정책에 설정한 리스너
+	private ResultCache resultCache; // 결과 캐시 (null이면 사용하지 않음)
+	private long traceHash; // 참조 문자열 해시 (traceHashed가 true일 때만 유효)
+	private boolean traceHashed;
+	private long hitCount; // 마지막 실행의 Hit 수
+	private long faultCount; // 마지막 실행의 Fault 수
+	private boolean cached; // 마지막 실행 결과를 캐시에서 가져왔는지 여부
 	
 	// 생성자: 실행할 페이지 교체 알고리즘을 설정한다.
 	public PageReplacementSimulator(PageReplacementPolicy policy) {
@@ -22,6 +30,7 @@ public class PageReplacementSimulator {
 	// 참조 문자열을 설정하고, 해당 정책에도 참조 문자열을 설정한다.
 	public void setReferenceString(List<Character> referenceString) {
 		this.referenceString = referenceString;
+		this.traceHashed = false;
 		policy.setReferenceString(referenceString);
 	}
 	
@@ -31,11 +40,141 @@ public class PageReplacementSimulator {
 		policy.setFrameSize(frameSize);
 	}
 	
+	// 매 참조의 Hit/Fault/교체를 전달받을 리스너를 정책에 설정한다.
+	// 설정하지 않으면 총 Hit/Fault 수만 집계된다.
+	public void setReferenceListener(ReferenceListener listener) {
+		this.listener = listener;
+		policy.setReferenceListener(listener);
+	}
+	
+	// 결과 캐시를 설정한다. 리스너가 없거나 HitBitmapRecorder일 때만 사용되며,
+	// 캐시에서 결과를 가져오면 정책을 실행하지 않으므로 결과는 이 클래스의 getHitCount()/getFaultCount()로 읽는다.
+	public void setResultCache(ResultCache resultCache) {
+		this.resultCache = resultCache;
+	}
+	
 	// 시뮬레이터 실행: 실제 정책 알고리즘의 run()의 메서드를 호출한다.
+	// JFR 기록 중이면 실행 구간을 PolicyRunEvent로 남긴다.
 	public void runSimulator() {
+		boolean cacheable = resultCache != null
+				&& (listener == ReferenceListener.NONE || listener instanceof HitBitmapRecorder);
+		String key = null;
+		if (cacheable) {
+			if (!traceHashed) {
+				traceHash = ResultCache.hash(referenceString);
+				traceHashed = true;
+			}
+			key = ResultCache.key(traceHash, referenceString.size(), policy, frameSize);
+			ResultCache.Result result = resultCache.get(key, listener != ReferenceListener.NONE);
+			if (result != null) {
+				if (listener instanceof HitBitmapRecorder) {
+					((HitBitmapRecorder) listener).load(result.getHistory(), result.getHistoryLength());
+				}
+				hitCount = result.getHitCount();
+				faultCount = result.getFaultCount();
+				executionTime = result.getExecutionTime();
+				cached = true;
+				return;
+			}
+		}
+		
+		// 이전 실행(다른 프레임 수, 캐시에서 불러온 결과)의 Hit 기록이 섞이지 않도록 비운다.
+		if (listener instanceof HitBitmapRecorder) ((HitBitmapRecorder) listener).clear();
+		PolicyRunEvent event = new PolicyRunEvent();
+		event.begin();
 		policy.run();
+		event.end();
+		if (event.shouldCommit()) {
+			event.policy = policy.getName();
+			event.frameSize = frameSize;
+			event.traceLength = referenceString.size();
+			event.hits = policy.getHitCount();
+			event.faults = policy.getFaultCount();
+			event.commit();
+		}
+		hitCount = policy.getHitCount();
+		faultCount = policy.getFaultCount();
+		executionTime = policy.getExecutionTime();
+		cached = false;
+		
+		if (cacheable) {
+			long[] history = null;
+			int historyLength = 0;
+			if (listener instanceof HitBitmapRecorder) {
+				HitBitmapRecorder recorder = (HitBitmapRecorder) listener;
+				history = recorder.toLongArray();
+				historyLength = recorder.length();
+			}
+			resultCache.put(key, new ResultCache.Result(hitCount, faultCount, executionTime, history, historyLength));
+		}
+	}
+	
+	/**
+	 * 같은 참조 문자열에 대해 여러 프레임 수로 정책을 차례로 실행한다.
+	 * 실행이 끝나면 프레임 수는 마지막 값으로 남는다.
+	 * @param frameSizes 실행할 프레임 수 목록
+	 * @return 각 프레임 수에 대한 Fault 횟수 (frameSizes와 같은 순서)
+	 */
+	public long[] runSweep(int[] frameSizes) {
+		try {
+			return runSweep(frameSizes, null);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); // out이 없으므로 발생하지 않는다.
+		}
+	}
+	
+	/**
+	 * runSweep(frameSizes)와 같고, 프레임 수 하나의 실행이 끝날 때마다 결과를 한 행씩 out에 기록한다.
+	 * @param out sweepColumns()와 같은 열로 만든 TableWriter (null이면 기록하지 않는다)
+	 */
+	public long[] runSweep(int[] frameSizes, TableWriter out) throws IOException {
+		SweepBatchEvent batch = new SweepBatchEvent();
+		batch.begin();
+		long[] faults = new long[frameSizes.length];
+		long totalFaults = 0;
+		int minFrameSize = Integer.MAX_VALUE;
+		int maxFrameSize = 0;
+		for (int i = 0; i < frameSizes.length; ++i) {
+			setFrameSize(frameSizes[i]);
+			runSimulator();
+			faults[i] = faultCount;
+			totalFaults += faults[i];
+			if (out != null) {
+				out.writeInt(frameSizes[i]);
+				out.writeLong(hitCount);
+				out.writeLong(faultCount);
+				out.writeDouble(hitCount + faultCount == 0 ? 0 : (double) faultCount / (hitCount + faultCount));
+				out.writeLong(executionTime);
+				out.writeByte(cached ? 1 : 0);
+				out.endRow();
+			}
+			minFrameSize = Math.min(minFrameSize, frameSizes[i]);
+			maxFrameSize = Math.max(maxFrameSize, frameSizes[i]);
+		}
+		batch.end();
+		if (batch.shouldCommit()) {
+			batch.policy = policy.getName();
+			batch.runs = frameSizes.length;
+			batch.minFrameSize = minFrameSize;
+			batch.maxFrameSize = maxFrameSize;
+			batch.traceLength = referenceString.size();
+			batch.totalFaults = totalFaults;
+			batch.commit();
+		}
+		return faults;
 	}
 
+	// sweep 결과의 열 목록 (frames, hits, faults, fault_rate, time_us, cached)
+	public static TableWriter.Column[] sweepColumns() {
+		return new TableWriter.Column[] {
+				new TableWriter.Column("frames", TableWriter.Type.INT),
+				new TableWriter.Column("hits", TableWriter.Type.LONG),
+				new TableWriter.Column("faults", TableWriter.Type.LONG),
+				new TableWriter.Column("fault_rate", TableWriter.Type.DOUBLE),
+				new TableWriter.Column("time_us", TableWriter.Type.LONG),
+				new TableWriter.Column("cached", TableWriter.Type.BYTE) };
+	}
+	
 	// 현재 설정된 페이지 교체 정책 객체를 반환한다.
 	public PageReplacementPolicy getPolicy() {
 		return policy;
@@ -50,7 +189,27 @@ public class PageReplacementSimulator {
 		
 		return sb.toString();
 	}
-
+	
+	// 마지막 실행의 Hit 수 (캐시에서 가져온 결과 포함)
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	// 마지막 실행의 Fault 수 (캐시에서 가져온 결과 포함)
+	public long getFaultCount() {
+		return faultCount;
+	}
+	
+	// 마지막 실행에 걸린 시간(µs). 캐시에서 가져온 결과면 처음 실행했을 때의 시간이다.
+	public long getExecutionTime() {
+		return executionTime;
+	}
+	
+	// 마지막 실행 결과를 캐시에서 가져왔는지 여부
+	public boolean isCached() {
+		return cached;
+	}
+	
 	// 현재 설정된 프레임의 수를 반환한다.
 	public int getFrameSize() {
 		return frameSize;
@@ -0,0 +1,336 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * 실행 중에 시간에 따른 지표를 계산하여 일정 간격마다 표본으로 남기는 리스너이다.
+ * 총 Hit/Fault 수로는 보이지 않는 단계(phase)별 동작을 보기 위해 사용한다.
+ *
+ * - 최근 window개 참조의 Fault율
+ * - Denning의 working set 크기 W(t, τ): (t - τ, t] 구간에서 참조된 서로 다른 페이지 수 (τ는 여러 개 지정 가능)
+ * - 단계 변화: 참조를 window개씩 끊어 볼 때, 한 구간에서 참조된 페이지 중 바로 앞 구간에서 참조되지 않은 페이지의
+ *   비율(novelty)이 threshold 이상으로 올라가면 그 구간이 시작된 시점을 단계 변화로 기록한다.
+ *
+ * 페이지별 마지막 참조 시점 하나와 길이 window, max(τ)인 원형 버퍼만 사용하므로
+ * 참조 하나의 처리 비용은 해시 조회 한 번과 τ 개수에 비례하는 배열 접근이다. (페이지별 기록은 서로 다른 페이지 수만큼 늘어난다)
+ * 표본은 sampleInterval개 참조마다 하나씩 기본형 배열에 모으며, 처음 Integer.MAX_VALUE개의 참조까지만 기록한다.
+ * setOutput()으로 TableWriter를 지정하면 표본을 배열에 모으지 않고 바로 내보낸다.
+ *
+ * 사용법: java PageReplacement.PhaseAnalyzer <lackey|block|address> <파일> <FIFO|LRU|Clock|LPR> <프레임 수>
+ *         [window] [τ,...]
+ */
+
+public class PhaseAnalyzer implements ReferenceListener {
+	private final int window; // Fault율 구간이자 단계 변화를 판단하는 구간의 길이
+	private final int sampleInterval; // 표본 간격 (참조 수)
+	private final int[] taus; // working set 구간 길이들
+	private final double threshold; // 단계 변화로 볼 novelty의 하한
+	
+	// Fault율
+	private final boolean[] faultWindow; // 최근 window개 참조의 Fault 여부 (원형 버퍼)
+	private int windowFaults; // faultWindow 안의 Fault 수
+	
+	// working set
+	private final boolean[] superseded; // 최근 max(τ)개 참조 각각이 그 뒤에 같은 페이지로 다시 참조되었는지 (원형 버퍼)
+	private final int[] workingSet; // τ별 W(t, τ)
+	private LongIntHashMap lastUse = new LongIntHashMap(); // 페이지 -> 마지막 참조 시점
+	
+	// 단계 변화
+	private int intervalStart; // 현재 구간의 시작 시점
+	private int distinct; // 현재 구간에서 참조된 서로 다른 페이지 수
+	private int carried; // 그중 바로 앞 구간에서도 참조된 페이지 수
+	private double novelty; // 마지막으로 끝난 구간의 novelty
+	private boolean high = true; // 마지막으로 끝난 구간의 novelty가 threshold 이상이었는지 (첫 구간은 이상으로 본다)
+	private int[] phaseChanges = new int[16]; // 단계 변화 시점들
+	private int phaseChangeCount;
+	
+	// 표본
+	private int samples; // 표본 수
+	private int[] sampleTimes = new int[64]; // 표본을 남긴 시점 (그 시점의 참조까지 반영)
+	private float[] faultRates = new float[64];
+	private int[] workingSets; // 표본 i의 τ k번째 값은 [i * taus.length + k]
+	private float[] novelties = new float[64];
+	private int[] phases = new int[64]; // 표본 시점까지 감지한 단계 변화 수
+	private TableWriter output; // 표본을 내보낼 곳 (null이면 배열에 모은다)
+	
+	private int references; // 처리한 참조 수
+	
+	/**
+	 * @param window Fault율 구간이자 단계 변화를 판단하는 구간의 길이
+	 * @param sampleInterval 표본 간격 (1이면 참조마다 표본을 남긴다)
+	 * @param taus working set 구간 길이들
+	 */
+	public PhaseAnalyzer(int window, int sampleInterval, int... taus) {
+		this(window, sampleInterval, 0.5, taus);
+	}
+	
+	/**
+	 * @param threshold 단계 변화로 볼 novelty의 하한 (0 ~ 1)
+	 */
+	public PhaseAnalyzer(int window, int sampleInterval, double threshold, int... taus) {
+		if (window <= 0) throw new IllegalArgumentException("구간 길이는 양수여야 합니다: " + window);
+		if (sampleInterval <= 0) throw new IllegalArgumentException("표본 간격은 양수여야 합니다: " + sampleInterval);
+		if (!(threshold > 0 && threshold <= 1)) throw new IllegalArgumentException("threshold는 0보다 크고 1 이하여야 합니다: " + threshold);
+		if (taus.length == 0) throw new IllegalArgumentException("τ를 하나 이상 지정해야 합니다.");
+		int maxTau = 0;
+		for (int tau : taus) {
+			if (tau <= 0) throw new IllegalArgumentException("τ는 양수여야 합니다: " + tau);
+			maxTau = Math.max(maxTau, tau);
+		}
+		this.window = window;
+		this.sampleInterval = sampleInterval;
+		this.threshold = threshold;
+		this.taus = taus.clone();
+		this.faultWindow = new boolean[window];
+		this.superseded = new boolean[maxTau];
+		this.workingSet = new int[taus.length];
+		this.workingSets = new int[64 * taus.length];
+	}
+	
+	@Override
+	public void onHit(long time, int page) {
+		reference(page, false);
+	}
+	
+	@Override
+	public void onFault(long time, int page) {
+		reference(page, true);
+	}
+	
+	@Override
+	public void onEviction(long time, int victim, int page) {
+	}
+	
+	// 참조 하나를 반영한다. 시점은 리스너가 받은 참조 수로 센다.
+	private void reference(int page, boolean fault) {
+		if (references == Integer.MAX_VALUE) return;
+		int t = references;
+		
+		// 최근 window개 참조의 Fault 수
+		int slot = t % window;
+		if (t >= window && faultWindow[slot]) windowFaults--;
+		faultWindow[slot] = fault;
+		if (fault) windowFaults++;
+		
+		// W(t, τ): t - τ 시점의 참조가 구간을 벗어나고, 이번 참조가 구간에 들어온다.
+		int previous = lastUse.get(page, -1);
+		for (int k = 0; k < taus.length; ++k) {
+			int out = t - taus[k];
+			if (out >= 0 && !superseded[out % superseded.length]) {
+				workingSet[k]--; // 벗어난 페이지가 그 뒤로 참조되지 않았다.
+			}
+			if (previous < 0 || previous <= out) workingSet[k]++; // 이번 페이지는 구간 안에 없었다.
+		}
+		if (previous >= 0 && previous > t - superseded.length) superseded[previous % superseded.length] = true;
+		superseded[t % superseded.length] = false;
+		lastUse.put(page, t);
+		
+		// 현재 구간에서 처음 참조된 페이지면 바로 앞 구간에서도 참조되었는지 센다.
+		if (previous < intervalStart) {
+			distinct++;
+			if (previous >= 0 && previous >= intervalStart - window) carried++;
+		}
+		
+		references++;
+		if (references - intervalStart == window) endInterval();
+		if (references % sampleInterval == 0) sample();
+	}
+	
+	// 구간 하나가 끝났을 때 novelty를 계산하고, 낮았던 novelty가 threshold 이상으로 오르면 단계 변화로 기록한다.
+	private void endInterval() {
+		novelty = distinct == 0 ? 0 : 1 - (double) carried / distinct;
+		boolean nowHigh = novelty >= threshold;
+		if (nowHigh && !high) {
+			if (phaseChangeCount == phaseChanges.length) phaseChanges = Arrays.copyOf(phaseChanges, phaseChangeCount * 2);
+			phaseChanges[phaseChangeCount++] = intervalStart;
+		}
+		high = nowHigh;
+		intervalStart = references;
+		distinct = 0;
+		carried = 0;
+	}
+	
+	// 현재 지표를 표본으로 남긴다.
+	private void sample() {
+		if (output != null) {
+			try {
+				output.writeInt(references - 1);
+				output.writeDouble((double) windowFaults / Math.min(references, window));
+				for (int size : workingSet) {
+					output.writeInt(size);
+				}
+				output.writeDouble(novelty);
+				output.writeInt(phaseChangeCount);
+				output.endRow();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return;
+		}
+		if (samples == sampleTimes.length) {
+			int capacity = samples * 2;
+			sampleTimes = Arrays.copyOf(sampleTimes, capacity);
+			faultRates = Arrays.copyOf(faultRates, capacity);
+			workingSets = Arrays.copyOf(workingSets, capacity * taus.length);
+			novelties = Arrays.copyOf(novelties, capacity);
+			phases = Arrays.copyOf(phases, capacity);
+		}
+		sampleTimes[samples] = references - 1;
+		faultRates[samples] = (float) windowFaults / Math.min(references, window);
+		System.arraycopy(workingSet, 0, workingSets, samples * taus.length, taus.length);
+		novelties[samples] = (float) novelty;
+		phases[samples] = phaseChangeCount;
+		samples++;
+	}
+	
+	/**
+	 * 표본을 배열에 모으는 대신 out으로 바로 내보낸다. (null이면 다시 배열에 모은다)
+	 * out은 getColumns()와 같은 열로 만들어져 있어야 하며, 쓰기에 실패하면 UncheckedIOException을 던진다.
+	 */
+	public void setOutput(TableWriter output) {
+		this.output = output;
+	}
+	
+	// 내보내는 표본의 열 목록 (time, fault_rate, ws_τ..., novelty, phase)
+	public TableWriter.Column[] getColumns() {
+		TableWriter.Column[] columns = new TableWriter.Column[taus.length + 4];
+		columns[0] = new TableWriter.Column("time", TableWriter.Type.INT);
+		columns[1] = new TableWriter.Column("fault_rate", TableWriter.Type.DOUBLE);
+		for (int k = 0; k < taus.length; ++k) {
+			columns[2 + k] = new TableWriter.Column("ws_" + taus[k], TableWriter.Type.INT);
+		}
+		columns[taus.length + 2] = new TableWriter.Column("novelty", TableWriter.Type.DOUBLE);
+		columns[taus.length + 3] = new TableWriter.Column("phase", TableWriter.Type.INT);
+		return columns;
+	}
+	
+	// 기록을 모두 지운다. 같은 리스너로 다시 실행할 때 사용한다.
+	public void clear() {
+		Arrays.fill(faultWindow, false);
+		windowFaults = 0;
+		Arrays.fill(workingSet, 0);
+		Arrays.fill(superseded, false);
+		lastUse = new LongIntHashMap();
+		intervalStart = 0;
+		distinct = 0;
+		carried = 0;
+		novelty = 0;
+		high = true;
+		phaseChangeCount = 0;
+		samples = 0;
+		references = 0;
+	}
+	
+	public int getWindow() {
+		return window;
+	}
+	
+	public int getSampleInterval() {
+		return sampleInterval;
+	}
+	
+	public int[] getTaus() {
+		return taus.clone();
+	}
+	
+	public int getReferences() {
+		return references;
+	}
+	
+	// 표본 수
+	public int getSampleCount() {
+		return samples;
+	}
+	
+	// 표본 i를 남긴 시점 (0부터 센 참조 위치)
+	public int getSampleTime(int i) {
+		return sampleTimes[i];
+	}
+	
+	// 표본 i 시점까지 최근 window개 참조의 Fault율
+	public double getFaultRate(int i) {
+		return faultRates[i];
+	}
+	
+	// 표본 i 시점의 W(t, taus[k])
+	public int getWorkingSetSize(int i, int k) {
+		return workingSets[i * taus.length + k];
+	}
+	
+	// 표본 i 시점에 마지막으로 끝난 구간의 novelty
+	public double getNovelty(int i) {
+		return novelties[i];
+	}
+	
+	// 표본 i 시점까지 감지한 단계 변화 수 (단계 번호)
+	public int getPhase(int i) {
+		return phases[i];
+	}
+	
+	public int getPhaseChangeCount() {
+		return phaseChangeCount;
+	}
+	
+	// j번째 단계 변화가 시작된 시점 (구간의 시작이므로 감지는 window개 참조 뒤에 된다)
+	public int getPhaseChangeTime(int j) {
+		return phaseChanges[j];
+	}
+	
+	// time 시점에서 새 단계가 시작되었는지 여부
+	public boolean isPhaseChange(int time) {
+		return Arrays.binarySearch(phaseChanges, 0, phaseChangeCount, time) >= 0;
+	}
+	
+	// 표본을 CSV로 기록한다. (time,fault_rate,ws_τ...,novelty,phase)
+	public void writeCsv(Appendable out) throws IOException {
+		out.append("time,fault_rate");
+		for (int tau : taus) {
+			out.append(",ws_").append(String.valueOf(tau));
+		}
+		out.append(",novelty,phase\n");
+		for (int i = 0; i < samples; ++i) {
+			out.append(String.valueOf(sampleTimes[i])).append(',')
+					.append(String.format(Locale.ROOT, "%.4f", faultRates[i]));
+			for (int k = 0; k < taus.length; ++k) {
+				out.append(',').append(String.valueOf(getWorkingSetSize(i, k)));
+			}
+			out.append(',').append(String.format(Locale.ROOT, "%.3f", novelties[i]))
+					.append(',').append(String.valueOf(phases[i])).append('\n');
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 4) {
+			System.err.println("사용법: PhaseAnalyzer <lackey|block|address> <파일> <FIFO|LRU|Clock|LPR> <프레임 수> [window] [τ,...]");
+			System.exit(2);
+		}
+		int frames = Integer.parseInt(args[3]);
+		int window = args.length > 4 ? Integer.parseInt(args[4]) : 10_000;
+		int[] taus;
+		if (args.length > 5) {
+			taus = Arrays.stream(args[5].split(",")).mapToInt(Integer::parseInt).toArray();
+		} else {
+			taus = new int[] { window / 10, window, window * 10 };
+		}
+		
+		OnlinePolicy policy = PolicyFactory.createOnline(args[2]);
+		policy.setFrameSize(frames);
+		PhaseAnalyzer analyzer = new PhaseAnalyzer(window, window, taus);
+		policy.setReferenceListener(analyzer);
+		policy.reset();
+		new TraceImporter(TraceImporter.Format.of(args[0])).feed(Paths.get(args[1]), policy);
+		
+		StringBuilder sb = new StringBuilder();
+		analyzer.writeCsv(sb);
+		System.out.print(sb);
+		System.out.print("Phase changes :");
+		for (int j = 0; j < analyzer.getPhaseChangeCount(); ++j) {
+			System.out.print(" " + analyzer.getPhaseChangeTime(j));
+		}
+		System.out.println();
+		System.out.println(policy.getName() + " Hit : " + policy.getHitCount() + ", Fault : " + policy.getFaultCount());
+	}
+}
@@ -0,0 +1,250 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/**
+ * CheckpointablePolicy의 내부 상태를 이진 파일로 저장하고 복원한다.
+ *
+ * 파일 구조 (모두 big-endian)
+ * - magic "PRCP"(int), 형식 버전(short)
+ * - 정책 이름 (길이 short + UTF-8 바이트), 프레임 수(int)
+ * - 정책 상태 (writeState()가 기록한 내용: 처리한 참조 수, Hit/Fault 수, 프레임 및 알고리즘 고유 상태)
+ * - 위 내용 전체의 CRC32 (int)
+ *
+ * 복원한 정책을 resume()으로 이어서 실행하면 중단 없이 실행한 것과 Hit/Fault 및 교체 순서가 완전히 같다.
+ * 파일은 FileChannel과 고정 크기 버퍼를 통해 순차적으로 읽고 쓰므로 상태 크기와 관계없이 메모리를 적게 사용한다.
+ */
+
+public final class PolicyCheckpoint {
+	private static final int MAGIC = 0x50524350; // "PRCP"
+	private static final short FORMAT_VERSION = 2; // 2: 페이지 번호를 int, 위치와 Hit/Fault 수를 long으로 기록
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private PolicyCheckpoint() {
+	}
+	
+	/**
+	 * 정책의 현재 상태를 파일로 저장한다. 임시 파일에 먼저 쓴 뒤 이름을 바꾸므로
+	 * 저장 도중 중단되어도 기존 체크포인트 파일은 손상되지 않는다.
+	 * @param policy 저장할 정책
+	 * @param file 저장할 파일 경로
+	 */
+	public static void save(CheckpointablePolicy policy, Path file) throws IOException {
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			Output out = new Output(channel);
+			out.writeInt(MAGIC);
+			out.writeShort(FORMAT_VERSION);
+			out.writeString(policy.getName());
+			out.writeInt(policy.getFrameSize());
+			policy.writeState(out);
+			out.finish();
+			channel.force(false);
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
+	/**
+	 * 파일에 저장된 상태를 정책에 복원한다.
+	 * 정책 이름과 프레임 수가 저장 당시와 같아야 한다.
+	 * 참조 문자열은 복원되지 않으므로 호출하는 쪽에서 먼저 setReferenceString()으로 설정해야 한다.
+	 * @param policy 복원할 정책
+	 * @param file 체크포인트 파일 경로
+	 */
+	public static void restore(CheckpointablePolicy policy, Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			Input in = new Input(channel);
+			if (in.readInt() != MAGIC) throw new IOException("체크포인트 파일이 아닙니다: " + file);
+			short version = in.readShort();
+			if (version != FORMAT_VERSION) throw new IOException("지원하지 않는 체크포인트 버전: " + version);
+			String name = in.readString();
+			if (!name.equals(policy.getName())) {
+				throw new IllegalArgumentException(name + " 체크포인트를 " + policy.getName() + " 정책에 복원할 수 없습니다.");
+			}
+			int frameSize = in.readInt();
+			if (frameSize != policy.getFrameSize()) {
+				throw new IllegalArgumentException("프레임 수가 다릅니다. (체크포인트: " + frameSize + ", 정책: " + policy.getFrameSize() + ")");
+			}
+			policy.readState(in);
+			in.finish();
+		}
+	}
+	
+	/**
+	 * 체크포인트 파일에 기본형 값을 순차적으로 기록한다.
+	 * 버퍼가 가득 차면 채널로 내보내며, 내보내기 전에 CRC를 갱신한다.
+	 */
+	public static final class Output {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private final CRC32 crc = new CRC32();
+		
+		Output(FileChannel channel) {
+			this.channel = channel;
+		}
+		
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) flush();
+		}
+		
+		private void flush() throws IOException {
+			buffer.flip();
+			crc.update(buffer.duplicate());
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+		
+		public void writeByte(int value) throws IOException {
+			ensure(1);
+			buffer.put((byte) value);
+		}
+		
+		public void writeBoolean(boolean value) throws IOException {
+			writeByte(value ? 1 : 0);
+		}
+		
+		public void writeShort(int value) throws IOException {
+			ensure(2);
+			buffer.putShort((short) value);
+		}
+		
+		public void writeInt(int value) throws IOException {
+			ensure(4);
+			buffer.putInt(value);
+		}
+		
+		public void writeLong(long value) throws IOException {
+			ensure(8);
+			buffer.putLong(value);
+		}
+		
+		public void writeString(String value) throws IOException {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeShort(bytes.length);
+			for (byte b : bytes) {
+				writeByte(b);
+			}
+		}
+		
+		// 남은 내용과 CRC를 기록한다.
+		void finish() throws IOException {
+			flush();
+			buffer.putInt((int) crc.getValue());
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+	
+	/**
+	 * 체크포인트 파일에서 기본형 값을 순차적으로 읽는다.
+	 * 만들 때 파일 전체의 CRC를 먼저 검증하므로, 손상되거나 잘린 파일은 내용을 해석하기 전에 IOException이 된다.
+	 * 버퍼를 다 읽으면 채널에서 다시 채우며, 읽은 내용으로 CRC를 다시 계산해 마지막에 한 번 더 검증한다.
+	 */
+	public static final class Input {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private final CRC32 crc = new CRC32();
+		private long remaining; // CRC를 제외하고 아직 버퍼로 읽어오지 않은 바이트 수
+		
+		Input(FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.remaining = channel.size() - 4;
+			if (remaining < 0) throw new IOException("체크포인트 파일이 너무 짧습니다.");
+			verify();
+			buffer.clear().limit(0);
+		}
+		
+		// 파일 전체를 한 번 읽어 CRC를 확인하고 처음 위치로 돌아간다.
+		private void verify() throws IOException {
+			CRC32 check = new CRC32();
+			long left = remaining;
+			channel.position(0);
+			while (left > 0) {
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), left));
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer) < 0) throw new IOException("체크포인트 파일이 잘렸습니다.");
+				}
+				buffer.flip();
+				left -= buffer.remaining();
+				check.update(buffer);
+			}
+			buffer.clear().limit(4);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0) throw new IOException("체크포인트 파일이 잘렸습니다.");
+			}
+			if (buffer.flip().getInt() != (int) check.getValue()) throw new IOException("체크포인트 CRC가 일치하지 않습니다.");
+			channel.position(0);
+		}
+		
+		private void require(int bytes) throws IOException {
+			if (buffer.remaining() >= bytes) return;
+			buffer.compact();
+			int want = (int) Math.min(buffer.remaining(), remaining);
+			buffer.limit(buffer.position() + want);
+			while (buffer.hasRemaining()) {
+				int start = buffer.position();
+				if (channel.read(buffer) < 0) throw new IOException("체크포인트 파일이 잘렸습니다.");
+				ByteBuffer read = buffer.duplicate();
+				read.flip().position(start);
+				crc.update(read);
+			}
+			remaining -= want;
+			buffer.flip();
+			if (buffer.remaining() < bytes) throw new IOException("체크포인트 파일이 잘렸습니다.");
+		}
+		
+		public int readByte() throws IOException {
+			require(1);
+			return buffer.get();
+		}
+		
+		public boolean readBoolean() throws IOException {
+			return readByte() != 0;
+		}
+		
+		public short readShort() throws IOException {
+			require(2);
+			return buffer.getShort();
+		}
+		
+		public int readInt() throws IOException {
+			require(4);
+			return buffer.getInt();
+		}
+		
+		public long readLong() throws IOException {
+			require(8);
+			return buffer.getLong();
+		}
+		
+		public String readString() throws IOException {
+			byte[] bytes = new byte[readShort() & 0xFFFF];
+			for (int i = 0; i < bytes.length; ++i) {
+				bytes[i] = (byte) readByte();
+			}
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+		
+		// 모든 내용을 읽었는지와 CRC가 일치하는지 확인한다.
+		void finish() throws IOException {
+			if (buffer.hasRemaining() || remaining > 0) throw new IOException("체크포인트 파일에 알 수 없는 내용이 남아 있습니다.");
+			ByteBuffer tail = ByteBuffer.allocate(4);
+			while (tail.hasRemaining()) {
+				if (channel.read(tail) < 0) throw new IOException("체크포인트 파일이 잘렸습니다.");
+			}
+			if (tail.flip().getInt() != (int) crc.getValue()) throw new IOException("체크포인트 CRC가 일치하지 않습니다.");
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * 알고리즘 이름으로 페이지 교체 정책 객체를 생성한다.
+ * SimulatorUI의 콤보박스와 같은 이름(FIFO, Optimal, LRU, Clock, LPR)을 사용하며 대소문자는 구분하지 않는다.
+ */
+
+public final class PolicyFactory {
+	// 지원하는 알고리즘 이름
+	public static final List<String> NAMES = List.of("FIFO", "Optimal", "LRU", "Clock", "LPR");
+	
+	// 참조를 하나씩 처리할 수 있는(OnlinePolicy) 알고리즘 이름
+	public static final List<String> ONLINE_NAMES = List.of("FIFO", "LRU", "Clock", "LPR");
+	
+	private PolicyFactory() {
+	}
+	
+	/**
+	 * 이름에 해당하는 정책을 생성한다.
+	 * @param name 알고리즘 이름
+	 * @return 새 정책 객체
+	 * @throws IllegalArgumentException 알 수 없는 이름인 경우
+	 */
+	public static CheckpointablePolicy create(String name) {
+		switch (name.toUpperCase(Locale.ROOT)) {
+			case "FIFO":
+				return new FIFOPageReplacement();
+			case "OPTIMAL":
+			case "OPT":
+				return new OptimalPageReplacement();
+			case "LRU":
+				return new LRUPageReplacement();
+			case "CLOCK":
+				return new ClockPageReplacement();
+			case "LPR":
+				return new LPRPageReplacement();
+			default:
+				throw new IllegalArgumentException("알 수 없는 알고리즘: " + name);
+		}
+	}
+	
+	/**
+	 * 이름에 해당하는 OnlinePolicy를 생성한다.
+	 * @param name 알고리즘 이름
+	 * @return 새 정책 객체
+	 * @throws IllegalArgumentException 알 수 없는 이름이거나 Optimal처럼 참조를 하나씩 처리할 수 없는 경우
+	 */
+	public static OnlinePolicy createOnline(String name) {
+		CheckpointablePolicy policy = create(name);
+		if (!(policy instanceof OnlinePolicy)) {
+			throw new IllegalArgumentException(policy.getName() + " 알고리즘은 미래의 참조를 알아야 하므로 참조를 하나씩 처리할 수 없습니다.");
+		}
+		return (OnlinePolicy) policy;
+	}
+}
@@ -0,0 +1,143 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * 페이지 교체 알고리즘 실행 중 단계별 소요 시간과 카운터를 수집한다.
+ * getExecutionTime()은 전체 실행 시간 하나만 제공하므로,
+ * Hit 검사, 교체 대상 선택, 스냅샷 기록 중 어디에서 시간이 쓰이는지 확인하기 위해 사용한다.
+ *
+ * 수집은 기본적으로 꺼져 있으며 setEnabled(true) 또는
+ * -Dpagereplacement.metrics=true 로 켤 수 있다.
+ * 각 정책은 isEnabled()를 참조마다 읽지 않고 필드에 보관해 두므로
+ * 꺼져 있을 때는 참조마다 예측 가능한 분기 하나만 추가된다.
+ * OnlinePolicy는 reset()(run() 시작 포함), resume(), accessAll(), readState()에서, 그리고 access() 4096번마다 다시 읽는다.
+ * Optimal은 run() 시작 시 한 번만 읽는다.
+ */
+
+public class PolicyMetrics {
+	
+	// 측정 대상 단계
+	public enum Phase {
+		HIT_LOOKUP, // 프레임에 페이지가 있는지 검사
+		VICTIM_SELECTION, // 교체 대상 선택 (Optimal 전방 탐색, LPR findVictim, Clock 포인터 순회). 빈 프레임을 채운 Fault는 기록하지 않는다.
+		SNAPSHOT // 프레임 상태 기록
+	}
+	
+	private static volatile boolean enabled = Boolean.getBoolean("pagereplacement.metrics");
+	
+	private final String policyName; // 정책 이름
+	private final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length]; // 단계별 지연 시간(ns)
+	private final LatencyHistogram handSteps = new LatencyHistogram(); // Clock: Fault 한 번당 포인터 이동 횟수
+	private long candidatesScored; // LPR: 확률을 계산한 후보 프레임 수
+	private long references; // 측정된 참조 수
+	
+	public PolicyMetrics(String policyName) {
+		this.policyName = policyName;
+		for (int i = 0; i < phases.length; ++i) {
+			phases[i] = new LatencyHistogram();
+		}
+	}
+	
+	// 측정이 켜져 있는지 반환한다.
+	public static boolean isEnabled() {
+		return enabled;
+	}
+	
+	// 측정을 켜거나 끈다. 실행 중인 정책에는 위에 적은 시점에 반영된다.
+	public static void setEnabled(boolean value) {
+		enabled = value;
+	}
+	
+	// 단계 하나의 소요 시간(ns)을 기록한다.
+	public void record(Phase phase, long nanos) {
+		phases[phase.ordinal()].record(nanos);
+	}
+	
+	// Clock 알고리즘에서 Fault 한 번에 포인터가 이동한 횟수를 기록한다.
+	public void recordHandSteps(int steps) {
+		handSteps.record(steps);
+	}
+	
+	// LPR 알고리즘에서 확률을 계산한 후보 수를 더한다.
+	public void addCandidatesScored(int count) {
+		candidatesScored += count;
+	}
+	
+	// 측정된 참조 수를 하나 증가시킨다.
+	public void countReference() {
+		references++;
+	}
+	
+	// 모든 측정값을 초기화한다.
+	public void reset() {
+		for (LatencyHistogram histogram : phases) {
+			histogram.reset();
+		}
+		handSteps.reset();
+		candidatesScored = 0;
+		references = 0;
+	}
+	
+	public String getPolicyName() {
+		return policyName;
+	}
+	
+	public LatencyHistogram getPhase(Phase phase) {
+		return phases[phase.ordinal()];
+	}
+	
+	public LatencyHistogram getHandSteps() {
+		return handSteps;
+	}
+	
+	public long getCandidatesScored() {
+		return candidatesScored;
+	}
+	
+	public long getReferences() {
+		return references;
+	}
+	
+	/**
+	 * 측정값을 CSV 형식으로 내보낸다.
+	 * 열: policy,metric,count,sum,min,mean,p50,p90,p99,max
+	 * @param out 출력 대상
+	 * @param header 헤더 줄을 출력할지 여부
+	 */
+	public void export(Appendable out, boolean header) throws IOException {
+		if (header) out.append("policy,metric,count,sum,min,mean,p50,p90,p99,max\n");
+		for (Phase phase : Phase.values()) {
+			exportRow(out, phase.name().toLowerCase(Locale.ROOT) + "_ns", phases[phase.ordinal()]);
+		}
+		exportRow(out, "clock_hand_steps", handSteps);
+		out.append(policyName).append(",lpr_candidates_scored,").append(String.valueOf(candidatesScored))
+			.append(",,,,,,,\n");
+		out.append(policyName).append(",references,").append(String.valueOf(references))
+			.append(",,,,,,,\n");
+	}
+	
+	private void exportRow(Appendable out, String metric, LatencyHistogram h) throws IOException {
+		out.append(policyName).append(',').append(metric).append(',')
+			.append(String.valueOf(h.getCount())).append(',')
+			.append(String.valueOf(h.getSum())).append(',')
+			.append(String.valueOf(h.getMin())).append(',')
+			.append(String.format(Locale.ROOT, "%.1f", h.getMean())).append(',')
+			.append(String.valueOf(h.percentile(0.50))).append(',')
+			.append(String.valueOf(h.percentile(0.90))).append(',')
+			.append(String.valueOf(h.percentile(0.99))).append(',')
+			.append(String.valueOf(h.getMax())).append('\n');
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		try {
+			export(sb, true);
+		} catch (IOException e) {
+			// StringBuilder는 IOException을 던지지 않는다.
+		}
+		return sb.toString();
+	}
+}
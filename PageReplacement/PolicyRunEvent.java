@@ -0,0 +1,32 @@
+package PageReplacement;
+
+import jdk.jfr.*;
+
+/**
+ * 페이지 교체 알고리즘 한 번의 실행(run)을 나타내는 JFR 이벤트이다.
+ * PageReplacementSimulator.runSimulator()에서 실행 전후로 기록되어
+ * GC, 메모리 할당 이벤트와 같은 타임라인에서 시뮬레이션 구간을 확인할 수 있다.
+ * 기록(recording)이 꺼져 있으면 begin()/commit()은 JIT에 의해 제거된다.
+ */
+
+@Name("PageReplacement.PolicyRun")
+@Label("Policy Run")
+@Category("Page Replacement")
+@Description("One run of a page replacement policy over a reference string")
+@StackTrace(false)
+public class PolicyRunEvent extends Event {
+	@Label("Policy")
+	String policy; // 알고리즘 이름
+	
+	@Label("Frame Size")
+	int frameSize; // 프레임 개수
+	
+	@Label("Trace Length")
+	int traceLength; // 참조 문자열 길이
+	
+	@Label("Hits")
+	long hits; // 총 Hit 횟수
+	
+	@Label("Faults")
+	long faults; // 총 Fault 횟수
+}
@@ -0,0 +1,28 @@
+package PageReplacement;
+
+/**
+ * 참조 흐름을 보고 곧 참조될 페이지를 예측한다. PrefetchingPolicy가 사용한다.
+ * PrefetchingPolicy는 참조마다 observe()를 호출하고,
+ * Fault가 났거나 미리 적재한 페이지를 처음 참조했을 때 predict()로 후보를 받아 적재한다.
+ */
+
+public interface Prefetcher {
+	/**
+	 * 참조 하나를 관찰한다.
+	 * @param page 참조한 페이지
+	 */
+	void observe(int page);
+	
+	/**
+	 * 미리 적재할 페이지 후보를 out에 채운다.
+	 * 페이지 번호는 부호 없는 32비트이며, 계산한 후보가 이 범위를 벗어나면 잘라서 넣지 않고 거기서 멈춘다.
+	 * @param page 방금 참조한 페이지
+	 * @param out 후보를 채울 배열
+	 * @return 채운 후보 수 (out.length 이하)
+	 */
+	int predict(int page, int[] out);
+	
+	String getName();
+	
+	void reset(); // 관찰한 내용을 모두 지운다.
+}
@@ -0,0 +1,226 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * OnlinePolicy에 Prefetcher를 붙여 참조되기 전에 페이지를 미리 적재한다.
+ * Fault가 났을 때와 미리 적재한 페이지를 처음 참조했을 때 Prefetcher의 후보를 정책의 prefetch()로 적재하므로,
+ * 교체 대상은 각 정책의 규칙대로 정해진다.
+ *
+ * 측정값
+ * - 정확도(accuracy): 미리 적재한 페이지 중 교체되기 전에 참조된 비율
+ * - 적용 범위(coverage): prefetch가 없었다면 Fault였을 참조 중 미리 적재 덕분에 Hit가 된 비율
+ * - 오염(pollution): prefetch 때문에 교체된 페이지를 다시 참조하여 생긴 Fault 수
+ *   (prefetch 때문에 교체된 페이지는 최근 프레임 수만큼만 기억한다. 그보다 오래되었다면 prefetch가 없었어도 교체되었을 것으로 본다)
+ *
+ * 사용법: java PageReplacement.PrefetchingPolicy <lackey|block|address> <파일> <알고리즘> <프레임 수>
+ *         <sequential|stride|markov> [degree]
+ */
+
+public class PrefetchingPolicy {
+	private final OnlinePolicy policy; // 페이지를 적재하는 정책
+	private final Prefetcher prefetcher;
+	private final int[] candidates = new int[64]; // predict() 결과 (재사용)
+	private final LongIntHashMap pending = new LongIntHashMap(); // 미리 적재한 뒤 아직 참조되지 않은 페이지
+	private final LongIntHashMap displaced = new LongIntHashMap(); // prefetch 때문에 교체된 뒤 아직 참조되지 않은 페이지 -> displacedOrder의 위치 + 1
+	private int[] displacedOrder; // displaced에 넣은 순서 (원형 버퍼, 가득 차면 가장 오래된 페이지를 잊는다)
+	private int displacedNext; // displacedOrder에서 다음에 쓸 위치
+	
+	private long references; // 처리한 참조 수
+	private long demandFaults; // 참조에서 난 Fault 수
+	private long issued; // 미리 적재한 페이지 수 (이미 적재되어 있던 후보는 제외)
+	private long useful; // 미리 적재한 뒤 교체되기 전에 참조된 페이지 수
+	private long useless; // 미리 적재한 뒤 참조되지 않고 교체된 페이지 수
+	private long pollutionFaults; // prefetch 때문에 교체된 페이지를 참조하여 생긴 Fault 수
+	
+	public PrefetchingPolicy(OnlinePolicy policy, Prefetcher prefetcher) {
+		this.policy = policy;
+		this.prefetcher = prefetcher;
+		this.displacedOrder = new int[Math.max(1, policy.getFrameSize())];
+	}
+	
+	// 정책, Prefetcher, 측정값을 모두 초기화한다.
+	public void reset() {
+		policy.reset();
+		prefetcher.reset();
+		pending.clear();
+		displaced.clear();
+		displacedOrder = new int[Math.max(1, policy.getFrameSize())];
+		displacedNext = 0;
+		references = demandFaults = issued = useful = useless = pollutionFaults = 0;
+	}
+	
+	/**
+	 * 페이지 하나를 참조한다.
+	 * @param page 참조할 페이지 번호
+	 * @return Hit 여부
+	 */
+	public boolean access(int page) {
+		AccessResult result = policy.access(page);
+		boolean hit = result.isHit();
+		references++;
+		boolean firstUse = false;
+		if (hit) {
+			firstUse = pending.remove(page, 0) != 0;
+			if (firstUse) useful++;
+		} else {
+			demandFaults++;
+			if (displaced.remove(page, 0) != 0) pollutionFaults++;
+			if (result.isEviction()) evicted(result.getEvictedPage());
+		}
+		
+		prefetcher.observe(page);
+		if (!hit || firstUse) issue(page);
+		return hit;
+	}
+	
+	/**
+	 * 여러 페이지를 차례로 참조한다.
+	 * @return 이 구간에서 발생한 Fault 수
+	 */
+	public int accessAll(int[] pages, int off, int len) {
+		int faults = 0;
+		for (int i = off; i < off + len; ++i) {
+			if (!access(pages[i])) faults++;
+		}
+		return faults;
+	}
+	
+	// Prefetcher의 후보를 적재한다.
+	private void issue(int page) {
+		int n = prefetcher.predict(page, candidates);
+		if (n < 0 || n > candidates.length) {
+			throw new IllegalStateException(prefetcher.getName() + " 후보 수가 범위를 벗어났습니다: " + n);
+		}
+		for (int i = 0; i < n; ++i) {
+			int candidate = candidates[i];
+			if (candidate == page) continue;
+			AccessResult result = policy.prefetch(candidate);
+			if (result.isHit()) continue; // 이미 적재되어 있음
+			issued++;
+			pending.put(candidate, 1);
+			displaced.remove(candidate, 0);
+			if (result.isEviction()) {
+				int victim = result.getEvictedPage();
+				evicted(victim);
+				displace(victim);
+			}
+		}
+	}
+	
+	// prefetch 때문에 교체된 페이지를 기억한다. 기억하는 페이지가 프레임 수를 넘으면 가장 오래된 것부터 잊는다.
+	private void displace(int page) {
+		int slot = displacedNext;
+		displacedNext = (slot + 1) % displacedOrder.length;
+		int old = displacedOrder[slot];
+		if (displaced.get(old, 0) == slot + 1) displaced.remove(old, 0);
+		displacedOrder[slot] = page;
+		displaced.put(page, slot + 1);
+	}
+	
+	// 교체된 페이지가 미리 적재한 뒤 참조되지 않은 페이지였다면 쓸모없는 prefetch로 센다.
+	private void evicted(int page) {
+		if (pending.remove(page, 0) != 0) useless++;
+	}
+	
+	public OnlinePolicy getPolicy() {
+		return policy;
+	}
+	
+	public Prefetcher getPrefetcher() {
+		return prefetcher;
+	}
+	
+	public long getReferences() {
+		return references;
+	}
+	
+	public long getDemandFaults() {
+		return demandFaults;
+	}
+	
+	public long getIssued() {
+		return issued;
+	}
+	
+	public long getUseful() {
+		return useful;
+	}
+	
+	public long getUseless() {
+		return useless;
+	}
+	
+	public long getPollutionFaults() {
+		return pollutionFaults;
+	}
+	
+	// 미리 적재한 페이지 중 참조된 비율
+	public double getAccuracy() {
+		return issued == 0 ? 0 : (double) useful / issued;
+	}
+	
+	// prefetch가 없었다면 Fault였을 참조 중 Hit가 된 비율 (근사: useful / (useful + demandFaults))
+	public double getCoverage() {
+		return useful + demandFaults == 0 ? 0 : (double) useful / (useful + demandFaults);
+	}
+	
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT,
+				"%s + %s prefetch, frames=%d%n"
+				+ "References : %d, Fault : %d%n"
+				+ "Prefetched : %d (useful %d, useless %d, pending %d)%n"
+				+ "Accuracy : %.2f%%, Coverage : %.2f%%, Pollution faults : %d",
+				policy.getName(), prefetcher.getName(), policy.getFrameSize(),
+				references, demandFaults, issued, useful, useless, pending.size(),
+				getAccuracy() * 100, getCoverage() * 100, pollutionFaults);
+	}
+	
+	// 이름과 degree로 Prefetcher를 만든다. markov는 정책이 LPR이면 LPR의 전이 횟수 표를 사용한다.
+	static Prefetcher createPrefetcher(String name, int degree, OnlinePolicy policy) {
+		switch (name.toUpperCase(Locale.ROOT)) {
+			case "SEQUENTIAL":
+				return new SequentialPrefetcher(degree);
+			case "STRIDE":
+				return new StridePrefetcher(degree);
+			case "MARKOV":
+				return policy instanceof LPRPageReplacement
+						? new MarkovPrefetcher(degree, (LPRPageReplacement) policy)
+						: new MarkovPrefetcher(degree);
+			default:
+				throw new IllegalArgumentException("알 수 없는 prefetcher: " + name);
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 5) {
+			System.err.println("사용법: PrefetchingPolicy <lackey|block|address> <파일> <FIFO|LRU|Clock|LPR> <프레임 수>"
+					+ " <sequential|stride|markov> [degree]");
+			System.exit(2);
+		}
+		int[] pages = new TraceImporter(TraceImporter.Format.of(args[0])).importFile(Paths.get(args[1]));
+		int frames = Integer.parseInt(args[3]);
+		int degree = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+		
+		// prefetch 없이 실행한 결과와 비교한다.
+		OnlinePolicy baseline = PolicyFactory.createOnline(args[2]);
+		baseline.setFrameSize(frames);
+		baseline.reset();
+		baseline.accessAll(pages, 0, pages.length);
+		
+		OnlinePolicy policy = PolicyFactory.createOnline(args[2]);
+		policy.setFrameSize(frames);
+		PrefetchingPolicy prefetching = new PrefetchingPolicy(policy, createPrefetcher(args[4], degree, policy));
+		prefetching.reset();
+		prefetching.accessAll(pages, 0, pages.length);
+		
+		System.out.println(prefetching);
+		System.out.printf(Locale.ROOT, "Baseline Fault : %d, Faults avoided : %d (%.2f%%)%n",
+				baseline.getFaultCount(), baseline.getFaultCount() - prefetching.getDemandFaults(),
+				baseline.getFaultCount() == 0 ? 0.0
+						: 100.0 * (baseline.getFaultCount() - prefetching.getDemandFaults()) / baseline.getFaultCount());
+	}
+}
@@ -0,0 +1,78 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * [min, max] 구간을 같은 폭으로 나눈 히스토그램으로 분위수를 근사한다.
+ * 값을 저장하지 않으므로 메모리는 구간 수에 비례하며, 분위수 오차는 구간 폭(= (max - min) / bins) 이하이다.
+ * Fault율처럼 범위가 정해진 값에 사용하며, 범위를 벗어난 값은 양 끝 구간에 넣는다.
+ * 같은 범위와 구간 수의 스케치는 merge()로 합칠 수 있다. 동기화하지 않는다.
+ */
+
+public class QuantileSketch {
+	private final double min; // 범위의 하한
+	private final double max; // 범위의 상한
+	private final long[] bins; // 구간별 값의 개수
+	private long count; // 값의 개수
+	
+	/**
+	 * @param min 범위의 하한
+	 * @param max 범위의 상한
+	 * @param bins 구간 수
+	 */
+	public QuantileSketch(double min, double max, int bins) {
+		if (!(max > min)) throw new IllegalArgumentException("범위가 잘못되었습니다: [" + min + ", " + max + "]");
+		if (bins <= 0) throw new IllegalArgumentException("구간 수는 양수여야 합니다: " + bins);
+		this.min = min;
+		this.max = max;
+		this.bins = new long[bins];
+	}
+	
+	// 값을 하나 더한다.
+	public void add(double value) {
+		int bin = (int) ((value - min) / (max - min) * bins.length);
+		if (bin < 0) bin = 0;
+		if (bin >= bins.length) bin = bins.length - 1;
+		bins[bin]++;
+		count++;
+	}
+	
+	// 같은 범위와 구간 수의 스케치를 합친다.
+	public void merge(QuantileSketch other) {
+		if (other.min != min || other.max != max || other.bins.length != bins.length) {
+			throw new IllegalArgumentException("범위나 구간 수가 다른 스케치는 합칠 수 없습니다.");
+		}
+		for (int i = 0; i < bins.length; ++i) {
+			bins[i] += other.bins[i];
+		}
+		count += other.count;
+	}
+	
+	/**
+	 * q 분위수(0.0 ~ 1.0)의 근삿값을 반환한다. 해당 구간 안에서는 값이 고르게 퍼져 있다고 보고 선형 보간한다.
+	 * @return 분위수 근삿값, 값이 없으면 NaN
+	 */
+	public double quantile(double q) {
+		if (count == 0) return Double.NaN;
+		double rank = q * count; // 이 순위의 값을 찾는다.
+		double width = (max - min) / bins.length;
+		long seen = 0;
+		for (int i = 0; i < bins.length; ++i) {
+			if (bins[i] == 0) continue;
+			if (seen + bins[i] >= rank) {
+				return min + width * (i + (rank - seen) / bins[i]);
+			}
+			seen += bins[i];
+		}
+		return max;
+	}
+	
+	public long getCount() {
+		return count;
+	}
+	
+	public void reset() {
+		Arrays.fill(bins, 0);
+		count = 0;
+	}
+}
@@ -0,0 +1,116 @@
+package PageReplacement;
+
+/**
+ * 페이지 교체 알고리즘이 매 참조마다 발생한 사건(Hit, Fault, 교체)을 전달받는 관찰자이다.
+ * 정책은 더 이상 Hit 기록이나 프레임 스냅샷을 직접 저장하지 않으며,
+ * 필요한 만큼만 기록하도록 호출하는 쪽에서 리스너를 선택한다.
+ *
+ * - NONE : 아무것도 기록하지 않는다. (총 Hit/Fault 수는 정책이 직접 센다)
+ * - HitBitmapRecorder : 참조별 Hit 여부만 비트 단위로 기록한다.
+ * - SnapshotRecorder : Hit 여부, 교체 여부, 매 시점의 프레임 상태를 모두 기록한다. (UI용)
+ *
+ * 여러 리스너를 함께 쓰려면 all()로 묶는다.
+ *
+ * 모든 콜백은 기본형 인자만 받으므로 정책 쪽에서 객체를 만들지 않는다.
+ * 한 참조에 대한 호출 순서는 onHit 또는 onFault → (교체가 있었다면) onEviction → onSnapshot 이다.
+ */
+
+public interface ReferenceListener {
+	
+	// 아무것도 기록하지 않는 리스너 (정책의 기본값)
+	ReferenceListener NONE = new ReferenceListener() {
+		@Override
+		public void onHit(long time, int page) {
+		}
+		
+		@Override
+		public void onFault(long time, int page) {
+		}
+		
+		@Override
+		public void onEviction(long time, int victim, int page) {
+		}
+	};
+	
+	/**
+	 * 여러 리스너에 같은 사건을 차례로 전달하는 리스너를 만든다.
+	 * 스냅샷은 wantsSnapshots()가 true인 리스너에만 전달한다.
+	 */
+	static ReferenceListener all(ReferenceListener... listeners) {
+		ReferenceListener[] targets = listeners.clone();
+		return new ReferenceListener() {
+			@Override
+			public void onHit(long time, int page) {
+				for (ReferenceListener listener : targets) {
+					listener.onHit(time, page);
+				}
+			}
+			
+			@Override
+			public void onFault(long time, int page) {
+				for (ReferenceListener listener : targets) {
+					listener.onFault(time, page);
+				}
+			}
+			
+			@Override
+			public void onEviction(long time, int victim, int page) {
+				for (ReferenceListener listener : targets) {
+					listener.onEviction(time, victim, page);
+				}
+			}
+			
+			@Override
+			public boolean wantsSnapshots() {
+				for (ReferenceListener listener : targets) {
+					if (listener.wantsSnapshots()) return true;
+				}
+				return false;
+			}
+			
+			@Override
+			public void onSnapshot(long time, int[] frames, int size) {
+				for (ReferenceListener listener : targets) {
+					if (listener.wantsSnapshots()) listener.onSnapshot(time, frames, size);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * 참조한 페이지가 이미 프레임에 있었을 때 호출된다.
+	 * @param time 참조 문자열에서의 위치
+	 * @param page 참조한 페이지
+	 */
+	void onHit(long time, int page);
+	
+	/**
+	 * 참조한 페이지가 프레임에 없어 새로 적재했을 때 호출된다.
+	 * @param time 참조 문자열에서의 위치
+	 * @param page 참조한 페이지
+	 */
+	void onFault(long time, int page);
+	
+	/**
+	 * Fault 처리 중 프레임이 가득 차 있어 다른 페이지를 내보냈을 때 onFault 다음에 호출된다.
+	 * @param time 참조 문자열에서의 위치
+	 * @param victim 교체되어 나간 페이지
+	 * @param page 새로 적재한 페이지
+	 */
+	void onEviction(long time, int victim, int page);
+	
+	// 매 시점의 프레임 상태가 필요한지 여부. false면 정책은 스냅샷을 만들지 않는다.
+	default boolean wantsSnapshots() {
+		return false;
+	}
+	
+	/**
+	 * 한 참조의 처리가 끝난 뒤 프레임 상태를 전달한다. (wantsSnapshots()가 true일 때만 호출)
+	 * frames 배열은 정책이 재사용하므로 보관하려면 복사해야 한다.
+	 * @param time 참조 문자열에서의 위치
+	 * @param frames 프레임에 적재된 페이지들 (앞에서부터 size개가 유효)
+	 * @param size 현재 적재된 페이지 수
+	 */
+	default void onSnapshot(long time, int[] frames, int size) {
+	}
+}
@@ -26,4 +26,23 @@ public class ReferenceStringGenerator {
 		
 		return sb.toString(); // 완성된 참조 문자열 반환
 	}
+	
+	/**
+	 * seed로 정해지는 랜덤 참조 문자열을 생성한다. 같은 인자로 호출하면 항상 같은 참조 문자열이 나온다.
+	 * 페이지는 'A'부터 pages개의 문자 중에서 고르게 고른다. (pages가 26을 넘으면 'Z' 다음 문자도 사용)
+	 * @param seed 난수 seed
+	 * @param length 참조 문자열 길이
+	 * @param pages 서로 다른 페이지 수
+	 * @return 랜덤 참조 문자열
+	 */
+	public static List<Character> generate(long seed, int length, int pages) {
+		if (length < 0) throw new IllegalArgumentException("길이는 0 이상이어야 합니다: " + length);
+		if (pages <= 0 || pages > Character.MAX_VALUE - 'A') throw new IllegalArgumentException("페이지 수가 범위를 벗어났습니다: " + pages);
+		Random random = new Random(seed);
+		List<Character> referenceString = new ArrayList<>(length);
+		for (int i = 0; i < length; ++i) {
+			referenceString.add((char) ('A' + random.nextInt(pages)));
+		}
+		return referenceString;
+	}
 }
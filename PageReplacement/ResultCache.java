@@ -0,0 +1,337 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+
+/**
+ * 시뮬레이션 결과(Hit/Fault 수와 선택적으로 참조별 Hit 비트맵)를 디스크에 저장해 두고 다시 사용한다.
+ *
+ * 키는 참조 문자열 내용의 64비트 해시와 길이, 정책 이름과 버전, 프레임 수로 이루어지며
+ * 결과 하나가 디렉터리 안의 파일 하나이다. 파일은 PolicyCheckpoint와 같은 방식(CRC 포함)으로 기록한다.
+ *
+ * - 여러 프로세스가 같은 디렉터리를 함께 써도 된다. 파일은 임시 파일에 쓴 뒤 원자적으로 이름을 바꾸므로
+ *   읽는 쪽은 완성된 파일만 보며, 다른 프로세스가 지운 파일은 없는 것으로 처리한다.
+ * - 디렉터리 전체 크기가 maxBytes를 넘으면 수정 시각이 가장 오래된 파일부터 지운다.
+ *   디스크에서 읽은 파일은 수정 시각을 갱신하므로 LRU 순서가 된다.
+ *   쓰는 중인 임시 파일도 크기에 포함하며, TEMP_MAX_AGE보다 오래된 임시 파일은 쓰다가 종료된 프로세스가 남긴 것으로 보고 지운다.
+ * - 최근 결과는 메모리에도 보관하므로 같은 질의를 반복하면 파일을 열지 않는다.
+ */
+
+public final class ResultCache {
+	private static final int MAGIC = 0x50524352; // "PRCR"
+	private static final short FORMAT_VERSION = 1;
+	private static final String SUFFIX = ".res";
+	private static final String TEMP_SUFFIX = ".tmp";
+	private static final long TEMP_MAX_AGE = 60 * 60 * 1000; // 이보다 오래된 임시 파일은 남겨진 것으로 본다. (ms)
+	private static final int MEMO_SIZE = 1024; // 메모리에 보관할 결과 수
+	
+	private final Path directory; // 결과 파일을 두는 디렉터리
+	private final long maxBytes; // 디렉터리 전체 크기의 상한
+	private final Map<String, Result> memo = new LinkedHashMap<String, Result>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+			return size() > MEMO_SIZE;
+		}
+	};
+	
+	private long memoHits; // 메모리에서 찾은 횟수
+	private long diskHits; // 디스크에서 찾은 횟수
+	private long misses; // 찾지 못한 횟수
+	
+	/**
+	 * @param directory 결과 파일을 둘 디렉터리 (없으면 만든다)
+	 * @param maxBytes 디렉터리 전체 크기의 상한(byte)
+	 */
+	public ResultCache(Path directory, long maxBytes) throws IOException {
+		if (maxBytes <= 0) throw new IllegalArgumentException("캐시 크기는 양수여야 합니다: " + maxBytes);
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		Files.createDirectories(directory);
+	}
+	
+	// 기본 캐시 디렉터리 (~/.cache/page-replacement)
+	public static Path defaultDirectory() {
+		return Paths.get(System.getProperty("user.home"), ".cache", "page-replacement");
+	}
+	
+	/**
+	 * 참조 문자열 내용의 64비트 해시(FNV-1a 후 섞기)를 계산한다.
+	 * 길이가 n이면 O(n)이므로 같은 참조 문자열에 대해서는 한 번만 계산해 두고 key()에 넘긴다.
+	 */
+	public static long hash(List<Character> referenceString) {
+		long h = 0xcbf29ce484222325L;
+		for (char c : referenceString) {
+			h ^= c;
+			h *= 0x100000001b3L;
+		}
+		h ^= referenceString.size();
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb34fe1a85ec5L;
+		h ^= h >>> 33;
+		return h;
+	}
+	
+	/**
+	 * 결과를 찾을 키를 만든다. 파일 이름으로도 쓰인다.
+	 * @param traceHash hash()로 계산한 참조 문자열 해시
+	 * @param traceLength 참조 문자열 길이
+	 * @param policy 정책 (이름과 버전을 사용)
+	 * @param frameSize 프레임 수
+	 */
+	public static String key(long traceHash, int traceLength, PageReplacementPolicy policy, int frameSize) {
+		String hex = Long.toHexString(traceHash);
+		return "0000000000000000".substring(hex.length()) + hex + "-" + traceLength + "-" + policy.getName()
+				+ "-v" + policy.getVersion() + "-f" + frameSize;
+	}
+	
+	/**
+	 * 저장된 결과를 찾는다. 메모리에서 먼저 찾고, 없으면 디스크에서 읽는다.
+	 * @param key key()로 만든 키
+	 * @param wantHistory true면 Hit 비트맵이 함께 저장된 결과만 찾는다.
+	 * @return 저장된 결과, 없으면 null
+	 */
+	public Result get(String key, boolean wantHistory) {
+		Result result;
+		synchronized (memo) {
+			result = memo.get(key);
+			if (result != null && (!wantHistory || result.hasHistory())) {
+				memoHits++;
+				return result;
+			}
+		}
+		
+		Path file = directory.resolve(key + SUFFIX);
+		try {
+			result = read(file, key);
+		} catch (NoSuchFileException e) {
+			result = null; // 저장된 적이 없거나 다른 프로세스가 지웠다.
+		} catch (IOException e) {
+			result = null; // 손상된 파일은 지우고 다시 계산한다.
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException ignored) {
+			}
+		}
+		if (result != null) {
+			try {
+				Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			} catch (IOException e) {
+				// 읽은 뒤 다른 프로세스가 지웠어도 읽은 결과는 쓸 수 있다.
+			}
+		}
+		synchronized (memo) {
+			if (result == null || (wantHistory && !result.hasHistory())) {
+				misses++;
+				return null;
+			}
+			memo.put(key, result);
+			diskHits++;
+		}
+		return result;
+	}
+	
+	/**
+	 * 결과를 저장한다. 같은 키의 파일이 있으면 바꾼다.
+	 * 저장에 실패해도 예외를 던지지 않는다. (캐시는 결과에 영향을 주지 않는다)
+	 */
+	public void put(String key, Result result) {
+		synchronized (memo) {
+			memo.put(key, result);
+		}
+		Path temp = null;
+		try {
+			temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				PolicyCheckpoint.Output out = new PolicyCheckpoint.Output(channel);
+				out.writeInt(MAGIC);
+				out.writeShort(FORMAT_VERSION);
+				out.writeString(key);
+				out.writeLong(result.hitCount);
+				out.writeLong(result.faultCount);
+				out.writeLong(result.executionTime);
+				out.writeBoolean(result.hasHistory());
+				if (result.hasHistory()) {
+					out.writeInt(result.historyLength);
+					out.writeInt(result.history.length);
+					for (long word : result.history) {
+						out.writeLong(word);
+					}
+				}
+				out.finish();
+			}
+			Files.move(temp, directory.resolve(key + SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			temp = null;
+			evict();
+		} catch (IOException e) {
+			// 디스크에 저장하지 못해도 메모리에는 남아 있다.
+		} finally {
+			if (temp != null) {
+				try {
+					Files.deleteIfExists(temp);
+				} catch (IOException ignored) {
+				}
+			}
+		}
+	}
+	
+	private static Result read(Path file, String key) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			PolicyCheckpoint.Input in = new PolicyCheckpoint.Input(channel);
+			if (in.readInt() != MAGIC) throw new IOException("결과 파일이 아닙니다: " + file);
+			if (in.readShort() != FORMAT_VERSION) throw new IOException("지원하지 않는 결과 파일 버전: " + file);
+			if (!in.readString().equals(key)) throw new IOException("키가 다릅니다: " + file);
+			long hitCount = in.readLong();
+			long faultCount = in.readLong();
+			long executionTime = in.readLong();
+			long[] history = null;
+			int historyLength = 0;
+			if (in.readBoolean()) {
+				historyLength = in.readInt();
+				history = new long[in.readInt()];
+				for (int i = 0; i < history.length; ++i) {
+					history[i] = in.readLong();
+				}
+			}
+			in.finish();
+			return new Result(hitCount, faultCount, executionTime, history, historyLength);
+		}
+	}
+	
+	/**
+	 * 디렉터리 전체 크기가 상한을 넘으면 수정 시각이 오래된 결과 파일부터 지운다.
+	 * 쓰는 중인 임시 파일은 크기에만 포함하고, TEMP_MAX_AGE보다 오래된 임시 파일은 바로 지운다.
+	 */
+	private void evict() throws IOException {
+		List<Path> files = new ArrayList<>();
+		Map<Path, long[]> info = new HashMap<>(); // 파일 -> {수정 시각, 크기}
+		long total = 0;
+		long now = System.currentTimeMillis();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*{" + SUFFIX + "," + TEMP_SUFFIX + "}")) {
+			for (Path file : stream) {
+				try {
+					long size = Files.size(file);
+					long modified = Files.getLastModifiedTime(file).toMillis();
+					if (!file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+						info.put(file, new long[] { modified, size });
+						files.add(file);
+					} else if (now - modified > TEMP_MAX_AGE) {
+						Files.deleteIfExists(file);
+						continue;
+					}
+					total += size;
+				} catch (NoSuchFileException e) {
+					// 다른 프로세스가 지웠거나 이름을 바꾸었다.
+				}
+			}
+		}
+		if (total <= maxBytes) return;
+		
+		files.sort(Comparator.comparingLong(file -> info.get(file)[0]));
+		for (Path file : files) {
+			if (total <= maxBytes) break;
+			Files.deleteIfExists(file);
+			total -= info.get(file)[1];
+		}
+	}
+	
+	// 메모리와 디스크의 결과를 모두 지운다.
+	public void clear() throws IOException {
+		synchronized (memo) {
+			memo.clear();
+		}
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+			for (Path file : stream) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+	
+	public Path getDirectory() {
+		return directory;
+	}
+	
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+	
+	public long getMemoHits() {
+		return memoHits;
+	}
+	
+	public long getDiskHits() {
+		return diskHits;
+	}
+	
+	public long getMisses() {
+		return misses;
+	}
+	
+	/**
+	 * 저장된 시뮬레이션 결과 하나이다.
+	 * history는 HitBitmapRecorder의 비트맵(BitSet.toLongArray() 형식)이며 없으면 null이다.
+	 */
+	public static final class Result {
+		private final long hitCount;
+		private final long faultCount;
+		private final long executionTime; // 처음 실행했을 때 걸린 시간(µs)
+		private final long[] history;
+		private final int historyLength; // history에 기록된 참조 수
+		
+		public Result(long hitCount, long faultCount, long executionTime, long[] history, int historyLength) {
+			this.hitCount = hitCount;
+			this.faultCount = faultCount;
+			this.executionTime = executionTime;
+			this.history = history;
+			this.historyLength = historyLength;
+		}
+		
+		public long getHitCount() {
+			return hitCount;
+		}
+		
+		public long getFaultCount() {
+			return faultCount;
+		}
+		
+		public long getExecutionTime() {
+			return executionTime;
+		}
+		
+		public boolean hasHistory() {
+			return history != null;
+		}
+		
+		// Hit 비트맵 (호출하는 쪽에서 수정하지 않아야 한다)
+		long[] getHistory() {
+			return history;
+		}
+		
+		public int getHistoryLength() {
+			return historyLength;
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		Path directory = args.length > 0 ? Paths.get(args[0]) : defaultDirectory();
+		ResultCache cache = new ResultCache(directory, Long.MAX_VALUE);
+		if (args.length > 1 && args[1].equals("clear")) {
+			cache.clear();
+			System.out.println("Cleared " + directory);
+			return;
+		}
+		long files = 0;
+		long bytes = 0;
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+			for (Path file : stream) {
+				files++;
+				bytes += Files.size(file);
+			}
+		}
+		System.out.println(directory + " : " + files + " results, " + bytes + " bytes");
+	}
+}
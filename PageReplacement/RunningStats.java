@@ -0,0 +1,192 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * 값을 저장하지 않고 개수, 평균, 분산, 최솟값, 최댓값을 한 번에 갱신하는 통계이다. (Welford 알고리즘)
+ * 따로 모은 통계는 merge()로 합칠 수 있으므로 스레드마다 하나씩 모은 뒤 마지막에 합친다.
+ * 하나의 인스턴스는 한 스레드에서만 갱신한다고 가정하므로 동기화하지 않는다.
+ */
+
+public class RunningStats {
+	private long count; // 값의 개수
+	private double mean; // 평균
+	private double m2; // 평균과의 차이 제곱의 합
+	private double min = Double.POSITIVE_INFINITY; // 최솟값
+	private double max = Double.NEGATIVE_INFINITY; // 최댓값
+	
+	// 값을 하나 더한다.
+	public void add(double value) {
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		m2 += delta * (value - mean);
+		if (value < min) min = value;
+		if (value > max) max = value;
+	}
+	
+	// 다른 통계를 합친다. (Chan 등의 병렬 분산 공식)
+	public void merge(RunningStats other) {
+		if (other.count == 0) return;
+		long total = count + other.count;
+		double delta = other.mean - mean;
+		mean += delta * other.count / total;
+		m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+		count = total;
+		if (other.min < min) min = other.min;
+		if (other.max > max) max = other.max;
+	}
+	
+	public long getCount() {
+		return count;
+	}
+	
+	public double getMean() {
+		return mean;
+	}
+	
+	// 표본 분산 (값이 둘 미만이면 0)
+	public double getVariance() {
+		return count < 2 ? 0 : m2 / (count - 1);
+	}
+	
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+	
+	// 평균의 표준 오차
+	public double getStandardError() {
+		return count == 0 ? 0 : Math.sqrt(getVariance() / count);
+	}
+	
+	public double getMin() {
+		return min;
+	}
+	
+	public double getMax() {
+		return max;
+	}
+	
+	/**
+	 * 평균의 신뢰구간 반폭을 t 분포로 계산한다. 평균 ± 반폭이 신뢰구간이다.
+	 * @param level 신뢰수준 (예: 0.95)
+	 */
+	public double confidenceHalfWidth(double level) {
+		if (count < 2) return Double.NaN;
+		return tQuantile(1 - (1 - level) / 2, count - 1) * getStandardError();
+	}
+	
+	/**
+	 * 평균이 0인지에 대한 양측 t 검정의 p값을 반환한다.
+	 * 짝지은 차이(정책 A의 Fault율 - 정책 B의 Fault율)를 모은 통계에 사용하면 대응 표본 t 검정이 된다.
+	 * 자유도가 30을 넘으면 정규분포로 근사한다.
+	 */
+	public double pValue() {
+		if (count < 2) return 1;
+		double se = getStandardError();
+		if (se == 0) return mean == 0 ? 1 : 0;
+		double t = Math.abs(mean / se);
+		long df = count - 1;
+		if (df > 30) return 2 * (1 - normalCdf(t));
+		return 2 * (1 - studentCdf(t, df));
+	}
+	
+	// 표준정규분포의 누적분포함수 (Abramowitz-Stegun 7.1.26, 오차 1.5e-7 이하)
+	static double normalCdf(double x) {
+		double z = Math.abs(x) / Math.sqrt(2);
+		double t = 1 / (1 + 0.3275911 * z);
+		double erfc = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))))
+				* Math.exp(-z * z);
+		return x >= 0 ? 1 - erfc / 2 : erfc / 2;
+	}
+	
+	// 표준정규분포의 p 분위수 (Acklam의 유리함수 근사, 상대 오차 1.2e-9 이하)
+	static double normalQuantile(double p) {
+		if (p <= 0) return Double.NEGATIVE_INFINITY;
+		if (p >= 1) return Double.POSITIVE_INFINITY;
+		double[] a = { -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+				1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00 };
+		double[] b = { -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+				6.680131188771972e+01, -1.328068155288572e+01 };
+		double[] c = { -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+				-2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00 };
+		double[] d = { 7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00 };
+		double low = 0.02425;
+		if (p < low) {
+			double q = Math.sqrt(-2 * Math.log(p));
+			return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+					/ ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+		}
+		if (p > 1 - low) return -normalQuantile(1 - p);
+		double q = p - 0.5;
+		double r = q * q;
+		return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+				/ (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+	}
+	
+	// 자유도 df인 t 분포의 p 분위수 (정규 분위수의 Cornish-Fisher 전개, df가 작으면 근사 오차가 커진다)
+	static double tQuantile(double p, long df) {
+		double z = normalQuantile(p);
+		double z2 = z * z;
+		double g1 = (z2 + 1) * z / 4;
+		double g2 = ((5 * z2 + 16) * z2 + 3) * z / 96;
+		double g3 = (((3 * z2 + 19) * z2 + 17) * z2 - 15) * z / 384;
+		return z + g1 / df + g2 / ((double) df * df) + g3 / ((double) df * df * df);
+	}
+	
+	// 자유도 df인 t 분포의 누적분포함수 (정칙화 불완전 베타 함수를 연분수로 계산)
+	static double studentCdf(double t, long df) {
+		double x = df / (df + t * t);
+		double tail = incompleteBeta(df / 2.0, 0.5, x) / 2; // P(T > |t|)
+		return t >= 0 ? 1 - tail : tail;
+	}
+	
+	// 정칙화 불완전 베타 함수 I_x(a, b) (Numerical Recipes의 연분수 방식)
+	private static double incompleteBeta(double a, double b, double x) {
+		if (x <= 0) return 0;
+		if (x >= 1) return 1;
+		double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+		if (x > (a + 1) / (a + b + 2)) return 1 - incompleteBeta(b, a, 1 - x);
+		double f = 1, c = 1, d = 0;
+		for (int i = 0; i <= 200; ++i) {
+			int m = i / 2;
+			double numerator;
+			if (i == 0) {
+				numerator = 1;
+			} else if (i % 2 == 0) {
+				numerator = m * (b - m) * x / ((a + 2 * m - 1) * (a + 2 * m));
+			} else {
+				numerator = -((a + m) * (a + b + m) * x) / ((a + 2 * m) * (a + 2 * m + 1));
+			}
+			d = 1 + numerator * d;
+			if (Math.abs(d) < 1e-30) d = 1e-30;
+			d = 1 / d;
+			c = 1 + numerator / c;
+			if (Math.abs(c) < 1e-30) c = 1e-30;
+			double cd = c * d;
+			f *= cd;
+			if (Math.abs(1 - cd) < 1e-12) break;
+		}
+		return front * (f - 1) / a;
+	}
+	
+	// 감마 함수의 자연로그 (Lanczos 근사)
+	private static double logGamma(double x) {
+		double[] g = { 76.18009172947146, -86.50532032941677, 24.01409824083091,
+				-1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5 };
+		double y = x;
+		double tmp = x + 5.5;
+		tmp -= (x + 0.5) * Math.log(tmp);
+		double series = 1.000000000190015;
+		for (double coefficient : g) {
+			series += coefficient / ++y;
+		}
+		return -tmp + Math.log(2.5066282746310005 * series / x);
+	}
+	
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "n=%d, mean=%.6f, sd=%.6f, min=%.6f, max=%.6f",
+				count, mean, getStandardDeviation(), min, max);
+	}
+}
@@ -0,0 +1,48 @@
+package PageReplacement;
+
+/**
+ * 연속된 페이지를 차례로 참조하는 흐름을 찾아 다음 페이지들을 미리 적재한다. (read-ahead)
+ * 직전 참조가 바로 앞 페이지였을 때만 예측하므로 임의 접근에서는 아무것도 적재하지 않는다.
+ */
+
+public class SequentialPrefetcher implements Prefetcher {
+	private final int degree; // 한 번에 미리 적재할 페이지 수
+	private int last; // 직전에 참조한 페이지
+	private boolean sequential; // 직전 참조가 last - 1 다음이었는지 여부
+	private boolean started; // 관찰한 참조가 있는지 여부
+	
+	public SequentialPrefetcher(int degree) {
+		if (degree <= 0) throw new IllegalArgumentException("degree는 양수여야 합니다: " + degree);
+		this.degree = degree;
+	}
+	
+	@Override
+	public void observe(int page) {
+		sequential = started && page == last + 1;
+		last = page;
+		started = true;
+	}
+	
+	@Override
+	public int predict(int page, int[] out) {
+		if (!sequential) return 0;
+		int limit = Math.min(degree, out.length);
+		long next = (page & 0xFFFFFFFFL) + 1;
+		int n = 0;
+		while (n < limit && next <= 0xFFFFFFFFL) { // 페이지 번호 범위(부호 없는 32비트)를 벗어나면 멈춤
+			out[n++] = (int) next++;
+		}
+		return n;
+	}
+	
+	@Override
+	public String getName() {
+		return "Sequential";
+	}
+	
+	@Override
+	public void reset() {
+		sequential = false;
+		started = false;
+	}
+}
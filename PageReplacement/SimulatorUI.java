@@ -110,18 +110,22 @@ public class SimulatorUI {
 				policy = new FIFOPageReplacement();
 		}
 		
-		// 시뮬레이터 실행
+		// 시뮬레이터 실행 (화면 표시에 필요한 Hit/교체 여부와 프레임 스냅샷을 모두 기록)
+		// 참조마다 최근 프레임 수만큼의 Fault율과 working set 크기 W(t, 프레임 수)도 함께 기록한다.
+		SnapshotRecorder recorder = new SnapshotRecorder();
+		PhaseAnalyzer analyzer = new PhaseAnalyzer(frameSize, 1, frameSize);
 		PageReplacementSimulator simulator = new PageReplacementSimulator(policy);
 		simulator.setReferenceString(referenceString);
 		simulator.setFrameSize(frameSize);
+		simulator.setReferenceListener(ReferenceListener.all(recorder, analyzer));
 		simulator.runSimulator();
 		
-		updateOutput(simulator); // 텍스트 출력 업데이트
-		updateGrid(simulator); // 시각적 그리드 업데이트
+		updateOutput(simulator, recorder, analyzer); // 텍스트 출력 업데이트
+		updateGrid(simulator, recorder, analyzer); // 시각적 그리드 업데이트
 	}
 	
 	// 텍스트 출력 영역과 파이차트를 업데이트한다.
-	private void updateOutput(PageReplacementSimulator simulator) {
+	private void updateOutput(PageReplacementSimulator simulator, SnapshotRecorder recorder, PhaseAnalyzer analyzer) {
 		PageReplacementPolicy policy = simulator.getPolicy();
 		
 		StringBuilder sb = new StringBuilder();
@@ -129,23 +133,21 @@ public class SimulatorUI {
 		sb.append("Reference String : ").append(simulator.getReferenceString()).append("\n");
 		sb.append("Run Time : ").append(simulator.getPolicy().getExecutionTime()).append(" µs").append("\n");
 		sb.append("Hit : ").append(policy.getHitCount()).append(", Fault : ").append(policy.getFaultCount()).append("\n");
+		sb.append("Phase changes :");
+		for (int j = 0; j < analyzer.getPhaseChangeCount(); ++j) {
+			sb.append(" ").append(analyzer.getPhaseChangeTime(j));
+		}
+		sb.append("\n");
 		
 		String referenceString = simulator.getReferenceString();
-		List<Boolean> hitHistory = policy.getHitHistory();
-		List<List<Character>> frameSnapshots = policy.getFrameSnapshots();
-		int frameSize = simulator.getFrameSize();
-		boolean firstFull = false;
 		
 		for (int i = 0; i < referenceString.length(); ++i) {
 			char ch = referenceString.charAt(i);
-			boolean isHit = hitHistory.get(i);
-			List<Character> curr = frameSnapshots.get(i);
-			if (i > 0) firstFull = frameSnapshots.get(i - 1).size() == frameSize;
 			
 			String status;
-			if (isHit) status = "Hit";
+			if (recorder.isHit(i)) status = "Hit";
 			else {
-				if (firstFull) status = "Migrated";
+				if (recorder.isEviction(i)) status = "Migrated";
 				else status = "Fault";
 			}
 			
@@ -163,16 +165,13 @@ public class SimulatorUI {
 	}
 	
 	// 시각적으로 프레임 상태를 시간 순서대로 그리드에 표시한다.
-	private void updateGrid(PageReplacementSimulator simulator) {
+	private void updateGrid(PageReplacementSimulator simulator, SnapshotRecorder recorder, PhaseAnalyzer analyzer) {
 		frameGrid.getChildren().clear();
 		frameGrid.setGridLinesVisible(false);
 		frameGrid.setHgap(4);
 		frameGrid.setVgap(4);
 		frameGrid.setPadding(new Insets(10));
 		
-		PageReplacementPolicy policy = simulator.getPolicy();
-		List<Boolean> hitHistory = policy.getHitHistory();
-		List<List<Character>> frameSnapshots = policy.getFrameSnapshots();
 		int frameSize = simulator.getFrameSize();
 		String referenceString = simulator.getReferenceString();
 		
@@ -186,18 +185,17 @@ public class SimulatorUI {
 		}
 		
 		// 프레임 내용
-		for (int time = 0; time < frameSnapshots.size(); ++time) {
-			List<Character> curr = frameSnapshots.get(time);
+		for (int time = 0; time < recorder.size(); ++time) {
+			int[] curr = recorder.getSnapshot(time);
 			char referenceChar = referenceString.charAt(time);
-			boolean isHit = hitHistory.get(time);
-			boolean firstFull = false;
-			if (time > 0) firstFull = frameSnapshots.get(time - 1).size() == frameSize;
+			boolean isHit = recorder.isHit(time);
+			boolean firstFull = recorder.isEviction(time);
 			
 			for (int row = 0; row < frameSize; ++row) {
 				Label label;
 				
-				if (row < curr.size()) {
-					char page = curr.get(row);
+				if (row < curr.length) {
+					char page = (char) curr[row];
 					label = new Label(String.valueOf(page));
 					label.setStyle("-fx-border-color: gray; " + "-fx-border-width: 1px;");
 					label.setMinSize(40, 40);
@@ -223,5 +221,25 @@ public class SimulatorUI {
  				frameGrid.add(label, time, row + 1);
 			}
 		}
+		
+		// 프레임 아래 두 줄: 최근 프레임 수만큼의 Fault율(진할수록 높음)과 working set 크기
+		// working set이 프레임 수보다 크면 빨간 글씨로, 새 단계가 시작된 시점은 왼쪽 파란 선으로 표시한다.
+		for (int time = 0; time < analyzer.getSampleCount(); ++time) {
+			String phaseBorder = analyzer.isPhaseChange(time) ? "-fx-border-color: gray gray gray blue; -fx-border-width: 1px 1px 1px 3px;" : "-fx-border-color: gray;";
+			
+			double rate = analyzer.getFaultRate(time);
+			Label rateLabel = new Label(String.format(Locale.ROOT, "%.0f%%", rate * 100));
+			rateLabel.setMinSize(40, 40);
+			rateLabel.setAlignment(Pos.CENTER);
+			rateLabel.setStyle(phaseBorder + String.format(Locale.ROOT, "-fx-background-color: rgba(255, 0, 0, %.2f);", rate * 0.8));
+			frameGrid.add(rateLabel, time, frameSize + 1);
+			
+			int workingSet = analyzer.getWorkingSetSize(time, 0);
+			Label wsLabel = new Label("W" + workingSet);
+			wsLabel.setMinSize(40, 40);
+			wsLabel.setAlignment(Pos.CENTER);
+			wsLabel.setStyle(phaseBorder + (workingSet > frameSize ? "-fx-text-fill: red;" : ""));
+			frameGrid.add(wsLabel, time, frameSize + 2);
+		}
 	}
 }
@@ -0,0 +1,66 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * 참조별 Hit 여부, 교체 여부, 매 시점의 프레임 상태를 모두 기록하는 리스너이다.
+ * SimulatorUI처럼 실행 과정을 그대로 보여줘야 할 때 사용한다.
+ * 참조마다 스냅샷 배열을 하나씩 만들기 때문에 긴 참조 문자열에는 적합하지 않다.
+ */
+
+public class SnapshotRecorder implements ReferenceListener {
+	private final BitSet hits = new BitSet(); // Hit 여부
+	private final BitSet evictions = new BitSet(); // 교체 발생 여부
+	private final List<int[]> frameSnapshots = new ArrayList<>(); // 각 시점의 프레임 상태
+	
+	@Override
+	public void onHit(long time, int page) {
+		hits.set((int) time);
+	}
+	
+	@Override
+	public void onFault(long time, int page) {
+	}
+	
+	@Override
+	public void onEviction(long time, int victim, int page) {
+		evictions.set((int) time);
+	}
+	
+	@Override
+	public boolean wantsSnapshots() {
+		return true;
+	}
+	
+	@Override
+	public void onSnapshot(long time, int[] frames, int size) {
+		frameSnapshots.add(Arrays.copyOf(frames, size));
+	}
+	
+	// time번째 참조가 Hit였는지 반환한다.
+	public boolean isHit(int time) {
+		return hits.get(time);
+	}
+	
+	// time번째 참조에서 다른 페이지가 교체되어 나갔는지 반환한다.
+	public boolean isEviction(int time) {
+		return evictions.get(time);
+	}
+	
+	// time번째 참조 처리 후의 프레임 상태를 반환한다.
+	public int[] getSnapshot(int time) {
+		return frameSnapshots.get(time);
+	}
+	
+	// 기록된 참조 수를 반환한다.
+	public int size() {
+		return frameSnapshots.size();
+	}
+	
+	// 기록을 모두 지운다. 같은 리스너로 다시 실행할 때 사용한다.
+	public void clear() {
+		hits.clear();
+		evictions.clear();
+		frameSnapshots.clear();
+	}
+}
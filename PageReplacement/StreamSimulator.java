@@ -0,0 +1,133 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/**
+ * 표준 입력이나 named pipe로 들어오는 페이지 번호를 실시간으로 OnlinePolicy에 전달한다.
+ * 입력은 공백/줄바꿈/쉼표로 구분된 10진수 또는 0x로 시작하는 16진수 페이지 번호이다.
+ * 페이지 번호는 부호 없는 32비트(0 ~ 0xFFFFFFFF)여야 하며, 숫자가 없는 0x나 범위를 넘는 숫자가 있으면
+ * 그 앞까지의 참조를 정책에 전달한 뒤 줄 번호와 함께 IOException을 던진다.
+ * 입력을 고정 크기 버퍼로 읽어 직접 숫자로 변환하고 int 배열에 모아 accessAll()로 넘기므로
+ * 참조마다 객체를 만들지 않는다.
+ *
+ * 사용법: java PageReplacement.StreamSimulator <알고리즘> <프레임 수> [입력 파일 또는 pipe 경로]
+ */
+
+public class StreamSimulator {
+	private static final int READ_BUFFER_SIZE = 1 << 16;
+	private static final int BATCH_SIZE = 4096;
+	
+	private final OnlinePolicy policy; // 참조를 전달할 정책
+	private final int[] batch = new int[BATCH_SIZE]; // accessAll()에 넘길 페이지 묶음
+	private int batchSize; // batch에 모인 페이지 수
+	private long value; // 읽는 중인 숫자
+	private boolean inNumber; // 숫자를 읽는 중인지 여부
+	private boolean hex; // 16진수로 읽는 중인지 여부
+	private int digits; // 읽는 중인 숫자의 자릿수 (0x 판별용)
+	private long line; // 읽는 중인 줄 번호 (1부터)
+	
+	public StreamSimulator(OnlinePolicy policy) {
+		this.policy = policy;
+	}
+	
+	/**
+	 * 채널이 끝날 때까지 페이지 번호를 읽어 정책에 전달한다.
+	 * @param in 입력 채널
+	 * @return 전달한 참조 수
+	 */
+	public long feed(ReadableByteChannel in) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+		long count = 0;
+		line = 1;
+		while (in.read(buffer) >= 0) {
+			buffer.flip();
+			count += parse(buffer);
+			buffer.clear();
+		}
+		count += endNumber();
+		flush();
+		return count;
+	}
+	
+	// 버퍼에 있는 내용을 숫자로 변환한다. 버퍼 끝에서 끊긴 숫자는 다음 호출에서 이어서 읽는다.
+	private long parse(ByteBuffer buffer) throws IOException {
+		long count = 0;
+		while (buffer.hasRemaining()) {
+			byte b = buffer.get();
+			if (b >= '0' && b <= '9') {
+				value = hex ? (value << 4) | (b - '0') : value * 10 + (b - '0');
+				inNumber = true;
+				digits++;
+				if (value > 0xFFFFFFFFL) throw invalid("페이지 번호가 32비트를 넘습니다.");
+			} else if (hex && ((b >= 'a' && b <= 'f') || (b >= 'A' && b <= 'F'))) {
+				value = (value << 4) | ((b | 0x20) - 'a' + 10);
+				digits++;
+				if (value > 0xFFFFFFFFL) throw invalid("페이지 번호가 32비트를 넘습니다.");
+			} else if ((b == 'x' || b == 'X') && inNumber && digits == 1 && value == 0) {
+				hex = true; // "0x" 접두사
+				digits = 0;
+			} else {
+				count += endNumber();
+				if (b == '\n') line++;
+			}
+		}
+		return count;
+	}
+	
+	// 그 앞까지 읽은 참조를 정책에 전달하고 줄 번호를 붙인 예외를 만든다.
+	private IOException invalid(String message) {
+		flush();
+		value = 0;
+		inNumber = false;
+		hex = false;
+		digits = 0;
+		return new IOException(message + " (" + line + "번째 줄)");
+	}
+	
+	// 읽던 숫자를 마무리하여 묶음에 추가한다.
+	private int endNumber() throws IOException {
+		if (!inNumber) return 0;
+		if (hex && digits == 0) throw invalid("0x 뒤에 16진수 숫자가 없습니다.");
+		batch[batchSize++] = (int) value; // 0x80000000 이상은 음수 int (부호 없는 32비트 페이지 번호)
+		if (batchSize == BATCH_SIZE) flush();
+		value = 0;
+		inNumber = false;
+		hex = false;
+		digits = 0;
+		return 1;
+	}
+	
+	// 모인 페이지를 정책에 전달한다.
+	private void flush() {
+		if (batchSize == 0) return;
+		policy.accessAll(batch, 0, batchSize);
+		batchSize = 0;
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("사용법: StreamSimulator <FIFO|LRU|Clock|LPR> <프레임 수> [입력 파일 또는 pipe 경로]");
+			System.exit(2);
+		}
+		OnlinePolicy policy = PolicyFactory.createOnline(args[0]);
+		policy.setFrameSize(Integer.parseInt(args[1]));
+		policy.reset();
+		
+		long start = System.nanoTime();
+		long references;
+		try (ReadableByteChannel in = args.length > 2
+				? FileChannel.open(Paths.get(args[2]), StandardOpenOption.READ)
+				: Channels.newChannel(System.in)) {
+			references = new StreamSimulator(policy).feed(in);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		
+		System.out.println("=== " + policy.getName() + " Result ===");
+		System.out.println("References : " + references);
+		System.out.println("Hit : " + policy.getHitCount() + ", Fault : " + policy.getFaultCount());
+		System.out.printf("Throughput : %.2f M references/s%n", references / seconds / 1e6);
+	}
+}
@@ -0,0 +1,107 @@
+package PageReplacement;
+
+/**
+ * 일정한 간격(stride)으로 참조하는 흐름을 찾아 같은 간격으로 다음 페이지들을 미리 적재한다.
+ * 여러 흐름이 섞여 들어와도 구분할 수 있도록 흐름 표를 두고,
+ * 참조한 페이지와 가장 가까운(window 이내) 흐름의 마지막 페이지에 이어 붙인다.
+ * 같은 간격이 두 번 연속으로 나오면 흐름이 확인된 것으로 본다.
+ */
+
+public class StridePrefetcher implements Prefetcher {
+	private static final int DEFAULT_STREAMS = 8;
+	private static final int DEFAULT_WINDOW = 64;
+	
+	private final int degree; // 한 번에 미리 적재할 페이지 수
+	private final int window; // 같은 흐름으로 볼 최대 거리(페이지 수)
+	private final long[] lastPage; // 흐름별 마지막 페이지
+	private final long[] stride; // 흐름별 간격
+	private final boolean[] confirmed; // 흐름별로 같은 간격이 연속으로 나왔는지 여부
+	private final long[] lastUsed; // 흐름별 마지막 사용 시각 (가장 오래된 흐름을 교체)
+	private int streams; // 사용 중인 흐름 수
+	private int current = -1; // 마지막으로 갱신한 흐름
+	private long clock;
+	
+	public StridePrefetcher(int degree) {
+		this(degree, DEFAULT_STREAMS, DEFAULT_WINDOW);
+	}
+	
+	/**
+	 * @param degree 한 번에 미리 적재할 페이지 수
+	 * @param streams 동시에 추적할 흐름 수
+	 * @param window 같은 흐름으로 볼 최대 거리(페이지 수)
+	 */
+	public StridePrefetcher(int degree, int streams, int window) {
+		if (degree <= 0 || streams <= 0 || window <= 0) {
+			throw new IllegalArgumentException("degree, streams, window는 양수여야 합니다.");
+		}
+		this.degree = degree;
+		this.window = window;
+		this.lastPage = new long[streams];
+		this.stride = new long[streams];
+		this.confirmed = new boolean[streams];
+		this.lastUsed = new long[streams];
+	}
+	
+	@Override
+	public void observe(int page) {
+		long p = page & 0xFFFFFFFFL;
+		clock++;
+		// 가장 가까운 흐름을 찾는다.
+		int nearest = -1;
+		long nearestDistance = Long.MAX_VALUE;
+		for (int i = 0; i < streams; ++i) {
+			long distance = Math.abs(p - lastPage[i]);
+			if (distance <= window && distance < nearestDistance) {
+				nearest = i;
+				nearestDistance = distance;
+			}
+		}
+		if (nearest < 0) {
+			// 새 흐름: 빈 자리가 없으면 가장 오래 전에 사용된 흐름을 교체
+			if (streams < lastPage.length) {
+				nearest = streams++;
+			} else {
+				nearest = 0;
+				for (int i = 1; i < streams; ++i) {
+					if (lastUsed[i] < lastUsed[nearest]) nearest = i;
+				}
+			}
+			lastPage[nearest] = p;
+			stride[nearest] = 0;
+			confirmed[nearest] = false;
+		} else if (nearestDistance != 0) {
+			long s = p - lastPage[nearest];
+			confirmed[nearest] = s == stride[nearest];
+			stride[nearest] = s;
+			lastPage[nearest] = p;
+		}
+		lastUsed[nearest] = clock;
+		current = nearest;
+	}
+	
+	@Override
+	public int predict(int page, int[] out) {
+		if (current < 0 || !confirmed[current]) return 0;
+		int limit = Math.min(degree, out.length);
+		long s = stride[current];
+		int n = 0;
+		while (n < limit) {
+			long candidate = (page & 0xFFFFFFFFL) + s * (n + 1);
+			if (candidate < 0 || candidate > 0xFFFFFFFFL) break; // 페이지 번호 범위(부호 없는 32비트)를 벗어남
+			out[n++] = (int) candidate;
+		}
+		return n;
+	}
+	
+	@Override
+	public String getName() {
+		return "Stride";
+	}
+	
+	@Override
+	public void reset() {
+		streams = 0;
+		current = -1;
+		clock = 0;
+	}
+}
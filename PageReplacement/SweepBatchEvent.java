@@ -0,0 +1,33 @@
+package PageReplacement;
+
+import jdk.jfr.*;
+
+/**
+ * 하나의 정책을 여러 프레임 수로 연속 실행한 묶음(sweep)을 나타내는 JFR 이벤트이다.
+ * PageReplacementSimulator.runSweep()에서 묶음 전체를 감싸 기록한다.
+ */
+
+@Name("PageReplacement.SweepBatch")
+@Label("Sweep Batch")
+@Category("Page Replacement")
+@Description("A batch of runs of one policy over several frame sizes")
+@StackTrace(false)
+public class SweepBatchEvent extends Event {
+	@Label("Policy")
+	String policy; // 알고리즘 이름
+	
+	@Label("Runs")
+	int runs; // 실행한 프레임 수의 개수
+	
+	@Label("Min Frame Size")
+	int minFrameSize; // 가장 작은 프레임 수
+	
+	@Label("Max Frame Size")
+	int maxFrameSize; // 가장 큰 프레임 수
+	
+	@Label("Trace Length")
+	int traceLength; // 참조 문자열 길이
+	
+	@Label("Total Faults")
+	long totalFaults; // 모든 실행의 Fault 합
+}
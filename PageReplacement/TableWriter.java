@@ -0,0 +1,89 @@
+package PageReplacement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * 시뮬레이션 결과(참조별 사건, 구간별 지표, sweep 표)를 한 행씩 파일로 내보낸다.
+ * 열의 이름과 기본형 타입은 만들 때 정하며, 각 행은 열 순서대로 값을 쓴 뒤 endRow()로 끝낸다.
+ * 구현은 고정 크기 버퍼에 모아 채널에 쓰므로 전체 결과를 메모리에 만들지 않는다.
+ *
+ * - CsvTableWriter : 첫 줄이 열 이름인 CSV
+ * - ColumnarTableWriter : 열별 기본형 값을 묶음(chunk)으로 모은 이진 파일 (ColumnarTableReader로 읽는다)
+ */
+
+public interface TableWriter extends Closeable {
+	
+	// 열의 타입
+	enum Type {
+		BYTE(1), INT(4), LONG(8), DOUBLE(8);
+		
+		final int width; // 이진 형식에서 값 하나의 크기(byte)
+		
+		Type(int width) {
+			this.width = width;
+		}
+	}
+	
+	// 열 하나의 이름과 타입
+	final class Column {
+		private final String name;
+		private final Type type;
+		
+		public Column(String name, Type type) {
+			this.name = name;
+			this.type = type;
+		}
+		
+		public String getName() {
+			return name;
+		}
+		
+		public Type getType() {
+			return type;
+		}
+		
+		@Override
+		public String toString() {
+			return name + ":" + type;
+		}
+	}
+	
+	/**
+	 * 파일 이름이 .csv로 끝나면 CSV로, 아니면 이진 열 형식으로 쓰는 TableWriter를 만든다.
+	 * 같은 이름의 파일이 있으면 덮어쓴다.
+	 */
+	static TableWriter open(Path path, Column... columns) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			return path.getFileName().toString().endsWith(".csv")
+					? new CsvTableWriter(channel, columns)
+					: new ColumnarTableWriter(channel, columns);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	Column[] getColumns(); // 열 목록 (복사본)
+	
+	void writeByte(int value) throws IOException;
+	
+	void writeInt(int value) throws IOException;
+	
+	void writeLong(long value) throws IOException;
+	
+	void writeDouble(double value) throws IOException;
+	
+	// 행을 끝낸다. 모든 열의 값을 쓴 뒤에 호출해야 한다.
+	void endRow() throws IOException;
+	
+	long getRows(); // 끝낸 행 수
+	
+	// 남은 내용을 기록하고 채널을 닫는다. 끝나지 않은 행은 온전히 기록되지 않는다.
+	@Override
+	void close() throws IOException;
+}
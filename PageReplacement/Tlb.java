@@ -0,0 +1,154 @@
+package PageReplacement;
+
+import java.util.*;
+import java.util.function.LongPredicate;
+
+/**
+ * 집합 연관(set-associative) TLB를 흉내 낸다.
+ * 항목은 정수 키 하나로 구분하며 키의 어느 부분으로 집합을 고를지는 호출하는 쪽이 index로 넘긴다.
+ * (TlbSimulator는 기본 페이지와 huge page를 서로 다른 키로 저장한다)
+ */
+
+public class Tlb {
+	
+	// 집합 안에서 교체할 항목을 고르는 방식
+	public enum Replacement {
+		LRU, // 가장 오래 전에 사용된 항목
+		FIFO, // 가장 먼저 들어온 항목
+		RANDOM // 임의의 항목
+	}
+	
+	private static final long EMPTY = -1; // 비어 있는 항목의 키
+	
+	private final int sets; // 집합 수
+	private final int ways; // 집합당 항목 수
+	private final Replacement replacement;
+	private final long[] keys; // 집합 s의 항목은 keys[s * ways] ~ keys[s * ways + ways - 1]
+	private final long[] lastUsed; // LRU: 항목이 마지막으로 사용된 시각
+	private final int[] next; // FIFO: 집합마다 다음에 교체할 위치
+	private long clock; // LRU 시각
+	private long seed = 0x2545F4914F6CDD1DL; // RANDOM: xorshift 상태
+	
+	/**
+	 * @param entries 전체 항목 수
+	 * @param ways 집합당 항목 수 (entries와 같으면 완전 연관)
+	 * @param replacement 교체 방식
+	 */
+	public Tlb(int entries, int ways, Replacement replacement) {
+		if (entries <= 0 || ways <= 0 || entries % ways != 0) {
+			throw new IllegalArgumentException("항목 수(" + entries + ")는 연관도(" + ways + ")의 배수여야 합니다.");
+		}
+		this.sets = entries / ways;
+		this.ways = ways;
+		this.replacement = replacement;
+		this.keys = new long[entries];
+		this.lastUsed = new long[entries];
+		this.next = new int[sets];
+		flush();
+	}
+	
+	private int setOf(long index) {
+		return (int) Long.remainderUnsigned(index, sets);
+	}
+	
+	/**
+	 * 항목을 찾는다. 찾으면 LRU 시각을 갱신한다.
+	 * @param key 항목 키 (0 이상)
+	 * @param index 집합을 고를 때 사용할 값 (보통 가상 페이지 번호)
+	 * @return 찾았는지 여부
+	 */
+	public boolean lookup(long key, long index) {
+		int base = setOf(index) * ways;
+		for (int i = base; i < base + ways; ++i) {
+			if (keys[i] == key) {
+				lastUsed[i] = ++clock;
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * 항목을 추가한다. 집합이 가득 찼으면 교체 방식에 따라 하나를 내보낸다.
+	 * @return 내보낸 항목의 키, 빈 자리를 사용했으면 -1
+	 */
+	public long insert(long key, long index) {
+		int set = setOf(index);
+		int base = set * ways;
+		int slot = -1;
+		for (int i = base; i < base + ways; ++i) {
+			if (keys[i] == EMPTY) {
+				slot = i;
+				break;
+			}
+		}
+		if (slot < 0) {
+			switch (replacement) {
+				case LRU:
+					slot = base;
+					for (int i = base + 1; i < base + ways; ++i) {
+						if (lastUsed[i] < lastUsed[slot]) slot = i;
+					}
+					break;
+				case FIFO:
+					slot = base + next[set];
+					next[set] = (next[set] + 1) % ways;
+					break;
+				case RANDOM:
+					seed ^= seed << 13;
+					seed ^= seed >>> 7;
+					seed ^= seed << 17;
+					slot = base + (int) Long.remainderUnsigned(seed, ways);
+					break;
+			}
+		}
+		long old = keys[slot];
+		keys[slot] = key;
+		lastUsed[slot] = ++clock;
+		return old;
+	}
+	
+	// 항목을 무효화한다. 있었으면 true를 반환한다.
+	public boolean invalidate(long key, long index) {
+		int base = setOf(index) * ways;
+		for (int i = base; i < base + ways; ++i) {
+			if (keys[i] == key) {
+				keys[i] = EMPTY;
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	// 조건에 맞는 항목을 모두 무효화하고 그 수를 반환한다. (전체 항목을 훑는다)
+	public int invalidateIf(LongPredicate condition) {
+		int count = 0;
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != EMPTY && condition.test(keys[i])) {
+				keys[i] = EMPTY;
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	// 모든 항목을 비운다.
+	public void flush() {
+		Arrays.fill(keys, EMPTY);
+		Arrays.fill(lastUsed, 0);
+		Arrays.fill(next, 0);
+		clock = 0;
+	}
+	
+	public int getEntries() {
+		return keys.length;
+	}
+	
+	public int getWays() {
+		return ways;
+	}
+	
+	public Replacement getReplacement() {
+		return replacement;
+	}
+}
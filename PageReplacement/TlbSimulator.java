@@ -0,0 +1,234 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * OnlinePolicy 앞에 TLB 단계를 두고 주소 변환과 페이지 교체를 함께 시뮬레이션한다.
+ * 모든 참조는 TLB를 먼저 조회한 뒤 정책에도 그대로 전달되므로 Fault 수는 정책만 실행했을 때와 같고,
+ * 여기에 TLB Hit 비율과 페이지 테이블 탐색(page walk) 수가 더해진다.
+ *
+ * 연속된 기본 페이지 묶음(영역)에서 page walk가 promotionThreshold번 일어나면 그 영역을 huge page로 승격하여
+ * 영역 전체를 TLB 항목 하나로 변환한다. 적재 여부는 계속 기본 페이지 단위로 정책이 관리하며,
+ * 승격된 영역의 페이지가 교체되면 영역을 다시 기본 페이지로 분할한다.
+ * 교체된 페이지의 TLB 항목은 바로 무효화(shootdown)된다.
+ *
+ * 사용법: java PageReplacement.TlbSimulator <lackey|block|address> <알고리즘> <프레임 수> <파일>
+ *         [TLB 항목 수] [연관도] [lru|fifo|random] [승격 기준 page walk 수, 0이면 huge page 사용 안 함]
+ */
+
+public class TlbSimulator {
+	private static final int BASE_WALK_LEVELS = 4; // 기본 페이지 변환에 읽는 페이지 테이블 단계 수
+	private static final int HUGE_WALK_LEVELS = 3; // huge page는 마지막 단계를 건너뛴다.
+	
+	private final OnlinePolicy policy; // 적재 여부를 관리하는 정책
+	private final Tlb tlb;
+	private int hugeShift = 9; // log2(huge page 하나에 들어가는 기본 페이지 수), 기본 512 (4 KiB -> 2 MiB)
+	private int promotionThreshold = 0; // 영역을 승격하는 page walk 수 (0이면 승격하지 않음)
+	private final LongIntHashMap regionWalks = new LongIntHashMap(); // 승격되지 않은 영역별 page walk 수
+	private final LongIntHashMap promoted = new LongIntHashMap(); // 승격된 영역
+	
+	private long references; // 처리한 참조 수
+	private long tlbHits; // TLB Hit 수
+	private long hugeHits; // 그중 huge page 항목으로 Hit한 수
+	private long pageWalks; // page walk 수
+	private long walkSteps; // page walk 중 읽은 페이지 테이블 항목 수
+	private long faults; // 정책의 Fault 수
+	private long shootdowns; // 교체로 무효화된 TLB 항목 수
+	private long promotions; // huge page 승격 횟수
+	private long demotions; // huge page 분할 횟수
+	
+	public TlbSimulator(OnlinePolicy policy, Tlb tlb) {
+		this.policy = policy;
+		this.tlb = tlb;
+	}
+	
+	/**
+	 * huge page 사용 여부를 설정한다.
+	 * @param basePagesPerHuge huge page 하나에 들어가는 기본 페이지 수 (2의 거듭제곱)
+	 * @param promotionThreshold 영역을 승격하는 page walk 수, 0이면 huge page를 사용하지 않는다.
+	 */
+	public void setHugePages(int basePagesPerHuge, int promotionThreshold) {
+		if (basePagesPerHuge <= 1 || Integer.bitCount(basePagesPerHuge) != 1) {
+			throw new IllegalArgumentException("huge page 크기는 2 이상의 2의 거듭제곱이어야 합니다: " + basePagesPerHuge);
+		}
+		this.hugeShift = Integer.numberOfTrailingZeros(basePagesPerHuge);
+		this.promotionThreshold = Math.max(0, promotionThreshold);
+	}
+	
+	// TLB, 승격 상태, 통계와 정책을 모두 초기화한다.
+	public void reset() {
+		policy.reset();
+		tlb.flush();
+		regionWalks.clear();
+		promoted.clear();
+		references = tlbHits = hugeHits = pageWalks = walkSteps = faults = 0;
+		shootdowns = promotions = demotions = 0;
+	}
+	
+	/**
+	 * 페이지 하나를 참조한다.
+	 * @param page 참조할 페이지 번호
+	 * @return TLB Hit 여부
+	 */
+	public boolean access(int page) {
+		long vpn = page & 0xFFFFFFFFL;
+		long region = vpn >>> hugeShift;
+		boolean huge = promoted.containsKey(region);
+		boolean tlbHit = huge ? tlb.lookup(hugeKey(region), region) : tlb.lookup(baseKey(vpn), vpn);
+		
+		AccessResult result = policy.access(page);
+		references++;
+		if (!result.isHit()) faults++;
+		if (result.isEviction()) shootDown(result.getEvictedPage());
+		
+		// huge page 항목이 있어도 기본 페이지가 적재되어 있지 않았다면 Fault 처리 중 page walk가 일어난 것으로 본다.
+		if (tlbHit && result.isHit()) {
+			tlbHits++;
+			if (huge) hugeHits++;
+			return true;
+		}
+		pageWalks++;
+		huge = promoted.containsKey(region); // 같은 영역의 페이지가 방금 교체되어 분할되었을 수 있다.
+		walkSteps += huge ? HUGE_WALK_LEVELS : BASE_WALK_LEVELS;
+		if (huge) {
+			if (!tlbHit) tlb.insert(hugeKey(region), region);
+		} else {
+			tlb.insert(baseKey(vpn), vpn);
+			if (promotionThreshold > 0 && regionWalks.addTo(region, 1) >= promotionThreshold) promote(region);
+		}
+		return false;
+	}
+	
+	/**
+	 * 여러 페이지를 차례로 참조한다.
+	 * @return 이 구간의 TLB Hit 수
+	 */
+	public int accessAll(int[] pages, int off, int len) {
+		int hits = 0;
+		for (int i = off; i < off + len; ++i) {
+			if (access(pages[i])) hits++;
+		}
+		return hits;
+	}
+	
+	// 영역을 huge page로 승격하고 그 영역의 기본 페이지 항목을 TLB에서 지운다.
+	private void promote(long region) {
+		regionWalks.remove(region, 0);
+		promoted.put(region, 1);
+		promotions++;
+		int shift = hugeShift;
+		tlb.invalidateIf(key -> (key & 1) == 0 && (key >>> 1) >>> shift == region);
+		tlb.insert(hugeKey(region), region);
+	}
+	
+	// 교체된 페이지의 TLB 항목을 무효화한다. 승격된 영역이었다면 기본 페이지로 분할한다.
+	private void shootDown(int evictedPage) {
+		long vpn = evictedPage & 0xFFFFFFFFL;
+		long region = vpn >>> hugeShift;
+		if (tlb.invalidate(baseKey(vpn), vpn)) shootdowns++;
+		if (promoted.remove(region, 0) != 0) {
+			demotions++;
+			if (tlb.invalidate(hugeKey(region), region)) shootdowns++;
+		}
+	}
+	
+	// 기본 페이지와 huge page 항목이 겹치지 않도록 가장 아래 비트로 구분한다.
+	private static long baseKey(long vpn) {
+		return vpn << 1;
+	}
+	
+	private static long hugeKey(long region) {
+		return (region << 1) | 1;
+	}
+	
+	public OnlinePolicy getPolicy() {
+		return policy;
+	}
+	
+	public Tlb getTlb() {
+		return tlb;
+	}
+	
+	public long getReferences() {
+		return references;
+	}
+	
+	public long getTlbHits() {
+		return tlbHits;
+	}
+	
+	public long getHugeHits() {
+		return hugeHits;
+	}
+	
+	public long getPageWalks() {
+		return pageWalks;
+	}
+	
+	public long getWalkSteps() {
+		return walkSteps;
+	}
+	
+	public long getFaults() {
+		return faults;
+	}
+	
+	public long getShootdowns() {
+		return shootdowns;
+	}
+	
+	public long getPromotions() {
+		return promotions;
+	}
+	
+	public long getDemotions() {
+		return demotions;
+	}
+	
+	// 현재 huge page로 승격되어 있는 영역 수
+	public int getPromotedRegions() {
+		return promoted.size();
+	}
+	
+	public double getTlbHitRate() {
+		return references == 0 ? 0 : (double) tlbHits / references;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT,
+				"%s frames=%d TLB %d entries/%d-way %s%n"
+				+ "References : %d%n"
+				+ "TLB Hit : %d (%.2f%%, huge %d), Page walks : %d (%d steps)%n"
+				+ "Fault : %d%n"
+				+ "Shootdowns : %d, Promotions : %d, Demotions : %d, Huge regions : %d",
+				policy.getName(), policy.getFrameSize(), tlb.getEntries(), tlb.getWays(), tlb.getReplacement(),
+				references, tlbHits, getTlbHitRate() * 100, hugeHits, pageWalks, walkSteps,
+				faults, shootdowns, promotions, demotions, promoted.size());
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 4) {
+			System.err.println("사용법: TlbSimulator <lackey|block|address> <FIFO|LRU|Clock|LPR> <프레임 수> <파일>"
+					+ " [TLB 항목 수] [연관도] [lru|fifo|random] [승격 기준 page walk 수]");
+			System.exit(2);
+		}
+		int entries = args.length > 4 ? Integer.parseInt(args[4]) : 64;
+		int ways = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+		Tlb.Replacement replacement = args.length > 6
+				? Tlb.Replacement.valueOf(args[6].toUpperCase(Locale.ROOT)) : Tlb.Replacement.LRU;
+		int threshold = args.length > 7 ? Integer.parseInt(args[7]) : 0;
+		
+		int[] pages = new TraceImporter(TraceImporter.Format.of(args[0])).importFile(Paths.get(args[3]));
+		OnlinePolicy policy = PolicyFactory.createOnline(args[1]);
+		policy.setFrameSize(Integer.parseInt(args[2]));
+		
+		TlbSimulator simulator = new TlbSimulator(policy, new Tlb(entries, ways, replacement));
+		if (threshold > 0) simulator.setHugePages(512, threshold);
+		simulator.reset();
+		simulator.accessAll(pages, 0, pages.length);
+		System.out.println(simulator);
+	}
+}
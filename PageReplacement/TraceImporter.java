@@ -0,0 +1,490 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * 실제 메모리 접근 기록(trace) 파일을 읽어 페이지 번호 배열로 변환한다.
+ * 바이트 주소는 페이지 크기(기본 4096)로 나누어 페이지 번호로 바꾸며,
+ * 접근 범위가 페이지 경계를 넘으면 걸친 페이지를 모두 차례로 참조한 것으로 본다.
+ * 페이지 번호가 32비트를 넘으면 아래 32비트만 사용한다. (지역성은 아래 비트에 남는다)
+ *
+ * 파일은 줄 단위로 끊기는 chunk로 나누어 여러 스레드가 동시에 읽고, 결과는 파일 순서대로 합친다.
+ * 각 줄은 앞뒤 줄과 상관없이 변환되므로 병렬로 읽은 결과는 한 스레드로 읽은 결과와 같다.
+ *
+ * 사용법: java PageReplacement.TraceImporter <lackey|block|address> <알고리즘> <프레임 수> <파일 또는 -> [페이지 크기]
+ */
+
+public class TraceImporter {
+	
+	// 지원하는 trace 형식
+	public enum Format {
+		LACKEY, // Valgrind lackey(--trace-mem=yes) 출력: "I  0400d7d4,8", " L 1ffefffd80,8"
+		BLOCK, // 공백/쉼표로 구분된 블록 trace: LBA(섹터 번호)와 섹터 수 열
+		ADDRESS; // 한 줄에 주소 하나 (10진수 또는 0x로 시작하는 16진수)
+		
+		// 이름으로 형식을 찾는다. (대소문자 구분 없음)
+		public static Format of(String name) {
+			return valueOf(name.toUpperCase(Locale.ROOT));
+		}
+	}
+	
+	private static final int DEFAULT_CHUNK_SIZE = 1 << 22; // 병렬로 읽을 chunk 크기 (4 MiB)
+	private static final int MAX_LINE = 1 << 16; // 한 줄의 최대 길이
+	private static final int READ_BUFFER_SIZE = 1 << 16;
+	private static final int BATCH_SIZE = 4096;
+	
+	private final Format format; // trace 형식
+	private int pageShift = 12; // log2(페이지 크기)
+	private int sectorSize = 512; // BLOCK: 섹터 크기(byte)
+	private int lbaColumn = 0; // BLOCK: LBA가 있는 열 (0부터)
+	private int lengthColumn = 1; // BLOCK: 섹터 수가 있는 열 (-1이면 한 섹터로 본다)
+	private boolean instructions = true; // LACKEY: 명령어 읽기(I)도 참조로 볼지 여부
+	private int parallelism = Runtime.getRuntime().availableProcessors(); // 동시에 읽을 스레드 수
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	
+	public TraceImporter(Format format) {
+		this.format = format;
+	}
+	
+	/**
+	 * 페이지 크기를 설정한다.
+	 * @param pageSize 페이지 크기(byte), 2의 거듭제곱이어야 한다.
+	 */
+	public void setPageSize(int pageSize) {
+		if (pageSize <= 0 || Integer.bitCount(pageSize) != 1) {
+			throw new IllegalArgumentException("페이지 크기는 2의 거듭제곱이어야 합니다: " + pageSize);
+		}
+		pageShift = Integer.numberOfTrailingZeros(pageSize);
+	}
+	
+	public int getPageSize() {
+		return 1 << pageShift;
+	}
+	
+	public void setSectorSize(int sectorSize) {
+		if (sectorSize <= 0) throw new IllegalArgumentException("섹터 크기는 양수여야 합니다: " + sectorSize);
+		this.sectorSize = sectorSize;
+	}
+	
+	/**
+	 * BLOCK 형식에서 LBA와 섹터 수가 있는 열을 지정한다.
+	 * @param lbaColumn LBA 열 (0부터)
+	 * @param lengthColumn 섹터 수 열, 없으면 -1
+	 */
+	public void setBlockColumns(int lbaColumn, int lengthColumn) {
+		if (lbaColumn < 0) throw new IllegalArgumentException("LBA 열은 0 이상이어야 합니다: " + lbaColumn);
+		this.lbaColumn = lbaColumn;
+		this.lengthColumn = lengthColumn;
+	}
+	
+	public void setIncludeInstructions(boolean instructions) {
+		this.instructions = instructions;
+	}
+	
+	public void setParallelism(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+	}
+	
+	// 병렬로 읽을 chunk 크기를 설정한다. 한 줄의 최대 길이보다 작을 수 없다.
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = Math.max(MAX_LINE, chunkSize);
+	}
+	
+	/**
+	 * 파일 전체를 읽어 페이지 번호 배열로 반환한다.
+	 * @param path trace 파일
+	 * @return 참조 순서대로의 페이지 번호
+	 */
+	public int[] importFile(Path path) throws IOException {
+		List<PageBuffer> chunks = new ArrayList<>();
+		long[] total = new long[1];
+		forEachChunk(path, chunk -> {
+			chunks.add(chunk);
+			total[0] += chunk.size;
+		});
+		int[] pages = new int[checkedLength(total[0])];
+		int offset = 0;
+		for (PageBuffer chunk : chunks) {
+			System.arraycopy(chunk.pages, 0, pages, offset, chunk.size);
+			offset += chunk.size;
+		}
+		return pages;
+	}
+	
+	/**
+	 * 채널을 끝까지 한 스레드로 읽어 페이지 번호 배열로 반환한다. (표준 입력, pipe용)
+	 * @param in 입력 채널
+	 * @return 참조 순서대로의 페이지 번호
+	 */
+	public int[] read(ReadableByteChannel in) throws IOException {
+		PageBuffer out = new PageBuffer(BATCH_SIZE);
+		readLines(in, out, null);
+		return Arrays.copyOf(out.pages, out.size);
+	}
+	
+	/**
+	 * 파일을 병렬로 읽으면서 순서대로 정책에 전달한다.
+	 * 동시에 메모리에 있는 chunk는 스레드 수의 두 배로 제한된다.
+	 * @param path trace 파일
+	 * @param policy 참조를 전달할 정책
+	 * @return 전달한 참조 수
+	 */
+	public long feed(Path path, OnlinePolicy policy) throws IOException {
+		long[] count = new long[1];
+		forEachChunk(path, chunk -> {
+			policy.accessAll(chunk.pages, 0, chunk.size);
+			count[0] += chunk.size;
+		});
+		return count[0];
+	}
+	
+	/**
+	 * 채널을 한 스레드로 읽으면서 정책에 전달한다. (표준 입력, pipe용)
+	 * @param in 입력 채널
+	 * @param policy 참조를 전달할 정책
+	 * @return 전달한 참조 수
+	 */
+	public long feed(ReadableByteChannel in, OnlinePolicy policy) throws IOException {
+		return forEachBatch(in, (pages, size) -> policy.accessAll(pages, 0, size));
+	}
+	
+	/**
+	 * 파일을 병렬로 읽으면서 변환된 페이지 묶음을 파일 순서대로 sink에 넘긴다.
+	 * sink가 받은 배열은 호출이 끝난 뒤 다시 쓰이지 않지만, 보관하면 메모리가 늘어난다.
+	 * @param path trace 파일
+	 * @param sink (페이지 배열, 앞에서부터 유효한 개수)를 받는다.
+	 * @return 넘긴 참조 수
+	 */
+	long forEachBatch(Path path, ObjIntConsumer<int[]> sink) throws IOException {
+		long[] count = new long[1];
+		forEachChunk(path, chunk -> {
+			sink.accept(chunk.pages, chunk.size);
+			count[0] += chunk.size;
+		});
+		return count[0];
+	}
+	
+	/**
+	 * 채널을 한 스레드로 읽으면서 BATCH_SIZE 정도씩 변환된 페이지 묶음을 sink에 넘긴다. (표준 입력, pipe용)
+	 * sink가 받은 배열은 다음 묶음에 다시 쓰이므로 호출 안에서 처리하거나 복사해야 한다.
+	 * @return 넘긴 참조 수
+	 */
+	long forEachBatch(ReadableByteChannel in, ObjIntConsumer<int[]> sink) throws IOException {
+		PageBuffer out = new PageBuffer(BATCH_SIZE);
+		return readLines(in, out, sink);
+	}
+	
+	/**
+	 * 파일을 병렬로 읽어 페이지 번호를 이진 trace 파일로 저장한다.
+	 * 이진 trace는 머리말 없이 참조마다 little-endian int 하나를 기록한 파일이며,
+	 * ExternalOptimal처럼 trace를 여러 번, 또는 거꾸로 읽어야 하는 도구가 사용한다.
+	 * @param path trace 파일
+	 * @param target 저장할 이진 trace 파일
+	 * @return 기록한 참조 수
+	 */
+	public long exportBinary(Path path, Path target) throws IOException {
+		try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			long[] count = new long[1];
+			try {
+				forEachChunk(path, chunk -> {
+					try {
+						for (int i = 0; i < chunk.size; ++i) {
+							if (!buffer.hasRemaining()) drain(buffer, out);
+							buffer.putInt(chunk.pages[i]);
+						}
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+					count[0] += chunk.size;
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			drain(buffer, out);
+			return count[0];
+		}
+	}
+	
+	private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) out.write(buffer);
+		buffer.clear();
+	}
+	
+	// 파일을 chunk로 나누어 병렬로 변환하고, 변환된 chunk를 파일 순서대로 consumer에 넘긴다.
+	private void forEachChunk(Path path, java.util.function.Consumer<PageBuffer> consumer) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			long chunkCount = (fileSize + chunkSize - 1) / chunkSize;
+			ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+				Thread thread = new Thread(runnable, "TraceImporter");
+				thread.setDaemon(true);
+				return thread;
+			});
+			try {
+				ArrayDeque<Future<PageBuffer>> pending = new ArrayDeque<>();
+				long next = 0;
+				while (next < chunkCount || !pending.isEmpty()) {
+					while (next < chunkCount && pending.size() < parallelism * 2) {
+						long start = next++ * chunkSize;
+						long end = Math.min(fileSize, start + chunkSize);
+						pending.add(pool.submit(() -> parseChunk(channel, start, end, fileSize)));
+					}
+					consumer.accept(await(pending.poll()));
+				}
+			} finally {
+				pool.shutdownNow();
+			}
+		}
+	}
+	
+	private static PageBuffer await(Future<PageBuffer> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("trace 읽기가 중단되었습니다.");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) throw (IOException) cause;
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			throw new IOException(cause);
+		}
+	}
+	
+	/**
+	 * [start, end)에서 시작하는 줄들을 변환한다.
+	 * start 바로 앞이 줄바꿈이 아니면 첫 줄은 앞 chunk의 것이므로 건너뛰고,
+	 * end를 넘어가는 마지막 줄은 끝까지 읽는다.
+	 */
+	private PageBuffer parseChunk(FileChannel channel, long start, long end, long fileSize) throws IOException {
+		long from = Math.max(0, start - 1);
+		long to = Math.min(fileSize, end + MAX_LINE);
+		ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+		int limit = buffer.limit();
+		int owned = (int) (end - from); // 이 위치 전에 시작하는 줄까지 이 chunk가 처리한다.
+		int i = 0;
+		if (start > 0) {
+			while (i < limit && buffer.get(i) != '\n') i++;
+			i++;
+		}
+		PageBuffer out = new PageBuffer((int) ((end - start) / 16) + 16);
+		while (i < owned) {
+			int eol = i;
+			while (eol < limit && buffer.get(eol) != '\n') eol++;
+			if (eol == limit && to < fileSize) {
+				throw new IOException("줄이 너무 깁니다. (위치 " + (from + i) + ")");
+			}
+			parseLine(buffer, i, eol, out);
+			i = eol + 1;
+		}
+		return out;
+	}
+	
+	// 채널을 줄 단위로 읽는다. sink가 있으면 BATCH_SIZE마다 전달하고 out을 비운다.
+	private long readLines(ReadableByteChannel in, PageBuffer out, ObjIntConsumer<int[]> sink) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+		long count = 0;
+		boolean eof = false;
+		while (!eof) {
+			eof = in.read(buffer) < 0;
+			buffer.flip();
+			int limit = buffer.limit();
+			int lineStart = 0;
+			for (int i = 0; i < limit; ++i) {
+				if (buffer.get(i) == '\n') {
+					parseLine(buffer, lineStart, i, out);
+					lineStart = i + 1;
+				}
+			}
+			if (eof && lineStart < limit) {
+				parseLine(buffer, lineStart, limit, out); // 줄바꿈 없이 끝난 마지막 줄
+				lineStart = limit;
+			}
+			if (lineStart == 0 && limit == buffer.capacity()) {
+				throw new IOException("줄이 너무 깁니다.");
+			}
+			buffer.position(lineStart);
+			buffer.compact();
+			if (sink != null && (out.size >= BATCH_SIZE || eof)) {
+				sink.accept(out.pages, out.size);
+				count += out.size;
+				out.size = 0;
+			}
+		}
+		return sink != null ? count : out.size;
+	}
+	
+	// 한 줄을 형식에 맞게 변환한다. 형식에 맞지 않는 줄(머리말, 주석 등)은 건너뛴다.
+	private void parseLine(ByteBuffer b, int from, int to, PageBuffer out) {
+		switch (format) {
+			case LACKEY:
+				parseLackey(b, from, to, out);
+				break;
+			case BLOCK:
+				parseBlock(b, from, to, out);
+				break;
+			case ADDRESS:
+				int start = skipSeparators(b, from, to);
+				long address = parseNumber(b, start, tokenEnd(b, start, to));
+				if (address >= 0) addRange(address, 1, out);
+				break;
+		}
+	}
+	
+	// " L 1ffefffd80,8" 형태. "==1234== ..." 같은 머리말은 건너뛴다.
+	private void parseLackey(ByteBuffer b, int from, int to, PageBuffer out) {
+		int i = skipSeparators(b, from, to);
+		if (i >= to) return;
+		byte op = b.get(i);
+		if (op != 'I' && op != 'L' && op != 'S' && op != 'M') return;
+		if (op == 'I' && !instructions) return;
+		i = skipSeparators(b, i + 1, to);
+		long address = 0;
+		int digits = 0;
+		for (int d; i < to && (d = hexDigit(b.get(i))) >= 0; ++i) {
+			address = (address << 4) | d;
+			digits++;
+		}
+		if (digits == 0) return;
+		long size = 0;
+		if (i < to && b.get(i) == ',') {
+			for (++i; i < to && b.get(i) >= '0' && b.get(i) <= '9'; ++i) {
+				size = size * 10 + (b.get(i) - '0');
+			}
+		}
+		addRange(address, Math.max(1, size), out);
+	}
+	
+	// lbaColumn 열의 LBA와 lengthColumn 열의 섹터 수를 읽는다. LBA가 숫자가 아니면 머리말로 보고 건너뛴다.
+	private void parseBlock(ByteBuffer b, int from, int to, PageBuffer out) {
+		long lba = -1;
+		long sectors = 1;
+		int column = 0;
+		int last = Math.max(lbaColumn, lengthColumn);
+		for (int i = skipSeparators(b, from, to); i < to && column <= last; i = skipSeparators(b, i, to), ++column) {
+			int end = tokenEnd(b, i, to);
+			if (column == lbaColumn) {
+				lba = parseNumber(b, i, end);
+				if (lba < 0) return;
+			} else if (column == lengthColumn) {
+				sectors = Math.max(1, parseNumber(b, i, end));
+			}
+			i = end;
+		}
+		if (lba >= 0) addRange(lba * sectorSize, sectors * sectorSize, out);
+	}
+	
+	// [address, address + length) 범위가 걸친 페이지를 차례로 추가한다.
+	private void addRange(long address, long length, PageBuffer out) {
+		long first = address >>> pageShift;
+		long last = (address + length - 1) >>> pageShift;
+		for (long page = first; page <= last; ++page) {
+			out.add((int) page); // 32비트를 넘는 페이지 번호는 아래 32비트만 사용
+		}
+	}
+	
+	private static boolean isSeparator(byte c) {
+		return c == ' ' || c == '\t' || c == ',' || c == '\r';
+	}
+	
+	private static int skipSeparators(ByteBuffer b, int i, int to) {
+		while (i < to && isSeparator(b.get(i))) i++;
+		return i;
+	}
+	
+	private static int tokenEnd(ByteBuffer b, int i, int to) {
+		while (i < to && !isSeparator(b.get(i))) i++;
+		return i;
+	}
+	
+	private static int hexDigit(byte c) {
+		if (c >= '0' && c <= '9') return c - '0';
+		if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+		if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+		return -1;
+	}
+	
+	// 10진수 또는 0x로 시작하는 16진수를 읽는다. 숫자가 아니면 -1을 반환한다.
+	private static long parseNumber(ByteBuffer b, int from, int to) {
+		if (from >= to) return -1;
+		long value = 0;
+		if (to - from > 2 && b.get(from) == '0' && (b.get(from + 1) | 0x20) == 'x') {
+			for (int i = from + 2; i < to; ++i) {
+				int d = hexDigit(b.get(i));
+				if (d < 0) return -1;
+				value = (value << 4) | d;
+			}
+		} else {
+			for (int i = from; i < to; ++i) {
+				byte c = b.get(i);
+				if (c < '0' || c > '9') return -1;
+				value = value * 10 + (c - '0');
+			}
+		}
+		return value & Long.MAX_VALUE;
+	}
+	
+	private static int checkedLength(long length) throws IOException {
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IOException("참조 수(" + length + ")가 배열 하나에 담을 수 있는 크기를 넘습니다. feed()를 사용하세요.");
+		}
+		return (int) length;
+	}
+	
+	// 변환된 페이지 번호를 모으는 크기 가변 int 배열
+	private static final class PageBuffer {
+		int[] pages;
+		int size;
+		
+		PageBuffer(int capacity) {
+			pages = new int[Math.max(16, capacity)];
+		}
+		
+		void add(int page) {
+			if (size == pages.length) pages = Arrays.copyOf(pages, pages.length + (pages.length >> 1));
+			pages[size++] = page;
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 4) {
+			System.err.println("사용법: TraceImporter <lackey|block|address> <FIFO|LRU|Clock|LPR> <프레임 수> <파일 또는 -> [페이지 크기]");
+			System.exit(2);
+		}
+		TraceImporter importer = new TraceImporter(Format.of(args[0]));
+		if (args.length > 4) importer.setPageSize(Integer.parseInt(args[4]));
+		OnlinePolicy policy = PolicyFactory.createOnline(args[1]);
+		policy.setFrameSize(Integer.parseInt(args[2]));
+		policy.reset();
+		
+		long start = System.nanoTime();
+		long references;
+		long bytes = -1;
+		if (args[3].equals("-")) {
+			references = importer.feed(Channels.newChannel(System.in), policy);
+		} else {
+			Path path = Paths.get(args[3]);
+			bytes = Files.size(path);
+			references = importer.feed(path, policy);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		
+		System.out.println("=== " + policy.getName() + " Result ===");
+		System.out.println("References : " + references + " (page size " + importer.getPageSize() + ")");
+		System.out.println("Hit : " + policy.getHitCount() + ", Fault : " + policy.getFaultCount());
+		if (bytes >= 0) System.out.printf("Throughput : %.1f MB/s%n", bytes / seconds / 1e6);
+		System.out.printf("Throughput : %.2f M references/s%n", references / seconds / 1e6);
+	}
+}
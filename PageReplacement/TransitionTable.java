@@ -0,0 +1,97 @@
+package PageReplacement;
+
+import java.io.IOException;
+
+/**
+ * 페이지 A 다음에 페이지 B가 몇 번 참조되었는지를 세는 전이 횟수 표이다.
+ * LPR은 이 표로 교체 대상을 고르고, MarkovPrefetcher는 같은 표로 다음에 올 페이지를 예측한다.
+ *
+ * 페이지마다 가장 많이 뒤따른 페이지(횟수가 같으면 번호가 작은 페이지)를 함께 갱신해 두므로
+ * mostLikelyNext()는 후보를 훑지 않고 바로 답한다. 이 값은 기록 순서와 상관없이 횟수만으로 정해지므로
+ * 체크포인트에서 복원한 표도 같은 예측을 한다.
+ */
+
+final class TransitionTable {
+	private LongIntHashMap counts = new LongIntHashMap(); // (이전 페이지, 다음 페이지) -> 횟수
+	private LongIntHashMap totals = new LongIntHashMap(); // 이전 페이지 -> 뒤따른 참조 수의 합
+	private LongIntHashMap best = new LongIntHashMap(); // 이전 페이지 -> 가장 많이 뒤따른 페이지
+	
+	// (이전 페이지, 다음 페이지) 쌍을 counts의 키로 만든다.
+	private static long key(int from, int to) {
+		return ((long) from << 32) | (to & 0xFFFFFFFFL);
+	}
+	
+	// from 다음에 to가 참조되었음을 기록한다.
+	void record(int from, int to) {
+		int count = counts.addTo(key(from, to), 1);
+		totals.addTo(from, 1);
+		updateBest(from, to, count);
+	}
+	
+	// 가장 많이 뒤따른 페이지를 갱신한다. 횟수가 같으면 번호가 작은 페이지를 고른다.
+	private void updateBest(int from, int to, int count) {
+		int current = best.get(from, to);
+		if (current != to) {
+			int currentCount = counts.get(key(from, current), 0);
+			if (count < currentCount || (count == currentCount && current < to)) return;
+		}
+		best.put(from, to);
+	}
+	
+	// from 다음에 to가 참조된 횟수
+	int count(int from, int to) {
+		return counts.get(key(from, to), 0);
+	}
+	
+	// from 다음에 참조된 페이지 수의 합
+	int total(int from) {
+		return totals.get(from, 0);
+	}
+	
+	/**
+	 * from 다음에 가장 많이 참조된 페이지를 반환한다.
+	 * total(from)이 0이면 from을 그대로 반환한다.
+	 */
+	int mostLikelyNext(int from) {
+		return best.get(from, from);
+	}
+	
+	// 기록된 (이전 페이지, 다음 페이지) 쌍의 수
+	int size() {
+		return counts.size();
+	}
+	
+	void clear() {
+		counts = new LongIntHashMap();
+		totals = new LongIntHashMap();
+		best = new LongIntHashMap();
+	}
+	
+	// (이전 페이지, 다음 페이지, 횟수) 항목들을 기록한다.
+	void write(PolicyCheckpoint.Output out) throws IOException {
+		out.writeInt(counts.size());
+		for (int slot = 0; slot < counts.capacity(); ++slot) {
+			if (!counts.isUsed(slot)) continue;
+			long key = counts.keyAt(slot);
+			out.writeInt((int) (key >>> 32));
+			out.writeInt((int) key);
+			out.writeInt(counts.valueAt(slot));
+		}
+	}
+	
+	// write()로 기록한 항목들을 읽는다. 합계와 가장 많이 뒤따른 페이지는 다시 계산한다.
+	void read(PolicyCheckpoint.Input in) throws IOException {
+		int entries = in.readInt();
+		counts = new LongIntHashMap(entries);
+		totals = new LongIntHashMap();
+		best = new LongIntHashMap();
+		for (int i = 0; i < entries; ++i) {
+			int from = in.readInt();
+			int to = in.readInt();
+			int count = in.readInt();
+			counts.put(key(from, to), count);
+			totals.addTo(from, count);
+			updateBest(from, to, count);
+		}
+	}
+}
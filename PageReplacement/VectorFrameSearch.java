@@ -0,0 +1,40 @@
+package PageReplacement;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * FrameIndex의 벡터 검색 경로이다. jdk.incubator.vector 모듈이 있을 때만 로드된다.
+ * 플랫폼이 권장하는 폭(AVX2면 int 8개, AVX-512면 16개)으로 페이지 배열을 읽어 찾는 페이지와 비교한다.
+ */
+
+final class VectorFrameSearch {
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+	
+	private VectorFrameSearch() {
+	}
+	
+	// 한 번에 비교하는 int 수
+	static int lanes() {
+		return SPECIES.length();
+	}
+	
+	/**
+	 * pages의 앞 size개 중 page가 있는 위치를 반환한다.
+	 * @return 처음 찾은 위치, 없으면 -1
+	 */
+	static int indexOf(int[] pages, int size, int page) {
+		IntVector key = IntVector.broadcast(SPECIES, page);
+		int bound = SPECIES.loopBound(size);
+		int i = 0;
+		for (; i < bound; i += SPECIES.length()) {
+			VectorMask<Integer> match = IntVector.fromArray(SPECIES, pages, i).eq(key);
+			if (match.anyTrue()) return i + match.firstTrue();
+		}
+		for (; i < size; ++i) {
+			if (pages[i] == page) return i;
+		}
+		return -1;
+	}
+}
@@ -8,6 +8,8 @@ module Operating_System {
 	requires javafx.controls;
 	requires javafx.fxml;
 	requires javafx.graphics;
+	requires jdk.jfr;
+	requires static jdk.incubator.vector; // 있으면 FrameIndex가 벡터 비교를 사용한다.
 	
 	exports PageReplacement;
 }
\ No newline at end of file
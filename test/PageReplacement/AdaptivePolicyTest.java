@@ -0,0 +1,194 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * AdaptivePolicy를 다른 OnlinePolicy처럼 쓸 수 있는지 확인한다.
+ * - 정책을 바꾸지 않으면 첫 번째 후보를 혼자 실행한 것과 사건(Hit/Fault/교체)이 같아야 한다.
+ * - 정책을 바꾸어도 리스너는 새 정책으로 옮겨지고, 사건의 위치는 0부터 1씩 끊김 없이 늘어야 한다.
+ * - 중간에 저장한 체크포인트에서 이어서 실행한 결과는 한 번에 실행한 결과와 같아야 한다.
+ *
+ * 사용법: java PageReplacement.AdaptivePolicyTest
+ */
+
+public class AdaptivePolicyTest {
+	private static final int FRAMES = 16;
+	
+	// 사건을 문자열로 모으고 위치가 끊김 없이 늘어나는지 확인하는 리스너
+	private static final class EventLog implements ReferenceListener {
+		private final StringBuilder events = new StringBuilder();
+		private long next; // 다음 Hit/Fault의 위치
+		private long hits, faults;
+		
+		private void check(long time) {
+			Check.equal(next++, time, "사건의 위치");
+		}
+		
+		@Override
+		public void onHit(long time, int page) {
+			check(time);
+			hits++;
+			events.append('h').append(time).append(':').append(page).append(' ');
+		}
+		
+		@Override
+		public void onFault(long time, int page) {
+			check(time);
+			faults++;
+			events.append('f').append(time).append(':').append(page).append(' ');
+		}
+		
+		@Override
+		public void onEviction(long time, int victim, int page) {
+			events.append('e').append(victim).append(' ');
+		}
+		
+		@Override
+		public String toString() {
+			return events.toString();
+		}
+	}
+	
+	/**
+	 * 앞쪽 절반은 자주 쓰는 페이지와 한 번만 쓰는 페이지를 섞어 LRU가 앞서고,
+	 * 뒤쪽 절반은 프레임보다 조금 큰 반복이라 FIFO와 LRU가 비슷해진다.
+	 */
+	static List<Character> referenceString(int length, long seed) {
+		Random random = new Random(seed);
+		List<Character> references = new ArrayList<>(length);
+		int scan = 1_000;
+		for (int i = 0; i < length; ++i) {
+			if (i < length / 2) {
+				references.add((char) (random.nextInt(3) != 0 ? random.nextInt(FRAMES / 2) : scan++));
+			} else {
+				references.add((char) (i % (FRAMES + 2)));
+			}
+		}
+		return references;
+	}
+	
+	static AdaptivePolicy create(List<Character> references, ReferenceListener listener) {
+		AdaptivePolicy policy = new AdaptivePolicy(FRAMES, "FIFO", "LRU");
+		policy.setSamplingShift(0);
+		policy.setEpoch(64);
+		policy.setPatience(1);
+		policy.setReferenceString(references);
+		policy.setReferenceListener(listener);
+		return policy;
+	}
+	
+	// 프레임이 적어 정책을 바꾸지 않으면 첫 번째 후보와 같다.
+	static void testNotAdapting(List<Character> references) {
+		EventLog expected = new EventLog();
+		PageReplacementPolicy fifo = PolicyFactory.create("FIFO");
+		fifo.setReferenceString(references);
+		fifo.setFrameSize(FRAMES);
+		fifo.setReferenceListener(expected);
+		fifo.run();
+		
+		EventLog actual = new EventLog();
+		AdaptivePolicy adaptive = new AdaptivePolicy(FRAMES, "FIFO", "LRU");
+		adaptive.setReferenceString(references);
+		adaptive.setReferenceListener(actual);
+		adaptive.run();
+		Check.isTrue(!adaptive.isAdapting(), "프레임이 적으면 정책을 바꾸지 않아야 합니다.");
+		Check.equal(fifo.getHitCount(), adaptive.getHitCount(), "Hit 수");
+		Check.equal(fifo.getFaultCount(), adaptive.getFaultCount(), "Fault 수");
+		Check.isTrue(expected.toString().equals(actual.toString()), "사건 순서가 다릅니다.");
+	}
+	
+	// 정책을 바꾸어도 리스너와 참조 결과가 이어진다.
+	static void testSwitches(List<Character> references) {
+		EventLog log = new EventLog();
+		AdaptivePolicy adaptive = create(references, log);
+		adaptive.reset();
+		int[] resident = new int[FRAMES];
+		for (int i = 0; i < references.size(); ++i) {
+			AccessResult result = adaptive.access(references.get(i));
+			Check.isTrue(result == adaptive.getLastResult(), "getLastResult()");
+			Check.equal(i, result.getTime(), "결과의 위치");
+			Check.equal(references.get(i), result.getPage(), "결과의 페이지");
+			int n = adaptive.getResidentPages(resident);
+			Check.isTrue(n <= FRAMES, "적재된 페이지 수 " + n);
+			boolean found = false;
+			for (int j = 0; j < n; ++j) {
+				found |= resident[j] == result.getPage();
+			}
+			Check.isTrue(found, i + "번째 참조한 페이지가 적재되어 있지 않습니다.");
+		}
+		Check.isTrue(adaptive.isAdapting(), "정책을 바꿀 수 있어야 합니다.");
+		Check.isTrue(adaptive.getSwitches().size() >= 1, "정책을 한 번도 바꾸지 않았습니다.");
+		Check.equal(references.size(), adaptive.getPosition(), "처리한 참조 수");
+		Check.equal(references.size(), log.next, "리스너가 받은 사건 수");
+		Check.equal(adaptive.getHitCount(), log.hits, "리스너가 받은 Hit 수");
+		Check.equal(adaptive.getFaultCount(), log.faults, "리스너가 받은 Fault 수");
+		
+		// 리스너를 바꾸면 지금 정책에 설정된다.
+		EventLog later = new EventLog();
+		later.next = adaptive.getPosition();
+		adaptive.setReferenceListener(later);
+		adaptive.access(-1);
+		Check.equal(1, later.faults, "바꾼 리스너가 받은 Fault 수");
+		Check.equal(references.size(), log.next, "이전 리스너가 받은 사건 수");
+	}
+	
+	static void testResume(List<Character> references, long cut, Path dir) throws IOException {
+		EventLog expected = new EventLog();
+		AdaptivePolicy whole = create(references, expected);
+		whole.run();
+		
+		EventLog actual = new EventLog();
+		AdaptivePolicy first = create(references, actual);
+		first.reset();
+		first.resume(cut);
+		Path saved = dir.resolve("adaptive.ckpt");
+		PolicyCheckpoint.save(first, saved);
+		
+		AdaptivePolicy second = create(references, actual);
+		PolicyCheckpoint.restore(second, saved);
+		Check.equal(cut, second.getPosition(), "복원한 위치");
+		Path again = dir.resolve("adaptive-again.ckpt");
+		PolicyCheckpoint.save(second, again);
+		Check.isTrue(Arrays.equals(Files.readAllBytes(saved), Files.readAllBytes(again)), "복원한 상태를 다시 저장한 파일이 다릅니다.");
+		
+		second.resume();
+		Check.equal(whole.getHitCount(), second.getHitCount(), cut + "에서 이어서 실행한 Hit 수");
+		Check.equal(whole.getFaultCount(), second.getFaultCount(), cut + "에서 이어서 실행한 Fault 수");
+		Check.equal(whole.getSwitches().size(), second.getSwitches().size(), cut + "에서 이어서 실행한 바꾼 횟수");
+		Check.isTrue(whole.toString().equals(second.toString()), cut + "에서 이어서 실행한 요약이 다릅니다.");
+		Check.isTrue(expected.toString().equals(actual.toString()), cut + "에서 이어서 실행한 사건 순서가 다릅니다.");
+		
+		// 표본 비율이 다른 정책에는 복원하지 않는다.
+		AdaptivePolicy other = create(references, ReferenceListener.NONE);
+		other.setSamplingShift(1);
+		try {
+			PolicyCheckpoint.restore(other, saved);
+			throw new AssertionError("표본 비율이 다른 정책에 복원했습니다.");
+		} catch (IllegalArgumentException e) {
+			// 기대한 결과
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		List<Character> references = referenceString(20_000, 40);
+		testNotAdapting(references);
+		testSwitches(references);
+		Path dir = Files.createTempDirectory("adaptive");
+		try {
+			testResume(references, 0, dir);
+			testResume(references, 7_777, dir);
+			testResume(references, 12_345, dir);
+			testResume(references, references.size(), dir);
+		} finally {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+				for (Path file : files) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(dir);
+		}
+		System.out.println("AdaptivePolicyTest OK");
+	}
+}
@@ -0,0 +1,19 @@
+package PageReplacement;
+
+/**
+ * 테스트용 확인 함수이다. 조건이 맞지 않으면 AssertionError를 던진다.
+ * (JUnit 없이 각 테스트 클래스의 main으로 실행한다)
+ */
+
+final class Check {
+	private Check() {
+	}
+	
+	static void isTrue(boolean condition, String what) {
+		if (!condition) throw new AssertionError(what);
+	}
+	
+	static void equal(long expected, long actual, String what) {
+		if (expected != actual) throw new AssertionError(what + ": 기대값 " + expected + ", 실제값 " + actual);
+	}
+}
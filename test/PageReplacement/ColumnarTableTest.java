@@ -0,0 +1,136 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ColumnarTableWriter로 쓴 값을 ColumnarTableReader로 읽으면 그대로 돌아오는지 확인한다.
+ * - 여러 묶음(CHUNK_ROWS행)에 걸치는 행 수와 타입별 경계값(최솟값, 최댓값, NaN, -0.0)을 사용한다.
+ * - copyTo()로 CSV로 옮긴 파일은 같은 행을 CsvTableWriter로 직접 쓴 파일과 byte 단위로 같아야 한다.
+ * - 끝나지 않은 행은 기록되지 않고, 행이 없는 표도 읽을 수 있어야 한다.
+ *
+ * 사용법: java PageReplacement.ColumnarTableTest
+ */
+
+public class ColumnarTableTest {
+	private static final TableWriter.Column[] COLUMNS = {
+			new TableWriter.Column("b", TableWriter.Type.BYTE),
+			new TableWriter.Column("i", TableWriter.Type.INT),
+			new TableWriter.Column("l", TableWriter.Type.LONG),
+			new TableWriter.Column("d", TableWriter.Type.DOUBLE),
+			new TableWriter.Column("\"이름\",쉼표", TableWriter.Type.INT) };
+	private static final long[] LONGS = { 0, -1, Long.MIN_VALUE, Long.MAX_VALUE };
+	private static final double[] DOUBLES = { 0.0, -0.0, Double.NaN, Double.MIN_VALUE, Double.MAX_VALUE,
+			Double.NEGATIVE_INFINITY };
+	
+	// row번째 행의 값
+	private static byte byteValue(int row) {
+		return (byte) (row * 37);
+	}
+	
+	private static int intValue(int row) {
+		return row % 5 == 0 ? Integer.MIN_VALUE + row : row * -7919;
+	}
+	
+	private static long longValue(int row) {
+		return row < LONGS.length ? LONGS[row] : (long) row * 0x9E3779B97F4A7C15L;
+	}
+	
+	private static double doubleValue(int row) {
+		return row < DOUBLES.length ? DOUBLES[row] : row / 3.0;
+	}
+	
+	static void writeRows(TableWriter out, int rows) throws IOException {
+		for (int row = 0; row < rows; ++row) {
+			out.writeByte(byteValue(row));
+			out.writeInt(intValue(row));
+			out.writeLong(longValue(row));
+			out.writeDouble(doubleValue(row));
+			out.writeInt(row);
+			out.endRow();
+		}
+	}
+	
+	static void testRoundTrip(Path dir, int rows) throws IOException {
+		Path binary = dir.resolve("table.bin");
+		try (TableWriter out = TableWriter.open(binary, COLUMNS)) {
+			writeRows(out, rows);
+			out.writeByte(1); // 끝나지 않은 행
+			Check.equal(rows, out.getRows(), "쓴 행 수");
+		}
+		
+		try (ColumnarTableReader in = ColumnarTableReader.open(binary)) {
+			TableWriter.Column[] columns = in.getColumns();
+			Check.equal(COLUMNS.length, columns.length, "열 수");
+			for (int i = 0; i < columns.length; ++i) {
+				Check.isTrue(columns[i].getName().equals(COLUMNS[i].getName())
+						&& columns[i].getType() == COLUMNS[i].getType(), "열 " + columns[i]);
+			}
+			int row = 0;
+			for (int n = in.next(); n > 0; n = in.next()) {
+				Check.isTrue(n <= ColumnarTableWriter.CHUNK_ROWS, "묶음 크기 " + n);
+				for (int r = 0; r < n; ++r, ++row) {
+					Check.equal(byteValue(row), in.getByte(0, r), row + "행 byte");
+					Check.equal(intValue(row), in.getInt(1, r), row + "행 int");
+					Check.equal(longValue(row), in.getLong(2, r), row + "행 long");
+					Check.equal(Double.doubleToRawLongBits(doubleValue(row)), Double.doubleToRawLongBits(in.getDouble(3, r)),
+							row + "행 double");
+					Check.equal(row, in.getInt(4, r), row + "행 번호");
+				}
+			}
+			Check.equal(rows, row, "읽은 행 수");
+			Check.equal(rows, in.getRows(), "getRows()");
+			Check.equal(0, in.next(), "끝난 뒤의 next()");
+		}
+		
+		Path direct = dir.resolve("direct.csv");
+		try (TableWriter out = TableWriter.open(direct, COLUMNS)) {
+			writeRows(out, rows);
+		}
+		Path copied = dir.resolve("copied.csv");
+		try (ColumnarTableReader in = ColumnarTableReader.open(binary);
+				TableWriter out = TableWriter.open(copied, in.getColumns())) {
+			Check.equal(rows, in.copyTo(out), "CSV로 옮긴 행 수");
+		}
+		Check.isTrue(Arrays.equals(Files.readAllBytes(direct), Files.readAllBytes(copied)), rows + "행 CSV가 다릅니다.");
+	}
+	
+	// 이진 파일이 잘리면 IOException을 던진다.
+	static void testTruncated(Path dir) throws IOException {
+		Path binary = dir.resolve("table.bin");
+		try (TableWriter out = TableWriter.open(binary, COLUMNS)) {
+			writeRows(out, 100);
+		}
+		byte[] bytes = Files.readAllBytes(binary);
+		Path truncated = dir.resolve("truncated.bin");
+		Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+		try (ColumnarTableReader in = ColumnarTableReader.open(truncated)) {
+			while (in.next() > 0) {
+				// 끝까지 읽는다.
+			}
+			throw new AssertionError("잘린 파일을 끝까지 읽었습니다.");
+		} catch (IOException e) {
+			// 기대한 결과
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		Path dir = Files.createTempDirectory("table");
+		try {
+			testRoundTrip(dir, 0);
+			testRoundTrip(dir, 1);
+			testRoundTrip(dir, ColumnarTableWriter.CHUNK_ROWS);
+			testRoundTrip(dir, 2 * ColumnarTableWriter.CHUNK_ROWS + 123);
+			testTruncated(dir);
+		} finally {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+				for (Path file : files) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(dir);
+		}
+		System.out.println("ColumnarTableTest OK");
+	}
+}
@@ -0,0 +1,87 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ExternalOptimal의 Hit/Fault 수가 메모리에서 실행한 OptimalPageReplacement와 같은지 랜덤 trace로 확인한다.
+ * chunk 크기를 작게 하여 spill 파일을 여러 chunk로 나누어 쓰고 읽게 하며,
+ * 프레임 수가 서로 다른 페이지 수 이상이라 교체가 없는 경우와 빈 trace도 확인한다.
+ *
+ * 사용법: java PageReplacement.ExternalOptimalTest
+ */
+
+public class ExternalOptimalTest {
+	private static final int[] CHUNK_SIZES = { 1, 7, 1_000, 1 << 20 };
+	
+	// 지역성이 있는 랜덤 참조 문자열 (작업 집합이 가끔 옮겨 간다)
+	static List<Character> referenceString(int length, int pages, long seed) {
+		Random random = new Random(seed);
+		List<Character> references = new ArrayList<>(length);
+		int base = 0;
+		for (int i = 0; i < length; ++i) {
+			if (random.nextInt(500) == 0) base = random.nextInt(pages);
+			int page = random.nextInt(4) == 0 ? random.nextInt(pages) : (base + random.nextInt(Math.min(pages, 6))) % pages;
+			references.add((char) ('A' + page));
+		}
+		return references;
+	}
+	
+	static Path writeBinary(List<Character> references, Path dir) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(references.size() * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		for (char c : references) {
+			buffer.putInt(c);
+		}
+		return Files.write(dir.resolve("trace.bin"), buffer.array());
+	}
+	
+	static void test(List<Character> references, int frames, Path dir) throws IOException {
+		OptimalPageReplacement expected = new OptimalPageReplacement();
+		expected.setReferenceString(references);
+		expected.setFrameSize(frames);
+		expected.run();
+		
+		Path trace = writeBinary(references, dir);
+		for (int chunkSize : CHUNK_SIZES) {
+			String what = references.size() + "개 참조, " + frames + "프레임, chunk " + chunkSize;
+			ExternalOptimal optimal = new ExternalOptimal(frames);
+			optimal.setSpillDirectory(dir);
+			optimal.setChunkSize(chunkSize);
+			optimal.run(trace);
+			Check.equal(references.size(), optimal.getReferences(), what + " 참조 수");
+			Check.equal(expected.getHitCount(), optimal.getHitCount(), what + " Hit 수");
+			Check.equal(expected.getFaultCount(), optimal.getFaultCount(), what + " Fault 수");
+		}
+		Files.delete(trace);
+	}
+	
+	public static void main(String[] args) throws IOException {
+		Path dir = Files.createTempDirectory("optimal");
+		try {
+			test(new ArrayList<>(), 3, dir);
+			test(referenceString(1, 5, 1), 3, dir);
+			for (long seed = 1; seed <= 5; ++seed) {
+				int pages = 5 + (int) seed * 7;
+				List<Character> references = referenceString(5_000, pages, seed);
+				Set<Character> distinct = new HashSet<>(references);
+				for (int frames : new int[] { 1, 2, 4, 9, distinct.size() - 1, distinct.size(), distinct.size() + 3 }) {
+					test(references, frames, dir);
+				}
+			}
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+				Check.isTrue(!files.iterator().hasNext(), "spill 파일이 남아 있습니다.");
+			}
+		} finally {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+				for (Path file : files) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(dir);
+		}
+		System.out.println("ExternalOptimalTest OK");
+	}
+}
@@ -0,0 +1,181 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * FanOutPipeline의 작업 스레드마다 Hit/Fault 수가 같은 정책에 trace 전체를 accessAll()로 넣은 결과와 같은지 확인한다.
+ * 원형 버퍼를 작게 잡고 일부러 느린 작업 스레드를 넣어 읽는 스레드가 기다리는 경우(back-pressure)도 거치게 한다.
+ *
+ * 사용법: java PageReplacement.FanOutPipelineTest
+ */
+
+public class FanOutPipelineTest {
+	private static final String[] NAMES = { "FIFO", "LRU", "Clock", "LPR" };
+	private static final int[] FRAMES = { 16, 64 };
+	
+	// 참조 every개마다 잠깐 멈추는 리스너 (느린 작업 스레드)
+	private static final class SlowListener implements ReferenceListener {
+		private final int every;
+		
+		SlowListener(int every) {
+			this.every = every;
+		}
+		
+		private void pause(long time) {
+			if (time % every == 0) LockSupport.parkNanos(50_000);
+		}
+		
+		@Override
+		public void onHit(long time, int page) {
+			pause(time);
+		}
+		
+		@Override
+		public void onFault(long time, int page) {
+			pause(time);
+		}
+		
+		@Override
+		public void onEviction(long time, int victim, int page) {
+		}
+	}
+	
+	// 참조 limit개를 처리하면 실패하는 리스너
+	private static final class FailingListener implements ReferenceListener {
+		private final long limit;
+		
+		FailingListener(long limit) {
+			this.limit = limit;
+		}
+		
+		private void check(long time) {
+			if (time >= limit) throw new IllegalStateException("실패 시험");
+		}
+		
+		@Override
+		public void onHit(long time, int page) {
+			check(time);
+		}
+		
+		@Override
+		public void onFault(long time, int page) {
+			check(time);
+		}
+		
+		@Override
+		public void onEviction(long time, int victim, int page) {
+		}
+	}
+	
+	// 지역성이 있는 주소 trace를 ADDRESS 형식으로 쓴다.
+	static void writeTrace(Path path, int references, long seed) throws IOException {
+		Random random = new Random(seed);
+		try (Writer out = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+			out.write("# addresses\n");
+			long page = 0;
+			for (int i = 0; i < references; ++i) {
+				int r = random.nextInt(100);
+				if (r < 60) page += random.nextInt(3) - 1; // 가까운 페이지
+				else if (r < 90) page = random.nextInt(200); // 자주 쓰는 영역
+				else page = random.nextInt(5_000); // 넓은 영역
+				long address = Math.max(0, page) * 4096 + random.nextInt(4096);
+				out.write(i % 2 == 0 ? "0x" + Long.toHexString(address) : Long.toString(address));
+				out.write('\n');
+			}
+		}
+	}
+	
+	static OnlinePolicy create(String name, int frames) {
+		OnlinePolicy policy = PolicyFactory.createOnline(name);
+		policy.setFrameSize(frames);
+		policy.reset();
+		return policy;
+	}
+	
+	// 각 정책을 따로 실행한 결과와 비교한다.
+	static void compareWithStandalone(FanOutPipeline pipeline, int[] pages) {
+		for (FanOutPipeline.Worker worker : pipeline.getWorkers()) {
+			OnlinePolicy policy = worker.getPolicy();
+			String what = policy.getName() + " frames=" + policy.getFrameSize();
+			Check.isTrue(worker.getFailure() == null, what + " 실패: " + worker.getFailure());
+			Check.equal(pages.length, worker.getReferences(), what + " 처리한 참조 수");
+			
+			OnlinePolicy standalone = create(policy.getName(), policy.getFrameSize());
+			standalone.accessAll(pages, 0, pages.length);
+			Check.equal(standalone.getHitCount(), policy.getHitCount(), what + " Hit 수");
+			Check.equal(standalone.getFaultCount(), policy.getFaultCount(), what + " Fault 수");
+		}
+	}
+	
+	static FanOutPipeline createPipeline() {
+		FanOutPipeline pipeline = new FanOutPipeline(4, 512); // 2048 참조만 담아 back-pressure가 자주 걸리게 한다.
+		for (String name : NAMES) {
+			for (int frames : FRAMES) {
+				pipeline.addPolicy(create(name, frames));
+			}
+		}
+		OnlinePolicy slow = create("LRU", 32);
+		slow.setReferenceListener(new SlowListener(1_000));
+		pipeline.addPolicy(slow);
+		return pipeline;
+	}
+	
+	static void testFile(TraceImporter importer, Path trace, int[] pages) throws IOException {
+		FanOutPipeline pipeline = createPipeline();
+		Check.equal(pages.length, pipeline.run(importer, trace), "전달한 참조 수");
+		Check.isTrue(pipeline.getStallTime() > 0, "느린 작업 스레드를 기다리지 않았습니다.");
+		compareWithStandalone(pipeline, pages);
+	}
+	
+	static void testChannel(TraceImporter importer, Path trace, int[] pages) throws IOException {
+		FanOutPipeline pipeline = createPipeline();
+		try (FileChannel in = FileChannel.open(trace, StandardOpenOption.READ)) {
+			Check.equal(pages.length, pipeline.run(importer, in), "채널로 전달한 참조 수");
+		}
+		compareWithStandalone(pipeline, pages);
+	}
+	
+	// 작업 스레드 하나가 실패해도 멈추지 않고, 나머지 정책은 끝까지 처리한 뒤 예외를 다시 던진다.
+	static void testFailure(TraceImporter importer, Path trace, int[] pages) throws IOException {
+		FanOutPipeline pipeline = new FanOutPipeline(4, 512);
+		pipeline.addPolicy(create("FIFO", 16));
+		OnlinePolicy failing = create("LRU", 16);
+		failing.setReferenceListener(new FailingListener(10_000));
+		pipeline.addPolicy(failing);
+		try {
+			pipeline.run(importer, trace);
+			throw new AssertionError("작업 스레드의 예외가 전달되지 않았습니다.");
+		} catch (IllegalStateException e) {
+			Check.isTrue(e.getMessage().equals("실패 시험"), "다른 예외: " + e);
+		}
+		FanOutPipeline.Worker ok = pipeline.getWorkers().get(0);
+		Check.isTrue(ok.getFailure() == null, "FIFO 작업 스레드 실패");
+		Check.equal(pages.length, ok.getReferences(), "FIFO 처리한 참조 수");
+		Check.isTrue(pipeline.getWorkers().get(1).getFailure() instanceof IllegalStateException, "LRU 작업 스레드 예외");
+	}
+	
+	public static void main(String[] args) throws IOException {
+		Path trace = Files.createTempFile("fanout", ".txt");
+		try {
+			writeTrace(trace, 300_000, 41);
+			TraceImporter importer = new TraceImporter(TraceImporter.Format.ADDRESS);
+			importer.setChunkSize(1 << 16); // 여러 chunk로 나누어 병렬로 읽게 한다.
+			importer.setParallelism(4);
+			int[] pages = importer.importFile(trace);
+			Check.equal(300_000, pages.length, "trace 길이");
+			
+			testFile(importer, trace, pages);
+			testChannel(importer, trace, pages);
+			testFailure(importer, trace, pages);
+		} finally {
+			Files.deleteIfExists(trace);
+		}
+		System.out.println("FanOutPipelineTest OK");
+	}
+}
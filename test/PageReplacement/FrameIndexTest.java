@@ -0,0 +1,130 @@
+package PageReplacement;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * FrameIndex의 벡터 검색과 하나씩 비교하는 검색이 같은 contains()/indexOf() 결과를 내는지 확인한다.
+ * - 페이지 수 0부터 lane 수의 3배 + 2까지(lanes - 1, lanes, lanes + 1 포함) 모든 크기에서 일반 반복문과 비교한다.
+ * - 마지막 프레임을 set()으로 바꾸고, clear() 후 더 적게 다시 add()하여 크기 밖에 남은 페이지가 검색되지 않는지 확인한다.
+ * - 벡터 모듈이 있으면 VectorFrameSearch.indexOf()도 직접 비교하고,
+ *   -Dpagereplacement.scalar=true로 실행한 자식 JVM의 결과 요약과 비교한다. (VECTOR_MIN은 클래스 로드 시 정해진다)
+ *
+ * 사용법: java --add-modules jdk.incubator.vector PageReplacement.FrameIndexTest
+ */
+
+public class FrameIndexTest {
+	private static final int[] SPECIAL = { 0, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE };
+	
+	// 요약 값에 결과 하나를 섞는다.
+	private static long mix(long digest, int value) {
+		return (digest ^ value) * 0x100000001b3L;
+	}
+	
+	private static int scalarIndexOf(int[] pages, int size, int page) {
+		for (int i = 0; i < size; ++i) {
+			if (pages[i] == page) return i;
+		}
+		return -1;
+	}
+	
+	// index와 같은 내용의 배열에서 찾을 페이지들의 결과를 비교하고 요약 값에 섞는다.
+	private static long check(FrameIndex index, int[] pages, int capacity, long digest, String what) {
+		int size = index.size();
+		List<Integer> probes = new ArrayList<>();
+		for (int page : SPECIAL) {
+			probes.add(page);
+		}
+		for (int i = 0; i < capacity; ++i) {
+			probes.add(pages[i]); // 크기 밖에 남은 페이지 포함
+		}
+		probes.add(12345);
+		for (int page : probes) {
+			int expected = scalarIndexOf(pages, size, page);
+			int actual = index.indexOf(page);
+			Check.equal(expected, actual, what + " indexOf(" + page + ")");
+			Check.isTrue(index.contains(page) == (expected >= 0), what + " contains(" + page + ")");
+			if (FrameIndex.isVectorized()) {
+				Check.equal(expected, VectorFrameSearch.indexOf(pages, size, page), what + " VectorFrameSearch.indexOf(" + page + ")");
+			}
+			digest = mix(digest, actual);
+		}
+		return digest;
+	}
+	
+	// 모든 크기에 대해 add/set/clear를 실행하며 결과를 비교하고, 결과의 요약 값을 반환한다.
+	static long run(int lanes) {
+		long digest = 0xcbf29ce484222325L;
+		Random random = new Random(37);
+		int capacity = 3 * lanes + 2;
+		for (int size = 0; size <= capacity; ++size) {
+			String what = size + "개(lanes " + lanes + ")";
+			FrameIndex index = new FrameIndex(capacity);
+			int[] pages = new int[capacity];
+			for (int i = 0; i < size; ++i) {
+				int page = i % 3 == 0 ? SPECIAL[i % SPECIAL.length] ^ (i << 8) : random.nextInt();
+				if (scalarIndexOf(pages, i, page) >= 0) page = 1_000_000 + i; // 같은 페이지가 두 프레임에 있지 않다.
+				pages[i] = page;
+				index.add(page);
+			}
+			Check.equal(size, index.size(), what + " size()");
+			for (int i = 0; i < size; ++i) {
+				Check.equal(pages[i], index.get(i), what + " get(" + i + ")");
+			}
+			digest = check(index, pages, capacity, digest, what);
+			
+			if (size > 0) {
+				// 마지막 프레임 교체
+				int old = pages[size - 1];
+				pages[size - 1] = 2_000_000 + size;
+				index.set(size - 1, pages[size - 1]);
+				Check.equal(-1, index.indexOf(old), what + " 교체된 페이지");
+				digest = check(index, pages, capacity, digest, what + " set");
+				
+				// 더 적게 다시 적재: 크기 밖에 남은 페이지는 찾지 않아야 한다.
+				index.clear();
+				Check.equal(0, index.size(), what + " clear()");
+				int smaller = size / 2;
+				for (int i = 0; i < smaller; ++i) {
+					pages[i] = 3_000_000 + i;
+					index.add(pages[i]);
+				}
+				for (int i = smaller; i < size; ++i) {
+					Check.equal(-1, index.indexOf(pages[i]), what + " 크기 밖의 페이지 " + pages[i]);
+				}
+				digest = check(index, pages, capacity, digest, what + " clear 후 " + smaller + "개");
+			}
+		}
+		return digest;
+	}
+	
+	// 같은 검사를 -Dpagereplacement.scalar=true인 자식 JVM에서 실행하고 요약 값을 받는다.
+	static long runScalarChild(int lanes) throws IOException, InterruptedException {
+		String java = ProcessHandle.current().info().command().orElse("java");
+		Process process = new ProcessBuilder(java, "-Dpagereplacement.scalar=true", "-cp", System.getProperty("java.class.path"),
+				FrameIndexTest.class.getName(), "child", Integer.toString(lanes)).redirectErrorStream(true).start();
+		String output;
+		try (InputStream in = process.getInputStream()) {
+			output = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+		}
+		Check.equal(0, process.waitFor(), "자식 JVM 종료 코드 (" + output + ")");
+		return Long.parseLong(output);
+	}
+	
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length == 2 && args[0].equals("child")) {
+			Check.isTrue(!FrameIndex.isVectorized(), "자식 JVM에서 벡터 검색을 사용했습니다.");
+			System.out.println(run(Integer.parseInt(args[1])));
+			return;
+		}
+		int lanes = FrameIndex.isVectorized() ? VectorFrameSearch.lanes() : 8;
+		long digest = run(lanes);
+		if (FrameIndex.isVectorized()) {
+			Check.equal(digest, runScalarChild(lanes), "벡터 검색과 하나씩 비교하는 검색의 결과 요약");
+			System.out.println("FrameIndexTest OK (vector " + lanes + " lanes and scalar)");
+		} else {
+			System.out.println("FrameIndexTest OK (scalar only; run with --add-modules jdk.incubator.vector to compare the vector path)");
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * MemoryHierarchy의 유효 접근 시간(EAT)과 계층별 통계를 확인한다.
+ * - 정해진 참조 순서로 제공 계층, 비용, demotion, 최하위 계층에서 교체된 페이지(backing store로 비용 없이 버려짐)를
+ *   손으로 계산한 값과 비교한다. 비용은 2의 거듭제곱 대역폭을 써서 double로 정확히 나온다.
+ * - 랜덤 trace에서 계층별 값의 합이 전체 값과 같고, 각 계층의 적재 기록이 정책의 프레임과 같은지 확인한다.
+ *
+ * 사용법: java PageReplacement.MemoryHierarchyTest
+ */
+
+public class MemoryHierarchyTest {
+	private static final int PAGE_SIZE = 4096;
+	private static final double DRAM_NS = 100;
+	private static final double SWAP_NS = 1000 + PAGE_SIZE / 4.0; // 지연 1000ns, 4GB/s
+	private static final double DISK_NS = 10000 + PAGE_SIZE / 2.0; // 지연 10000ns, 2GB/s
+	
+	static MemoryHierarchy create(int dramPages, int swapPages) {
+		MemoryHierarchy hierarchy = new MemoryHierarchy(
+				new MemoryTier("DRAM", PolicyFactory.createOnline("LRU"), dramPages, DRAM_NS, 1),
+				new MemoryTier("swap", PolicyFactory.createOnline("LRU"), swapPages, 1000, 4),
+				MemoryTier.backingStore("disk", 10000, 2));
+		hierarchy.setPageSize(PAGE_SIZE);
+		hierarchy.reset();
+		return hierarchy;
+	}
+	
+	static void equal(double expected, double actual, String what) {
+		Check.isTrue(expected == actual, what + ": 기대값 " + expected + ", 실제값 " + actual);
+	}
+	
+	static void testSequence() {
+		MemoryHierarchy hierarchy = create(2, 2);
+		int[] pages = { 1, 2, 1, 3, 2, 4, 1, 4 };
+		// 3: DRAM에서 2가 swap으로 내려감
+		// 2: swap에서 올라오고 DRAM에서 1이 swap으로 내려감
+		// 4: DRAM에서 3이 swap으로 내려가고 swap에서 2가 disk로 버려짐 (비용 없음)
+		// 1: swap에서 올라오고 DRAM에서 2가 swap으로 내려가며 swap에서 3이 버려짐
+		int[] levels = { 2, 2, 0, 2, 1, 2, 1, 0 };
+		for (int i = 0; i < pages.length; ++i) {
+			Check.equal(levels[i], hierarchy.access(pages[i]), i + "번째 참조(" + pages[i] + ")를 제공한 계층");
+		}
+		MemoryTier dram = hierarchy.getTier(0);
+		MemoryTier swap = hierarchy.getTier(1);
+		MemoryTier disk = hierarchy.getTier(2);
+		
+		Check.equal(pages.length, hierarchy.getReferences(), "참조 수");
+		equal(4 * DISK_NS + 2 * DRAM_NS + 2 * SWAP_NS, hierarchy.getDemandNs(), "참조 처리 시간");
+		equal(4 * SWAP_NS, hierarchy.getDemotionNs(), "demotion 시간 (disk로 버린 페이지는 제외)");
+		equal(hierarchy.getDemandNs() / pages.length, hierarchy.getEffectiveAccessTime(), "EAT");
+		equal((hierarchy.getDemandNs() + hierarchy.getDemotionNs()) / pages.length,
+				hierarchy.getEffectiveAccessTimeWithDemotion(), "demotion을 포함한 EAT");
+		
+		Check.equal(2, dram.getHits(), "DRAM Hit");
+		equal(2 * DRAM_NS, dram.getDemandNs(), "DRAM 시간");
+		Check.equal(0, dram.getBytesRead(), "DRAM에서 옮긴 byte");
+		Check.equal(2, swap.getHits(), "swap Hit");
+		equal(2 * SWAP_NS, swap.getDemandNs(), "swap 시간");
+		Check.equal(2 * PAGE_SIZE, swap.getBytesRead(), "swap에서 읽은 byte");
+		Check.equal(4, swap.getDemotionsIn(), "swap으로 내려온 페이지");
+		Check.equal(4 * PAGE_SIZE, swap.getBytesWritten(), "swap에 쓴 byte");
+		Check.equal(4, disk.getHits(), "disk Hit");
+		Check.equal(4 * PAGE_SIZE, disk.getBytesRead(), "disk에서 읽은 byte");
+		Check.equal(0, disk.getDemotionsIn(), "disk로 내려온 페이지");
+		Check.equal(0, disk.getBytesWritten(), "disk에 쓴 byte");
+		
+		Check.isTrue(dram.contains(1) && dram.contains(4) && !dram.contains(2), "DRAM 적재 페이지");
+		Check.isTrue(swap.contains(1) && swap.contains(2) && !swap.contains(3), "swap 적재 페이지");
+		
+		hierarchy.reset();
+		Check.equal(6, hierarchy.accessAll(pages, 0, pages.length), "accessAll()이 반환한 최상위 밖의 참조 수");
+		equal(4 * SWAP_NS, hierarchy.getDemotionNs(), "reset() 후 다시 실행한 demotion 시간");
+	}
+	
+	// 계층의 적재 기록이 정책의 프레임과 같은지 확인한다.
+	static void checkResident(MemoryTier tier, int maxPage) {
+		int[] frames = new int[tier.getCapacity()];
+		int n = tier.getPolicy().getResidentPages(frames);
+		Set<Integer> resident = new HashSet<>();
+		for (int i = 0; i < n; ++i) {
+			resident.add(frames[i]);
+		}
+		for (int page = 0; page < maxPage; ++page) {
+			Check.isTrue(tier.contains(page) == resident.contains(page), tier.getName() + " 페이지 " + page + "의 적재 기록");
+		}
+	}
+	
+	static void testInvariants() {
+		Random random = new Random(33);
+		int[] pages = new int[50_000];
+		for (int i = 0; i < pages.length; ++i) {
+			pages[i] = random.nextInt(4) == 0 ? random.nextInt(512) : random.nextInt(48);
+		}
+		MemoryHierarchy hierarchy = create(16, 64);
+		int misses = hierarchy.accessAll(pages, 0, pages.length);
+		
+		long hits = 0;
+		double demandNs = 0;
+		double demotionNs = 0;
+		for (int level = 0; level < hierarchy.getTierCount(); ++level) {
+			MemoryTier tier = hierarchy.getTier(level);
+			hits += tier.getHits();
+			demandNs += tier.getDemandNs();
+			if (level > 0) {
+				Check.equal(tier.getHits() * PAGE_SIZE, tier.getBytesRead(), tier.getName() + " 읽은 byte");
+				demotionNs += tier.getDemotionsIn() * tier.transferNs(PAGE_SIZE);
+			}
+			Check.equal(tier.getDemotionsIn() * PAGE_SIZE, tier.getBytesWritten(), tier.getName() + " 쓴 byte");
+			if (!tier.isBackingStore()) checkResident(tier, 512);
+		}
+		Check.equal(pages.length, hits, "계층별 Hit의 합");
+		Check.equal(pages.length - hierarchy.getTier(0).getHits(), misses, "최상위 밖의 참조 수");
+		Check.equal(0, hierarchy.getTier(2).getDemotionsIn(), "backing store로 내려온 페이지");
+		equal(hierarchy.getDemandNs(), demandNs, "계층별 시간의 합");
+		equal(hierarchy.getDemotionNs(), demotionNs, "demotion 시간의 합");
+		
+		// 최상위 계층은 같은 프레임 수의 정책을 혼자 실행한 것과 Fault 수가 같다.
+		OnlinePolicy standalone = PolicyFactory.createOnline("LRU");
+		standalone.setFrameSize(16);
+		standalone.reset();
+		Check.equal(standalone.accessAll(pages, 0, pages.length), misses, "최상위 계층의 Fault 수");
+	}
+	
+	public static void main(String[] args) {
+		testSequence();
+		testInvariants();
+		System.out.println("MemoryHierarchyTest OK");
+	}
+}
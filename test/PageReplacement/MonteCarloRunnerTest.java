@@ -0,0 +1,64 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * MonteCarloRunner의 결과가 스레드 수와 관계없이 bit 단위로 같은지 확인한다.
+ * 정책별 평균, 분산, 최솟값, 최댓값, 분위수와 정책 쌍의 차이 통계, 순위, 출력 문자열을 parallelism 1과 비교한다.
+ * 시행 수는 chunk 하나보다 적은 경우와 chunk 크기의 배수가 아닌 경우를 쓴다.
+ *
+ * 사용법: java PageReplacement.MonteCarloRunnerTest
+ */
+
+public class MonteCarloRunnerTest {
+	private static final List<String> POLICIES = List.of("FIFO", "LRU", "Clock", "LPR", "Optimal");
+	
+	static MonteCarloRunner.Result run(int trials, int parallelism) throws InterruptedException {
+		MonteCarloRunner runner = new MonteCarloRunner(POLICIES);
+		runner.setFrameSize(4);
+		runner.setTrials(trials);
+		runner.setLength(200);
+		runner.setPages(10);
+		runner.setSeed(38);
+		runner.setParallelism(parallelism);
+		return runner.run();
+	}
+	
+	static void equalBits(double expected, double actual, String what) {
+		Check.equal(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual), what);
+	}
+	
+	static void compare(MonteCarloRunner.Result expected, MonteCarloRunner.Result actual, String what) {
+		for (int i = 0; i < POLICIES.size(); ++i) {
+			String name = what + " " + POLICIES.get(i);
+			RunningStats e = expected.getStats(i);
+			RunningStats a = actual.getStats(i);
+			Check.equal(e.getCount(), a.getCount(), name + " 시행 수");
+			equalBits(e.getMean(), a.getMean(), name + " 평균");
+			equalBits(e.getVariance(), a.getVariance(), name + " 분산");
+			equalBits(e.getMin(), a.getMin(), name + " 최솟값");
+			equalBits(e.getMax(), a.getMax(), name + " 최댓값");
+			for (double q : new double[] { 0.01, 0.5, 0.9, 0.99 }) {
+				equalBits(expected.getSketch(i).quantile(q), actual.getSketch(i).quantile(q), name + " " + q + " 분위수");
+			}
+			for (int j = 0; j < POLICIES.size(); ++j) {
+				String pair = name + "-" + POLICIES.get(j);
+				equalBits(expected.meanDifference(i, j), actual.meanDifference(i, j), pair + " 평균 차이");
+				equalBits(expected.pValue(i, j), actual.pValue(i, j), pair + " p값");
+			}
+		}
+		Check.isTrue(Arrays.equals(expected.ranking(), actual.ranking()), what + " 순위가 다릅니다.");
+		Check.isTrue(expected.toString().equals(actual.toString()), what + " 출력이 다릅니다.");
+	}
+	
+	public static void main(String[] args) throws InterruptedException {
+		for (int trials : new int[] { 1, 100, 3_000 }) {
+			MonteCarloRunner.Result serial = run(trials, 1);
+			Check.equal(trials, serial.getStats(0).getCount(), trials + "번 시행 수");
+			for (int parallelism : new int[] { 2, 3, 8 }) {
+				compare(serial, run(trials, parallelism), trials + "번 시행, parallelism " + parallelism);
+			}
+		}
+		System.out.println("MonteCarloRunnerTest OK");
+	}
+}
@@ -0,0 +1,147 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * PhaseAnalyzer가 원형 버퍼로 갱신한 지표가 정의대로 직접 센 값과 같은지 확인한다.
+ * - W(t, τ): (t - τ, t] 구간의 서로 다른 페이지 수
+ * - 최근 window개 참조의 Fault율, 마지막으로 끝난 구간의 novelty
+ * - 단계 변화: 작업 집합이 겹치지 않는 단계를 window의 배수 위치에서 바꾼 trace에서 바꾼 위치가 그대로 감지되는지
+ *
+ * 사용법: java PageReplacement.PhaseAnalyzerTest
+ */
+
+public class PhaseAnalyzerTest {
+	// 단계마다 서로 겹치지 않는 작은 작업 집합에서 고른 trace (단계 길이는 window의 배수)
+	static int[] phasedTrace(int phases, int phaseLength, int workingSet, long seed) {
+		Random random = new Random(seed);
+		int[] pages = new int[phases * phaseLength];
+		for (int i = 0; i < pages.length; ++i) {
+			int phase = i / phaseLength;
+			pages[i] = phase * 1_000 + random.nextInt(workingSet);
+		}
+		return pages;
+	}
+	
+	// 페이지가 자주 섞이는 trace
+	static int[] randomTrace(int length, long seed) {
+		Random random = new Random(seed);
+		int[] pages = new int[length];
+		for (int i = 0; i < length; ++i) {
+			pages[i] = random.nextInt(5) == 0 ? random.nextInt(200) : (i / 300) * 7 + random.nextInt(12);
+		}
+		return pages;
+	}
+	
+	static int distinct(int[] pages, int from, int to) {
+		Set<Integer> set = new HashSet<>();
+		for (int i = Math.max(0, from); i < to; ++i) {
+			set.add(pages[i]);
+		}
+		return set.size();
+	}
+	
+	// [start, start + window) 구간의 novelty
+	static double novelty(int[] pages, int start, int window) {
+		Set<Integer> current = new HashSet<>();
+		Set<Integer> before = new HashSet<>();
+		for (int i = start; i < start + window; ++i) {
+			current.add(pages[i]);
+		}
+		for (int i = Math.max(0, start - window); i < start; ++i) {
+			before.add(pages[i]);
+		}
+		int carried = 0;
+		for (int page : current) {
+			if (before.contains(page)) carried++;
+		}
+		return current.isEmpty() ? 0 : 1 - (double) carried / current.size();
+	}
+	
+	// 정의대로 센 단계 변화 시점
+	static List<Integer> phaseChanges(int[] pages, int window, double threshold) {
+		List<Integer> changes = new ArrayList<>();
+		boolean high = true;
+		for (int start = 0; start + window <= pages.length; start += window) {
+			boolean nowHigh = novelty(pages, start, window) >= threshold;
+			if (nowHigh && !high) changes.add(start);
+			high = nowHigh;
+		}
+		return changes;
+	}
+	
+	static PhaseAnalyzer analyze(int[] pages, boolean[] faults, int window, int sampleInterval, double threshold, int... taus) {
+		PhaseAnalyzer analyzer = new PhaseAnalyzer(window, sampleInterval, threshold, taus);
+		for (int t = 0; t < pages.length; ++t) {
+			if (faults[t]) analyzer.onFault(t, pages[t]);
+			else analyzer.onHit(t, pages[t]);
+		}
+		return analyzer;
+	}
+	
+	static void compare(int[] pages, int window, int sampleInterval, double threshold, int[] taus, long seed) {
+		Random random = new Random(seed);
+		boolean[] faults = new boolean[pages.length];
+		for (int t = 0; t < pages.length; ++t) {
+			faults[t] = random.nextInt(3) == 0;
+		}
+		PhaseAnalyzer analyzer = analyze(pages, faults, window, sampleInterval, threshold, taus);
+		String what = "window " + window + ", 간격 " + sampleInterval;
+		Check.equal(pages.length, analyzer.getReferences(), what + " 참조 수");
+		Check.equal(pages.length / sampleInterval, analyzer.getSampleCount(), what + " 표본 수");
+		
+		for (int i = 0; i < analyzer.getSampleCount(); ++i) {
+			int t = (i + 1) * sampleInterval - 1;
+			Check.equal(t, analyzer.getSampleTime(i), what + " 표본 " + i + "의 시점");
+			for (int k = 0; k < taus.length; ++k) {
+				Check.equal(distinct(pages, t - taus[k] + 1, t + 1), analyzer.getWorkingSetSize(i, k),
+						what + " W(" + t + ", " + taus[k] + ")");
+			}
+			int faultCount = 0;
+			for (int j = Math.max(0, t - window + 1); j <= t; ++j) {
+				if (faults[j]) faultCount++;
+			}
+			float rate = (float) faultCount / Math.min(t + 1, window);
+			Check.isTrue(rate == (float) analyzer.getFaultRate(i), what + " " + t + " 시점 Fault율 " + rate + " / " + analyzer.getFaultRate(i));
+			int ended = (t + 1) / window; // t 시점까지 끝난 구간 수
+			float novelty = ended == 0 ? 0 : (float) novelty(pages, (ended - 1) * window, window);
+			Check.isTrue(novelty == (float) analyzer.getNovelty(i), what + " " + t + " 시점 novelty " + novelty + " / " + analyzer.getNovelty(i));
+		}
+		
+		List<Integer> changes = phaseChanges(pages, window, threshold);
+		Check.equal(changes.size(), analyzer.getPhaseChangeCount(), what + " 단계 변화 수");
+		for (int j = 0; j < changes.size(); ++j) {
+			Check.equal(changes.get(j), analyzer.getPhaseChangeTime(j), what + " " + j + "번째 단계 변화");
+			Check.isTrue(analyzer.isPhaseChange(changes.get(j)), what + " isPhaseChange(" + changes.get(j) + ")");
+		}
+		
+		// clear() 후 다시 실행하면 같은 결과
+		analyzer.clear();
+		for (int t = 0; t < pages.length; ++t) {
+			if (faults[t]) analyzer.onFault(t, pages[t]);
+			else analyzer.onHit(t, pages[t]);
+		}
+		Check.equal(changes.size(), analyzer.getPhaseChangeCount(), what + " clear() 후 단계 변화 수");
+	}
+	
+	public static void main(String[] args) {
+		int window = 100;
+		int[] phased = phasedTrace(6, 8 * window, 20, 39);
+		compare(phased, window, 1, 0.5, new int[] { 1, 7, 100, 333 }, 1);
+		compare(phased, window, 37, 0.5, new int[] { 50, 1_000 }, 2);
+		
+		// 단계를 바꾼 위치가 그대로 감지된다. (첫 단계는 처음부터 novelty가 높으므로 변화가 아니다)
+		boolean[] noFaults = new boolean[phased.length];
+		PhaseAnalyzer analyzer = analyze(phased, noFaults, window, 64, 0.5, 10);
+		Check.equal(5, analyzer.getPhaseChangeCount(), "단계 변화 수");
+		for (int j = 0; j < 5; ++j) {
+			Check.equal((j + 1) * 8 * window, analyzer.getPhaseChangeTime(j), j + "번째 단계 변화");
+		}
+		
+		int[] mixed = randomTrace(6_000, 40);
+		compare(mixed, 50, 1, 0.3, new int[] { 1, 2, 49, 50, 51, 400 }, 3);
+		compare(mixed, 64, 5, 0.2, new int[] { 64 }, 4);
+		compare(mixed, 7, 3, 1.0, new int[] { 3, 9 }, 5);
+		System.out.println("PhaseAnalyzerTest OK");
+	}
+}
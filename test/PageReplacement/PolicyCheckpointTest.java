@@ -0,0 +1,135 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * 체크포인트에서 이어서 실행한 결과가 처음부터 끝까지 한 번에 실행한 결과와 같은지 확인한다.
+ * - 정책마다 중간에 저장하고 새 정책 객체에 복원하여 끝까지 실행한 사건(Hit/Fault/교체)과 수를 비교한다.
+ * - 복원한 상태를 다시 저장하면 원래 파일과 byte 단위로 같아야 한다.
+ * - 내용이 한 byte라도 바뀐 파일은 복원하지 않고 IOException을 던져야 한다.
+ *
+ * 사용법: java PageReplacement.PolicyCheckpointTest
+ */
+
+public class PolicyCheckpointTest {
+	private static final int FRAMES = 5;
+	
+	// 사건을 문자열로 모으는 리스너
+	private static final class EventLog implements ReferenceListener {
+		private final StringBuilder events = new StringBuilder();
+		
+		@Override
+		public void onHit(long time, int page) {
+			events.append('h').append(time).append(':').append(page).append(' ');
+		}
+		
+		@Override
+		public void onFault(long time, int page) {
+			events.append('f').append(time).append(':').append(page).append(' ');
+		}
+		
+		@Override
+		public void onEviction(long time, int victim, int page) {
+			events.append('e').append(victim).append(' ');
+		}
+		
+		@Override
+		public String toString() {
+			return events.toString();
+		}
+	}
+	
+	static List<Character> referenceString(int length, long seed) {
+		Random random = new Random(seed);
+		List<Character> references = new ArrayList<>(length);
+		for (int i = 0; i < length; ++i) {
+			references.add((char) ('A' + (random.nextInt(4) == 0 ? random.nextInt(26) : random.nextInt(8))));
+		}
+		return references;
+	}
+	
+	static CheckpointablePolicy create(String name, List<Character> references, ReferenceListener listener) {
+		CheckpointablePolicy policy = PolicyFactory.create(name);
+		policy.setReferenceString(references);
+		policy.setFrameSize(FRAMES);
+		policy.setReferenceListener(listener);
+		return policy;
+	}
+	
+	static void testResume(String name, List<Character> references, long cut, Path dir) throws IOException {
+		EventLog expected = new EventLog();
+		CheckpointablePolicy whole = create(name, references, expected);
+		whole.run();
+		
+		EventLog actual = new EventLog();
+		CheckpointablePolicy first = create(name, references, actual);
+		first.reset();
+		first.resume(cut);
+		Path saved = dir.resolve(name + ".ckpt");
+		PolicyCheckpoint.save(first, saved);
+		
+		CheckpointablePolicy second = create(name, references, actual);
+		PolicyCheckpoint.restore(second, saved);
+		Check.equal(cut, second.getPosition(), name + " 복원한 위치");
+		Path again = dir.resolve(name + "-again.ckpt");
+		PolicyCheckpoint.save(second, again);
+		Check.isTrue(Arrays.equals(Files.readAllBytes(saved), Files.readAllBytes(again)), name + " 복원한 상태를 다시 저장한 파일이 다릅니다.");
+		
+		second.resume();
+		Check.equal(whole.getHitCount(), second.getHitCount(), name + " Hit 수");
+		Check.equal(whole.getFaultCount(), second.getFaultCount(), name + " Fault 수");
+		Check.isTrue(expected.toString().equals(actual.toString()), name + " 사건 순서가 다릅니다.");
+	}
+	
+	static void testCorruption(String name, List<Character> references, Path dir) throws IOException {
+		CheckpointablePolicy policy = create(name, references, ReferenceListener.NONE);
+		policy.reset();
+		policy.resume(references.size() / 3);
+		Path saved = dir.resolve(name + ".ckpt");
+		PolicyCheckpoint.save(policy, saved);
+		byte[] bytes = Files.readAllBytes(saved);
+		
+		Path corrupted = dir.resolve(name + "-corrupted.ckpt");
+		for (int i = 0; i < bytes.length; i += Math.max(1, bytes.length / 200)) {
+			byte[] copy = bytes.clone();
+			copy[i] ^= 0x10;
+			Files.write(corrupted, copy);
+			try {
+				PolicyCheckpoint.restore(create(name, references, ReferenceListener.NONE), corrupted);
+				throw new AssertionError(name + " " + i + "번째 byte가 바뀐 파일을 복원했습니다.");
+			} catch (IOException e) {
+				// 기대한 결과
+			}
+		}
+		Files.write(corrupted, Arrays.copyOf(bytes, bytes.length - 1));
+		try {
+			PolicyCheckpoint.restore(create(name, references, ReferenceListener.NONE), corrupted);
+			throw new AssertionError(name + " 잘린 파일을 복원했습니다.");
+		} catch (IOException e) {
+			// 기대한 결과
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		Path dir = Files.createTempDirectory("checkpoint");
+		try {
+			List<Character> references = referenceString(20_000, 29);
+			for (String name : PolicyFactory.NAMES) {
+				testResume(name, references, 0, dir);
+				testResume(name, references, 7_777, dir);
+				testResume(name, references, references.size(), dir);
+				testCorruption(name, references, dir);
+			}
+		} finally {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+				for (Path file : files) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(dir);
+		}
+		System.out.println("PolicyCheckpointTest OK");
+	}
+}
@@ -0,0 +1,133 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+
+/**
+ * ResultCache가 저장한 결과를 다시 읽고, 손상된 파일과 크기 상한을 올바르게 처리하는지 확인한다.
+ * - 다른 인스턴스(메모리가 비어 있음)에서 디스크로부터 Hit/Fault 수와 Hit 비트맵을 그대로 읽어야 한다.
+ * - 내용이 바뀌거나 잘린 파일, 다른 키의 파일은 없는 것으로 처리하고 지워야 한다.
+ * - 크기 상한을 넘으면 수정 시각이 가장 오래된 결과부터 지우고, 읽은 결과는 수정 시각이 갱신되어 남아야 한다.
+ * - 오래된 임시 파일은 지우고, 쓰는 중인 임시 파일은 크기에 포함해야 한다.
+ *
+ * 사용법: java PageReplacement.ResultCacheTest
+ */
+
+public class ResultCacheTest {
+	private static final long HOUR = 60 * 60 * 1000;
+	
+	static String key(int frames) {
+		return ResultCache.key(0x0123456789abcdefL, 1_000, PolicyFactory.create("LRU"), frames);
+	}
+	
+	static Path file(Path dir, String key) {
+		return dir.resolve(key + ".res");
+	}
+	
+	static void setAge(Path file, long millis) throws IOException {
+		Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - millis));
+	}
+	
+	static void testRoundTrip(Path dir) throws IOException {
+		long[] history = { 0x5555_5555_5555_5555L, -1, 0, 0x8000_0000_0000_0001L };
+		ResultCache cache = new ResultCache(dir, Long.MAX_VALUE);
+		cache.put(key(1), new ResultCache.Result(10, 20, 30, null, 0));
+		cache.put(key(2), new ResultCache.Result(40, 50, 60, history, 250));
+		
+		ResultCache other = new ResultCache(dir, Long.MAX_VALUE);
+		ResultCache.Result plain = other.get(key(1), false);
+		Check.equal(10, plain.getHitCount(), "Hit 수");
+		Check.equal(20, plain.getFaultCount(), "Fault 수");
+		Check.equal(30, plain.getExecutionTime(), "실행 시간");
+		Check.isTrue(!plain.hasHistory(), "비트맵 없이 저장한 결과");
+		Check.isTrue(other.get(key(1), true) == null, "비트맵이 없는 결과를 비트맵과 함께 찾았습니다.");
+		
+		ResultCache.Result withHistory = other.get(key(2), true);
+		Check.equal(40, withHistory.getHitCount(), "비트맵과 함께 저장한 Hit 수");
+		Check.equal(250, withHistory.getHistoryLength(), "비트맵 길이");
+		Check.isTrue(Arrays.equals(history, withHistory.getHistory()), "비트맵이 다릅니다.");
+		Check.isTrue(other.get(key(3), false) == null, "저장하지 않은 결과를 찾았습니다.");
+		
+		Check.isTrue(other.get(key(2), false) == withHistory, "메모리에서 찾은 결과");
+		Check.equal(1, other.getMemoHits(), "메모리에서 찾은 횟수");
+		Check.equal(2, other.getDiskHits(), "디스크에서 찾은 횟수");
+		Check.equal(2, other.getMisses(), "찾지 못한 횟수");
+		cache.clear();
+	}
+	
+	static void testCorruption(Path dir) throws IOException {
+		ResultCache cache = new ResultCache(dir, Long.MAX_VALUE);
+		cache.put(key(1), new ResultCache.Result(1, 2, 3, new long[] { 7 }, 3));
+		byte[] bytes = Files.readAllBytes(file(dir, key(1)));
+		for (int i = 0; i < bytes.length; ++i) {
+			byte[] copy = bytes.clone();
+			copy[i] ^= 0x01;
+			Files.write(file(dir, key(1)), copy);
+			Check.isTrue(new ResultCache(dir, Long.MAX_VALUE).get(key(1), false) == null, i + "번째 byte가 바뀐 결과를 읽었습니다.");
+			Check.isTrue(!Files.exists(file(dir, key(1))), i + "번째 byte가 바뀐 파일을 지우지 않았습니다.");
+		}
+		Files.write(file(dir, key(1)), Arrays.copyOf(bytes, bytes.length - 1));
+		Check.isTrue(new ResultCache(dir, Long.MAX_VALUE).get(key(1), false) == null, "잘린 결과를 읽었습니다.");
+		
+		// 다른 키의 파일 이름으로 옮긴 결과
+		Files.write(file(dir, key(2)), bytes);
+		Check.isTrue(new ResultCache(dir, Long.MAX_VALUE).get(key(2), false) == null, "다른 키의 결과를 읽었습니다.");
+		Check.isTrue(!Files.exists(file(dir, key(2))), "다른 키의 파일을 지우지 않았습니다.");
+		cache.clear();
+	}
+	
+	static void testEviction(Path dir) throws IOException {
+		ResultCache.Result result = new ResultCache.Result(1, 2, 3, new long[16], 1_000);
+		ResultCache unlimited = new ResultCache(dir, Long.MAX_VALUE);
+		for (int i = 1; i <= 3; ++i) {
+			unlimited.put(key(i), result);
+			setAge(file(dir, key(i)), (4 - i) * HOUR / 10); // 1이 가장 오래되었다.
+		}
+		long size = Files.size(file(dir, key(1)));
+		
+		// 1을 읽으면 가장 최근에 쓴 결과가 된다.
+		ResultCache cache = new ResultCache(dir, 3 * size);
+		Check.isTrue(cache.get(key(1), true) != null, "저장한 결과를 찾지 못했습니다.");
+		cache.put(key(4), result);
+		Check.isTrue(Files.exists(file(dir, key(1))), "읽은 결과를 지웠습니다.");
+		Check.isTrue(!Files.exists(file(dir, key(2))), "가장 오래된 결과를 지우지 않았습니다.");
+		Check.isTrue(Files.exists(file(dir, key(3))) && Files.exists(file(dir, key(4))), "최근 결과를 지웠습니다.");
+		
+		// 남겨진 임시 파일은 지우고, 쓰는 중인 임시 파일은 크기에 포함한다.
+		Path orphan = Files.write(dir.resolve(key(9) + "123.tmp"), new byte[(int) (10 * size)]);
+		setAge(orphan, 2 * HOUR);
+		Path writing = Files.write(dir.resolve(key(8) + "456.tmp"), new byte[(int) size]);
+		setAge(file(dir, key(1)), HOUR / 100);
+		setAge(file(dir, key(4)), HOUR / 100);
+		cache.put(key(5), result);
+		Check.isTrue(!Files.exists(orphan), "남겨진 임시 파일을 지우지 않았습니다.");
+		Check.isTrue(Files.exists(writing), "쓰는 중인 임시 파일을 지웠습니다.");
+		int results = 0;
+		for (int i = 1; i <= 5; ++i) {
+			if (Files.exists(file(dir, key(i)))) results++;
+		}
+		Check.equal(2, results, "임시 파일과 함께 남은 결과 수");
+		Check.isTrue(Files.exists(file(dir, key(5))), "방금 저장한 결과를 지웠습니다.");
+		Files.delete(writing);
+		cache.clear();
+	}
+	
+	public static void main(String[] args) throws IOException {
+		Path dir = Files.createTempDirectory("cache");
+		try {
+			testRoundTrip(dir);
+			testCorruption(dir);
+			testEviction(dir);
+		} finally {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+				for (Path file : files) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(dir);
+		}
+		System.out.println("ResultCacheTest OK");
+	}
+}
@@ -0,0 +1,132 @@
+package PageReplacement;
+
+import java.util.*;
+
+/**
+ * Tlb의 교체 방식과 TlbSimulator의 huge page 승격/분할, page walk 계산을 확인한다.
+ * - 집합 안에서 LRU/FIFO/RANDOM이 내보내는 항목, 무효화한 자리의 재사용, flush()
+ * - page walk가 승격 기준 수에 이르는 순간에만 승격하고, 승격된 영역의 페이지가 교체되면 분할하는지
+ *   (정해진 참조 순서로 Hit/walk/단계 수를 손으로 계산한 값과 비교한다)
+ * - 랜덤 trace에서 Fault 수가 정책만 실행했을 때와 같고 TLB Hit + page walk = 참조 수인지
+ *
+ * 사용법: java PageReplacement.TlbTest
+ */
+
+public class TlbTest {
+	static void testReplacement() {
+		// 항목 4개, 2-way: index가 짝수면 집합 0, 홀수면 집합 1
+		Tlb lru = new Tlb(4, 2, Tlb.Replacement.LRU);
+		Check.equal(-1, lru.insert(10, 0), "LRU 빈 자리");
+		Check.equal(-1, lru.insert(12, 2), "LRU 빈 자리");
+		Check.equal(-1, lru.insert(11, 1), "다른 집합의 빈 자리");
+		Check.isTrue(lru.lookup(10, 0), "LRU 10 찾기");
+		Check.equal(12, lru.insert(14, 4), "LRU가 내보낸 항목");
+		Check.isTrue(lru.lookup(10, 0) && lru.lookup(14, 4) && !lru.lookup(12, 2), "LRU 교체 후 집합 0");
+		Check.isTrue(lru.lookup(11, 1), "다른 집합의 항목이 남아 있어야 합니다.");
+		Check.isTrue(!lru.lookup(10, 1), "다른 집합에서 찾았습니다.");
+		
+		Check.isTrue(lru.invalidate(10, 0), "무효화");
+		Check.isTrue(!lru.invalidate(10, 0), "두 번 무효화");
+		Check.equal(-1, lru.insert(16, 6), "무효화한 자리 재사용");
+		Check.equal(2, lru.invalidateIf(key -> key % 2 == 0 && key >= 14), "조건 무효화 수");
+		lru.flush();
+		Check.isTrue(!lru.lookup(11, 1), "flush 후 찾았습니다.");
+		
+		Tlb fifo = new Tlb(4, 2, Tlb.Replacement.FIFO);
+		fifo.insert(10, 0);
+		fifo.insert(12, 0);
+		Check.isTrue(fifo.lookup(10, 0), "FIFO 10 찾기");
+		Check.equal(10, fifo.insert(14, 0), "FIFO는 사용 여부와 관계없이 먼저 들어온 항목을 내보냅니다.");
+		Check.equal(12, fifo.insert(16, 0), "FIFO 두 번째로 내보낸 항목");
+		
+		Tlb random = new Tlb(4, 2, Tlb.Replacement.RANDOM);
+		random.insert(10, 0);
+		random.insert(12, 0);
+		long evicted = random.insert(14, 0);
+		Check.isTrue(evicted == 10 || evicted == 12, "RANDOM이 내보낸 항목 " + evicted);
+		Check.isTrue(random.lookup(14, 0) && random.lookup(evicted == 10 ? 12 : 10, 0), "RANDOM 교체 후 집합 0");
+	}
+	
+	static void testPromotion() {
+		OnlinePolicy policy = PolicyFactory.createOnline("LRU");
+		policy.setFrameSize(4);
+		TlbSimulator tlb = new TlbSimulator(policy, new Tlb(16, 16, Tlb.Replacement.LRU));
+		tlb.setHugePages(4, 3); // 영역 = 기본 페이지 4개, page walk 3번이면 승격
+		tlb.reset();
+		
+		Check.isTrue(!tlb.access(0), "0: page walk");
+		Check.isTrue(!tlb.access(1), "1: page walk");
+		Check.isTrue(tlb.access(1), "1: TLB Hit");
+		Check.equal(0, tlb.getPromotions(), "page walk 2번에 승격했습니다.");
+		Check.isTrue(!tlb.access(2), "2: page walk");
+		Check.equal(1, tlb.getPromotions(), "page walk 3번에 승격하지 않았습니다.");
+		Check.equal(1, tlb.getPromotedRegions(), "승격된 영역 수");
+		Check.equal(12, tlb.getWalkSteps(), "기본 페이지 walk 3번의 단계 수");
+		
+		Check.isTrue(tlb.access(0), "0: huge page 항목으로 Hit");
+		Check.isTrue(!tlb.access(3), "3: huge page 항목은 있지만 Fault이므로 page walk");
+		Check.equal(15, tlb.getWalkSteps(), "huge page walk는 3단계");
+		Check.isTrue(tlb.access(3), "3: huge page 항목으로 Hit");
+		Check.equal(2, tlb.getHugeHits(), "huge page Hit 수");
+		
+		// 영역 0에서 가장 오래 전에 쓴 페이지 1이 교체되어 영역이 분할된다.
+		Check.isTrue(!tlb.access(100), "100: page walk");
+		Check.equal(1, tlb.getDemotions(), "분할 횟수");
+		Check.equal(0, tlb.getPromotedRegions(), "분할 후 승격된 영역 수");
+		Check.equal(1, tlb.getShootdowns(), "무효화된 huge page 항목");
+		Check.isTrue(!tlb.access(0), "0: 분할 후에는 기본 페이지 항목이 없으므로 page walk");
+		
+		Check.equal(9, tlb.getReferences(), "참조 수");
+		Check.equal(3, tlb.getTlbHits(), "TLB Hit 수");
+		Check.equal(6, tlb.getPageWalks(), "page walk 수");
+		Check.equal(5 * 4 + 3, tlb.getWalkSteps(), "page walk 단계 수");
+		Check.equal(5, tlb.getFaults(), "Fault 수");
+		
+		// 승격 기준 0이면 huge page를 쓰지 않는다.
+		tlb.setHugePages(4, 0);
+		tlb.reset();
+		for (int i = 0; i < 20; ++i) {
+			tlb.access(i % 4);
+		}
+		Check.equal(0, tlb.getPromotions(), "승격 기준 0");
+		Check.equal(4 * tlb.getPageWalks(), tlb.getWalkSteps(), "기본 페이지만의 page walk 단계 수");
+	}
+	
+	// 랜덤 trace에서 항상 성립해야 하는 관계
+	static void testInvariants(Tlb.Replacement replacement, int threshold) {
+		Random random = new Random(32 + threshold);
+		int[] pages = new int[50_000];
+		for (int i = 0; i < pages.length; ++i) {
+			pages[i] = random.nextInt(3) == 0 ? random.nextInt(4096) : random.nextInt(64);
+		}
+		OnlinePolicy policy = PolicyFactory.createOnline("Clock");
+		policy.setFrameSize(48);
+		TlbSimulator tlb = new TlbSimulator(policy, new Tlb(32, 4, replacement));
+		tlb.setHugePages(8, threshold);
+		tlb.reset();
+		int hits = tlb.accessAll(pages, 0, pages.length);
+		
+		OnlinePolicy standalone = PolicyFactory.createOnline("Clock");
+		standalone.setFrameSize(48);
+		standalone.reset();
+		String what = replacement + ", 승격 기준 " + threshold;
+		Check.equal(standalone.accessAll(pages, 0, pages.length), tlb.getFaults(), what + " Fault 수");
+		Check.equal(hits, tlb.getTlbHits(), what + " accessAll()이 반환한 Hit 수");
+		Check.equal(pages.length, tlb.getTlbHits() + tlb.getPageWalks(), what + " TLB Hit + page walk");
+		Check.isTrue(tlb.getHugeHits() <= tlb.getTlbHits(), what + " huge page Hit 수");
+		Check.equal(tlb.getPromotions() - tlb.getDemotions(), tlb.getPromotedRegions(), what + " 승격 - 분할");
+		Check.isTrue(tlb.getWalkSteps() >= 3 * tlb.getPageWalks() && tlb.getWalkSteps() <= 4 * tlb.getPageWalks(),
+				what + " page walk 단계 수");
+		if (threshold == 0) Check.equal(0, tlb.getPromotions(), what + " 승격 횟수");
+	}
+	
+	public static void main(String[] args) {
+		testReplacement();
+		testPromotion();
+		for (Tlb.Replacement replacement : Tlb.Replacement.values()) {
+			testInvariants(replacement, 0);
+			testInvariants(replacement, 4);
+		}
+		System.out.println("TlbTest OK");
+	}
+}
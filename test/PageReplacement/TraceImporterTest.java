@@ -0,0 +1,139 @@
+package PageReplacement;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * TraceImporter가 파일을 여러 chunk로 나누어 병렬로 읽은 결과가 한 스레드로 읽은 결과,
+ * 그리고 trace를 만들면서 직접 계산한 페이지 번호와 같은지 형식마다 확인한다.
+ * trace에는 머리말, 주석, CRLF 줄, 페이지 경계를 넘는 접근, 줄바꿈 없이 끝나는 마지막 줄을 섞는다.
+ *
+ * 사용법: java PageReplacement.TraceImporterTest
+ */
+
+public class TraceImporterTest {
+	private static final int LINES = 200_000;
+	private static final int PAGE_SHIFT = 12;
+	
+	// 만든 trace와 기대하는 페이지 번호
+	private static final class Trace {
+		final StringBuilder text = new StringBuilder();
+		final List<Integer> pages = new ArrayList<>();
+		
+		void addRange(long address, long length) {
+			for (long page = address >>> PAGE_SHIFT; page <= (address + length - 1) >>> PAGE_SHIFT; ++page) {
+				pages.add((int) page);
+			}
+		}
+		
+		int[] expected() {
+			int[] out = new int[pages.size()];
+			for (int i = 0; i < out.length; ++i) {
+				out[i] = pages.get(i);
+			}
+			return out;
+		}
+	}
+	
+	// 지역성이 있는 주소 (가끔 32비트를 넘는 페이지 번호)
+	private static long nextAddress(Random random, long previous) {
+		int r = random.nextInt(100);
+		if (r < 70) return Math.max(0, previous + random.nextInt(512) - 128);
+		if (r < 95) return (long) random.nextInt(1 << 24) << 4;
+		return 0x1ffefff000L + random.nextInt(1 << 20);
+	}
+	
+	static Trace lackey(long seed) {
+		Random random = new Random(seed);
+		Trace trace = new Trace();
+		trace.text.append("==1234== Lackey, an example Valgrind tool\n");
+		long address = 0x400000;
+		for (int i = 0; i < LINES; ++i) {
+			address = nextAddress(random, address);
+			int size = 1 << random.nextInt(5);
+			char op = "ILSM".charAt(random.nextInt(4));
+			trace.text.append(op == 'I' ? "I  " : " " + op + " ").append(Long.toHexString(address)).append(',').append(size);
+			trace.text.append(random.nextInt(50) == 0 ? "\r\n" : "\n");
+			trace.addRange(address, size);
+			if (random.nextInt(1_000) == 0) trace.text.append("==1234== comment\n");
+		}
+		trace.text.append(" L 0,4"); // 줄바꿈 없는 마지막 줄
+		trace.addRange(0, 4);
+		return trace;
+	}
+	
+	static Trace block(long seed) {
+		Random random = new Random(seed);
+		Trace trace = new Trace();
+		trace.text.append("lba,sectors\n");
+		long lba = 0;
+		for (int i = 0; i < LINES; ++i) {
+			lba = nextAddress(random, lba * 512) / 512;
+			int sectors = 1 + random.nextInt(24);
+			trace.text.append(lba).append(random.nextBoolean() ? "," : " \t").append(sectors).append('\n');
+			trace.addRange(lba * 512, sectors * 512L);
+		}
+		trace.text.append(7).append(',').append(8);
+		trace.addRange(7 * 512, 8 * 512);
+		return trace;
+	}
+	
+	static Trace address(long seed) {
+		Random random = new Random(seed);
+		Trace trace = new Trace();
+		trace.text.append("# addresses\n");
+		long address = 0;
+		for (int i = 0; i < LINES; ++i) {
+			address = nextAddress(random, address);
+			trace.text.append(random.nextBoolean() ? "0x" + Long.toHexString(address) : Long.toString(address)).append('\n');
+			trace.addRange(address, 1);
+		}
+		trace.text.append("0x1000");
+		trace.addRange(0x1000, 1);
+		return trace;
+	}
+	
+	static void test(TraceImporter.Format format, Trace trace, Path file) throws IOException {
+		Files.write(file, trace.text.toString().getBytes(StandardCharsets.US_ASCII));
+		int[] expected = trace.expected();
+		
+		TraceImporter serial = new TraceImporter(format);
+		serial.setParallelism(1);
+		serial.setChunkSize(Integer.MAX_VALUE);
+		Check.isTrue(Arrays.equals(expected, serial.importFile(file)), format + " 한 스레드로 읽은 결과가 다릅니다.");
+		
+		TraceImporter parallel = new TraceImporter(format);
+		parallel.setParallelism(4);
+		parallel.setChunkSize(1 << 16); // 한 줄의 최대 길이와 같은 가장 작은 chunk
+		Check.isTrue(Arrays.equals(expected, parallel.importFile(file)), format + " 병렬로 읽은 결과가 다릅니다.");
+		
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			Check.isTrue(Arrays.equals(expected, parallel.read(in)), format + " 채널로 읽은 결과가 다릅니다.");
+		}
+		
+		OnlinePolicy policy = PolicyFactory.createOnline("LRU");
+		policy.setFrameSize(64);
+		policy.reset();
+		Check.equal(expected.length, parallel.feed(file, policy), format + " 전달한 참조 수");
+		OnlinePolicy standalone = PolicyFactory.createOnline("LRU");
+		standalone.setFrameSize(64);
+		standalone.reset();
+		standalone.accessAll(expected, 0, expected.length);
+		Check.equal(standalone.getFaultCount(), policy.getFaultCount(), format + " 병렬로 전달한 Fault 수");
+	}
+	
+	public static void main(String[] args) throws IOException {
+		Path file = Files.createTempFile("trace", ".txt");
+		try {
+			test(TraceImporter.Format.LACKEY, lackey(31), file);
+			test(TraceImporter.Format.BLOCK, block(32), file);
+			test(TraceImporter.Format.ADDRESS, address(33), file);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+		System.out.println("TraceImporterTest OK");
+	}
+}